@@ -0,0 +1,166 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Benchmark of {@link AnalyticsSnapshot} group-by queries.
+ *
+ * <p>Generates applications from many students to many internships, in
+ * shuffled order so that consecutive applications point at students and
+ * internships spread over the heap, as a long-running system's would.
+ * Then times, both by walking the objects as the staff reports did and
+ * over the columnar snapshot:</p>
+ * <ul>
+ *   <li>placements by major, as {@code Main.reportPlacementsByMajor}
+ *       counted them before the live metrics;</li>
+ *   <li>acceptance rate by company;</li>
+ *   <li>fill rate by company.</li>
+ * </ul>
+ *
+ * <p>The time to take the snapshot is reported separately, and the
+ * results of both ways are checked to agree.</p>
+ *
+ * <p>Usage: {@code java -cp bin AnalyticsBenchmark [applications] [internships]}</p>
+ *
+ * @version 1.0
+ */
+public class AnalyticsBenchmark {
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int internshipCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Random random = new Random(23);
+
+        List<InternshipOpportunity> opps = new ArrayList<>();
+        for (int i = 0; i < internshipCount; i++) {
+            InternshipOpportunity opp = new InternshipOpportunity("Intern " + i, "Company " + (i % 500), null);
+            opp.setTotalSlots(1 + random.nextInt(10));
+            opp.setOpenDate(LocalDate.now().minusDays(1));
+            opp.setCloseDate(LocalDate.now().plusDays(30));
+            opp.setStatus(InternshipStatus.APPROVED);
+            opps.add(opp);
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count / 3; i++) {
+            students.add(new Student("U" + i, "Student " + i, SearchBenchmark.MAJORS[i % SearchBenchmark.MAJORS.length], 3));
+        }
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        List<Application> apps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Application app = new Application(students.get(random.nextInt(students.size())), opps.get(random.nextInt(opps.size())));
+            app.setStatus(statuses[random.nextInt(statuses.length)]);
+            apps.add(app);
+        }
+        Collections.shuffle(apps, random);
+        for (InternshipOpportunity opp : opps) {
+            for (int filled = random.nextInt(opp.getTotalSlots() + 1); filled > 0; filled--) {
+                opp.reserveSlot();
+            }
+        }
+
+        // First rounds warm up the JIT; the best round is reported
+        long build = Long.MAX_VALUE;
+        long[] walk = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE };
+        long[] columns = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE };
+        AnalyticsSnapshot snapshot = null;
+        Map<String, Integer> walkedPlacements = null;
+        Map<String, int[]> walkedAcceptance = null;
+        Map<String, int[]> walkedFill = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            snapshot = AnalyticsSnapshot.of(opps, apps);
+            build = Math.min(build, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            walkedPlacements = placementsByMajor(apps);
+            walk[0] = Math.min(walk[0], System.nanoTime() - start);
+            start = System.nanoTime();
+            walkedAcceptance = acceptanceByCompany(apps);
+            walk[1] = Math.min(walk[1], System.nanoTime() - start);
+            start = System.nanoTime();
+            walkedFill = fillByCompany(opps);
+            walk[2] = Math.min(walk[2], System.nanoTime() - start);
+
+            start = System.nanoTime();
+            Map<String, Integer> placements = snapshot.placementsByMajor();
+            columns[0] = Math.min(columns[0], System.nanoTime() - start);
+            start = System.nanoTime();
+            Map<String, AnalyticsSnapshot.Rate> acceptance = snapshot.acceptanceRateByCompany();
+            columns[1] = Math.min(columns[1], System.nanoTime() - start);
+            start = System.nanoTime();
+            Map<String, AnalyticsSnapshot.Rate> fill = snapshot.fillRateByCompany();
+            columns[2] = Math.min(columns[2], System.nanoTime() - start);
+
+            check("placements by major", new TreeMap<>(walkedPlacements), placements);
+            checkRates("acceptance by company", walkedAcceptance, acceptance);
+            checkRates("fill by company", walkedFill, fill);
+        }
+
+        System.out.printf("%,d applications, %,d internships, %,d students (best of %d runs)%n",
+            count, internshipCount, students.size(), ROUNDS);
+        System.out.printf("  take snapshot                          %8.2f ms%n", build / 1e6);
+        String[] names = { "placements by major", "acceptance rate by company", "fill rate by company" };
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("  %-28s walk objects %8.2f ms   columns %7.2f ms%n", names[i], walk[i] / 1e6, columns[i] / 1e6);
+        }
+    }
+
+    /** As the report counted placements before the live metrics. */
+    private static Map<String, Integer> placementsByMajor(List<Application> apps) {
+        Map<String, Integer> placementsByMajor = new HashMap<>();
+        for (Application app : apps) {
+            if (app != null && app.getStatus() == ApplicationStatus.ACCEPTED) {
+                Student student = app.getStudent();
+                if (student != null) {
+                    String major = student.getMajor();
+                    placementsByMajor.put(major, placementsByMajor.getOrDefault(major, 0) + 1);
+                }
+            }
+        }
+        return placementsByMajor;
+    }
+
+    private static Map<String, int[]> acceptanceByCompany(List<Application> apps) {
+        Map<String, int[]> counts = new HashMap<>();
+        for (Application app : apps) {
+            int[] count = counts.computeIfAbsent(app.getOpportunity().getCompanyName(), k -> new int[2]);
+            if (app.getStatus() == ApplicationStatus.ACCEPTED) count[0]++;
+            count[1]++;
+        }
+        return counts;
+    }
+
+    private static Map<String, int[]> fillByCompany(List<InternshipOpportunity> opps) {
+        Map<String, int[]> counts = new HashMap<>();
+        for (InternshipOpportunity opp : opps) {
+            int[] count = counts.computeIfAbsent(opp.getCompanyName(), k -> new int[2]);
+            count[0] += opp.getFilledSlots();
+            count[1] += opp.getTotalSlots();
+        }
+        return counts;
+    }
+
+    private static void check(String what, Map<String, Integer> expected, Map<String, Integer> actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(what + ": expected " + expected + ", was " + actual);
+        }
+    }
+
+    private static void checkRates(String what, Map<String, int[]> expected, Map<String, AnalyticsSnapshot.Rate> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException(what + ": expected " + expected.size() + " groups, was " + actual.size());
+        }
+        expected.forEach((name, count) -> {
+            AnalyticsSnapshot.Rate rate = actual.get(name);
+            if (rate == null || rate.getPart() != count[0] || rate.getWhole() != count[1]) {
+                throw new IllegalStateException(what + " of " + name + " differs");
+            }
+        });
+    }
+}
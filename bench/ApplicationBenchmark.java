@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of the indexed application store against a plain list.
+ *
+ * <p>Loads the same applications into an {@link ArrayList} checked with
+ * {@code contains}, as {@link ApplicationController} used to, and into an
+ * {@link ApplicationRepository}, then times the applications-per-internship
+ * report both ways: a scan of every application for each internship
+ * against one index lookup per internship. The counts of both reports and
+ * of the accepted applications are checked to agree.</p>
+ *
+ * <p>Usage: {@code java -cp bin ApplicationBenchmark [applications] [internships]}</p>
+ *
+ * @version 1.0
+ */
+public class ApplicationBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int internshipCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        List<InternshipOpportunity> opps = new ArrayList<>();
+        for (int i = 0; i < internshipCount; i++) {
+            opps.add(new InternshipOpportunity("Intern " + i, "Company " + (i % 100), null));
+        }
+        List<Application> apps = new ArrayList<>();
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        for (int i = 0; i < count; i++) {
+            Student student = new Student("U" + (i / 3), "Student " + (i / 3), "Computer Science", 3);
+            Application app = new Application(student, opps.get((i * 7919) % opps.size()));
+            app.setStatus(statuses[i % statuses.length]);
+            apps.add(app);
+        }
+
+        // First rounds warm up the JIT; the best round is reported
+        long listLoad = Long.MAX_VALUE;
+        long repoLoad = Long.MAX_VALUE;
+        List<Application> list = null;
+        ApplicationRepository repo = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            list = new ArrayList<>();
+            for (Application app : apps) {
+                if (!list.contains(app)) list.add(app);
+            }
+            listLoad = Math.min(listLoad, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            repo = new ApplicationRepository();
+            for (Application app : apps) {
+                repo.add(app);
+            }
+            repoLoad = Math.min(repoLoad, System.nanoTime() - start);
+        }
+        check("applications loaded", list.size(), repo.size());
+
+        long scanReport = Long.MAX_VALUE;
+        long indexReport = Long.MAX_VALUE;
+        long scanTotal = 0;
+        long indexTotal = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            scanTotal = 0;
+            for (InternshipOpportunity opp : opps) {
+                for (Application app : list) {
+                    if (app.getOpportunity().equals(opp)) scanTotal++;
+                }
+            }
+            scanReport = Math.min(scanReport, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            indexTotal = 0;
+            for (InternshipOpportunity opp : opps) {
+                indexTotal += repo.forInternship(opp).size();
+            }
+            indexReport = Math.min(indexReport, System.nanoTime() - start);
+        }
+        check("applications per internship", (int) scanTotal, (int) indexTotal);
+
+        int accepted = 0;
+        for (Application app : list) {
+            if (app.getStatus() == ApplicationStatus.ACCEPTED) accepted++;
+        }
+        check("accepted applications", accepted, repo.countWithStatus(ApplicationStatus.ACCEPTED));
+
+        System.out.printf("%,d applications, %,d internships (best of %d runs)%n", count, internshipCount, ROUNDS);
+        System.out.printf("  load with dedup    list %9.1f ms   repository %7.1f ms%n", listLoad / 1e6, repoLoad / 1e6);
+        System.out.printf("  per-internship     scan %9.1f ms   index      %7.1f ms%n", scanReport / 1e6, indexReport / 1e6);
+    }
+
+    private static void check(String what, int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalStateException(what + ": expected " + expected + ", was " + actual);
+        }
+    }
+}
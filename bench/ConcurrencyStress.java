@@ -0,0 +1,267 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * Stress test of the controllers under many concurrent sessions.
+ *
+ * <p>Shares one {@link InternshipController} and one
+ * {@link ApplicationController} (with writes to the data files discarded)
+ * between many threads, each acting as a session, in four phases:</p>
+ * <ol>
+ *   <li>students apply to random internships;</li>
+ *   <li>two representatives review every application at once, one
+ *       accepting and one rejecting;</li>
+ *   <li>students with two offers confirm both at once from two
+ *       sessions;</li>
+ *   <li>every placement is withdrawn and two staff members approve each
+ *       withdrawal at once.</li>
+ * </ol>
+ *
+ * <p>Meanwhile other threads keep listing internships and applications.
+ * After each phase the state is checked for lost updates: every
+ * application recorded once, every decision saved once, at most one
+ * placement per student, and slot counts that match the placements
+ * confirmed and withdrawn. Any violation or exception fails the run.</p>
+ *
+ * <p>Usage: {@code java -cp bin ConcurrencyStress [sessions] [students]}</p>
+ *
+ * @version 1.0
+ */
+public class ConcurrencyStress {
+    private static final int INTERNSHIPS = 400;
+
+    private static final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int studentCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        LocalDate today = LocalDate.now();
+        Random random = new Random(5);
+
+        CountingScheduler scheduler = new CountingScheduler();
+        InternshipController internships = new InternshipController();
+        ApplicationController applications = new ApplicationController();
+        internships.setPersistenceScheduler(scheduler);
+        applications.setPersistenceScheduler(scheduler);
+        applications.setInternshipService(internships);
+
+        CareerCenterStaff staff = new CareerCenterStaff("staff@ntu.edu.sg", "Staff", "Career Services");
+        CompanyRepresentative[] reps = new CompanyRepresentative[100];
+        for (int i = 0; i < reps.length; i++) {
+            reps[i] = new CompanyRepresentative("rep" + i + "@corp.com", "Rep " + i, "Company " + i);
+            reps[i].setApproved(true);
+        }
+        List<InternshipOpportunity> opps = new ArrayList<>();
+        InternshipLevel[] levels = InternshipLevel.values();
+        for (int i = 0; i < INTERNSHIPS; i++) {
+            CompanyRepresentative rep = reps[i % reps.length];
+            InternshipOpportunity opp = new InternshipOpportunity("Intern " + i, rep.getCompanyName(), rep);
+            opp.setLevel(levels[i % levels.length]);
+            opp.setTotalSlots(1 + random.nextInt(10));
+            opp.setOpenDate(today.minusDays(10));
+            opp.setCloseDate(today.plusDays(10));
+            opp.setStatus(InternshipStatus.APPROVED);
+            opp.setVisible(true);
+            internships.create(staff, opp);
+            rep.createInternship(opp);
+            opps.add(opp);
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            students.add(new Student("U" + i, "Student " + i, SearchBenchmark.MAJORS[i % SearchBenchmark.MAJORS.length], 3 + i % 2));
+        }
+
+        Thread[] readers = startReaders(internships, applications, students, reps, today);
+
+        // 1. Everyone applies at once; duplicates and over-limit applications are refused
+        AtomicInteger applied = new AtomicInteger();
+        phase("apply", sessions, session -> {
+            Random local = new Random(session);
+            for (int i = 0; i < studentCount * 4 / sessions; i++) {
+                Student student = students.get(local.nextInt(students.size()));
+                Application app = new Application(student, opps.get(local.nextInt(opps.size())));
+                try {
+                    student.addApplication(app);
+                    applications.addApplication(app);
+                    applied.incrementAndGet();
+                } catch (ApplicationException e) {
+                    // Refused by the student's rules
+                }
+            }
+        });
+        int recorded = 0;
+        for (Student student : students) {
+            recorded += student.getApplications().size();
+            if (student.getApplications().stream().filter(Application::isActive).count() > 3) {
+                throw new IllegalStateException(student.getId() + " has more than 3 active applications");
+            }
+        }
+        check("applications recorded", applied.get(), recorded);
+        check("applications in controller", applied.get(), applications.getAllApplications().size());
+
+        // 2. Two representatives review the same applications at once
+        List<Application> all = applications.getAllApplications();
+        Collections.shuffle(all, random);
+        int savesBefore = scheduler.puts.get();
+        phase("review", sessions, session -> {
+            ApplicationStatus decision = session % 2 == 0 ? ApplicationStatus.ACCEPTED : ApplicationStatus.REJECTED;
+            for (int i = session / 2; i < all.size(); i += (sessions + 1) / 2) {
+                Application app = all.get(i);
+                applications.review(app.getOpportunity(), app, decision);
+            }
+        });
+        for (Application app : all) {
+            if (app.isPending()) {
+                throw new IllegalStateException("Application left pending: " + app);
+            }
+        }
+        check("review decisions saved", all.size(), scheduler.puts.get() - savesBefore);
+
+        // 3. Students with two offers confirm both from two sessions at once
+        ConcurrentHashMap<InternshipOpportunity, AtomicInteger> confirmed = new ConcurrentHashMap<>();
+        ConcurrentHashMap<Student, AtomicInteger> placements = new ConcurrentHashMap<>();
+        phase("accept", sessions, session -> {
+            for (int i = session / 2; i < students.size(); i += (sessions + 1) / 2) {
+                Student student = students.get(i);
+                List<Application> offers = student.getSuccessfulApplications();
+                if (offers.isEmpty() || (session % 2 == 1 && offers.size() < 2)) continue;
+                Application offer = offers.get(session % 2 == 0 ? 0 : 1);
+                try {
+                    if (applications.accept(student, offer)) {
+                        confirmed.computeIfAbsent(offer.getOpportunity(), k -> new AtomicInteger()).incrementAndGet();
+                        placements.computeIfAbsent(student, k -> new AtomicInteger()).incrementAndGet();
+                    }
+                } catch (ApplicationException e) {
+                    // The other session won, or the internship is full
+                }
+            }
+        });
+        placements.forEach((student, count) -> check("placements of " + student.getId(), 1, count.get()));
+        for (InternshipOpportunity opp : opps) {
+            AtomicInteger count = confirmed.get(opp);
+            check("filled slots of " + opp.getTitle(), count == null ? 0 : count.get(), opp.getFilledSlots());
+            if (opp.getFilledSlots() > opp.getTotalSlots()) {
+                throw new IllegalStateException(opp.getTitle() + " is overbooked");
+            }
+        }
+
+        // 4. Every placement is withdrawn; two staff members approve each request at once
+        List<Application> placed = new ArrayList<>();
+        for (Student student : placements.keySet()) {
+            for (Application app : student.getApplications()) {
+                if (app.isConfirmed() && confirmed.containsKey(app.getOpportunity())) {
+                    applications.requestForWithdrawal(app);
+                    placed.add(app);
+                }
+            }
+        }
+        phase("withdraw", sessions, session -> {
+            for (int i = session / 2; i < placed.size(); i += (sessions + 1) / 2) {
+                applications.decideWithdrawal(staff, placed.get(i), WithdrawalStatus.APPROVED);
+            }
+        });
+        for (InternshipOpportunity opp : opps) {
+            check("slots after withdrawals of " + opp.getTitle(), 0, opp.getFilledSlots());
+        }
+
+        for (Thread reader : readers) {
+            reader.interrupt();
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("A session failed", failure.get());
+        }
+        System.out.printf("%nNo lost updates: %d applications, %d placements, %d withdrawals across %d sessions%n",
+            applied.get(), placements.size(), placed.size(), sessions);
+    }
+
+    /** Runs a task on every session thread, all released at once. */
+    private static void phase(String name, int sessions, IntConsumer task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[sessions];
+        for (int s = 0; s < sessions; s++) {
+            int session = s;
+            threads[s] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(session);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[s].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("  %-10s %8.1f ms%n", name, (System.nanoTime() - begin) / 1e6);
+        if (failure.get() != null) {
+            throw new IllegalStateException("Session failed during " + name, failure.get());
+        }
+    }
+
+    /** Threads that keep listing, as students and staff browsing would. */
+    private static Thread[] startReaders(InternshipController internships, ApplicationController applications,
+                                         List<Student> students, CompanyRepresentative[] reps, LocalDate today) {
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            int reader = r;
+            readers[r] = new Thread(() -> {
+                Random local = new Random(100 + reader);
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        Student student = students.get(local.nextInt(students.size()));
+                        internships.getFilteredOpportunities(student);
+                        internships.getOpenOpportunities(today);
+                        student.canApplyMore();
+                        for (Application app : applications.getAllApplications()) {
+                            app.getStatus();
+                        }
+                        reps[local.nextInt(reps.length)].countActiveInternships();
+                        internships.getAllOpportunities();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers[r].setDaemon(true);
+            readers[r].start();
+        }
+        return readers;
+    }
+
+    private static void check(String what, int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalStateException("Lost update in " + what + ": expected " + expected + ", was " + actual);
+        }
+    }
+
+    /**
+     * Discards writes, counting the records that would have been saved.
+     */
+    private static class CountingScheduler extends PersistenceScheduler {
+        final AtomicInteger puts = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<Void> put(RecordJournal journal, String record) {
+            puts.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> remove(RecordJournal journal, String key) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Throughput and memory of streaming report exports with {@link ReportExporter}.
+ *
+ * <p>Exports generated rows shaped like the Applications per Internship
+ * report, with company names that need quoting and escaping, to CSV and
+ * to JSON Lines in a temporary directory. For each format reports:</p>
+ * <ul>
+ *   <li>the best time, rows per second and megabytes per second;</li>
+ *   <li>the most heap in use during an export, sampled at each progress
+ *       report, against the heap in use before it started.</li>
+ * </ul>
+ *
+ * <p>Rows are generated as they are written, so the heap growth is that of
+ * the exporter alone and should stay flat as the row count grows. Each file
+ * is checked to hold one line per row, plus the CSV header.</p>
+ *
+ * <p>Usage: {@code java -cp bin ExportBenchmark [rows]}</p>
+ *
+ * @version 1.0
+ */
+public class ExportBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String[] COLUMNS = {
+        "title", "company", "status", "applications", "filled_slots", "total_slots", "fill_rate"
+    };
+    private static final String[] STATUSES = { "PENDING", "APPROVED", "REJECTED", "FILLED" };
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("export-bench");
+        Runtime runtime = Runtime.getRuntime();
+
+        System.out.printf("%,d rows (best of %d runs)%n", count, ROUNDS);
+        for (ReportExporter.Format format : ReportExporter.Format.values()) {
+            Path file = dir.resolve("report." + format.getExtension());
+            ReportExporter.Result best = null;
+            long[] peak = new long[1];
+            long baseline = 0;
+            // First rounds warm up the JIT; the best round is reported
+            for (int round = 0; round < ROUNDS; round++) {
+                System.gc();
+                baseline = runtime.totalMemory() - runtime.freeMemory();
+                peak[0] = baseline;
+                ReportExporter.Result result = ReportExporter.export(file, format, COLUMNS, count, sink -> {
+                    for (int i = 0; i < count; i++) {
+                        int total = 1 + i % 10;
+                        int filled = i % (total + 1);
+                        sink.row("Intern " + i, i % 7 == 0 ? "Company \"" + (i % 500) + "\", Ltd" : "Company " + (i % 500),
+                                 STATUSES[i % STATUSES.length], i % 37, filled, total, filled * 100.0 / total);
+                    }
+                }, (rows, expected) -> peak[0] = Math.max(peak[0], runtime.totalMemory() - runtime.freeMemory()));
+                if (best == null || result.getMillis() < best.getMillis()) {
+                    best = result;
+                }
+            }
+
+            long lines = countLines(file);
+            long expectedLines = count + (format == ReportExporter.Format.CSV ? 1 : 0);
+            if (best.getRows() != count || lines != expectedLines) {
+                throw new IllegalStateException(format + ": expected " + expectedLines + " lines, file has " + lines);
+            }
+            System.out.printf("  %-10s %8.2f ms   %,12.0f rows/s   %7.1f MB/s   %,6d KB file   heap +%,d KB%n",
+                format, best.getMillis(), best.rowsPerSecond(), best.getBytes() / 1e6 / (best.getMillis() / 1e3),
+                best.getBytes() / 1024, (peak[0] - baseline) / 1024);
+            Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    private static long countLines(Path file) throws IOException {
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
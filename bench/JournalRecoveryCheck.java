@@ -0,0 +1,76 @@
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Check that internship journal recovery keeps postings that share a title.
+ *
+ * <p>Titles are only unique within a company. Writes a snapshot with the
+ * same title at two companies, then in turn:</p>
+ * <ul>
+ *   <li>updates one company's posting and recovers;</li>
+ *   <li>removes that posting and recovers;</li>
+ * </ul>
+ * <p>and checks after each that the other company's posting is still
+ * there, unchanged. Any difference fails the run.</p>
+ *
+ * <p>Usage: {@code java -cp bin JournalRecoveryCheck}</p>
+ *
+ * @version 1.0
+ */
+public class JournalRecoveryCheck {
+    private static final String ALPHA =
+        "INT001|SWE Intern|Alpha Pte Ltd|rep@alpha.com|Backend|BASIC|Computer Science|3|0|APPROVED|true|2025-01-01|2025-12-31";
+    private static final String ALPHA_UPDATED =
+        "INT001|SWE Intern|Alpha Pte Ltd|rep@alpha.com|Backend|BASIC|Computer Science|3|1|APPROVED|true|2025-01-01|2025-12-31";
+    private static final String BETA =
+        "INT002|SWE Intern|Beta Pte Ltd|rep@beta.com|Frontend|BASIC|Computer Science|2|0|APPROVED|true|2025-01-01|2025-12-31";
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("journal-check");
+        Path file = dir.resolve("internships.txt");
+        try {
+            RecordJournal journal = RecordJournal.forInternships(file.toString());
+            journal.writeSnapshot(Arrays.asList(ALPHA, BETA));
+
+            journal.put(ALPHA_UPDATED);
+            journal.close();
+            RecordJournal.forInternships(file.toString()).recover();
+            check("after updating Alpha", Arrays.asList(ALPHA_UPDATED, BETA), records(file));
+
+            journal.remove(journal.keyOf(ALPHA_UPDATED));
+            journal.close();
+            RecordJournal.forInternships(file.toString()).recover();
+            check("after removing Alpha", Arrays.asList(BETA), records(file));
+
+            System.out.println("Same-titled postings at two companies survive recovery");
+        } finally {
+            for (String name : new String[] { "internships.txt", "internships.txt.journal", "internships.txt.journal.compacting" }) {
+                Files.deleteIfExists(dir.resolve(name));
+            }
+            Files.delete(dir);
+        }
+    }
+
+    /** Data lines of a snapshot, without comments and the checksum trailer. */
+    private static List<String> records(Path file) throws IOException {
+        SnapshotChecksum.verify(file);
+        List<String> records = new ArrayList<>();
+        for (String line : Files.readAllLines(file, Charset.defaultCharset())) {
+            if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                records.add(line);
+            }
+        }
+        return records;
+    }
+
+    private static void check(String what, List<String> expected, List<String> actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(what + ": expected " + expected + ", was " + actual);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the user lookup done at login.
+ *
+ * <p>Generates one million students and compares scanning the user list
+ * for the ID (as {@link AuthController#authenticate} used to do) with the
+ * {@link UserDirectory} lookup, on one thread and on several. Lookups are
+ * for random existing users, with one in ten for an unknown ID, which the
+ * scan has to walk the whole list to reject. Checks that both find the
+ * same users. The password check that follows the lookup is timed by
+ * {@link PasswordBenchmark}.</p>
+ *
+ * <p>Usage: {@code java -cp bin LoginBenchmark [users]}</p>
+ *
+ * @version 1.0
+ */
+public class LoginBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int THREADS = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new Student("U" + i, "Student " + i, "Computer Science", 1 + i % 4));
+        }
+        long start = System.nanoTime();
+        UserDirectory directory = new UserDirectory(users);
+        System.out.printf("Indexed %d users in %.0f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        String[] ids = new String[100_000];
+        Random random = new Random(7);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i % 10 == 0 ? "X" + i : "U" + random.nextInt(count);
+        }
+        for (int i = 0; i < 100; i++) {
+            if (scan(users, ids[i]) != directory.find(ids[i])) {
+                throw new IllegalStateException("Directory disagrees with linear scan for " + ids[i]);
+            }
+        }
+
+        // First rounds warm up the JIT; the best round is reported
+        int scanned = Math.min(ids.length, 200);
+        long linear = Long.MAX_VALUE;
+        long indexed = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < scanned; i++) {
+                scan(users, ids[i]);
+            }
+            linear = Math.min(linear, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (String id : ids) {
+                directory.find(id);
+            }
+            indexed = Math.min(indexed, System.nanoTime() - start);
+        }
+        System.out.printf("%nOne thread%n");
+        System.out.printf("  %-12s %10.2f us per lookup %12.0f lookups/s%n",
+            "linear scan", linear / 1e3 / scanned, scanned / (linear / 1e9));
+        System.out.printf("  %-12s %10.2f us per lookup %12.0f lookups/s%n",
+            "directory", indexed / 1e3 / ids.length, ids.length / (indexed / 1e9));
+
+        long concurrent = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            Thread[] workers = new Thread[THREADS];
+            start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < ids.length; i++) {
+                        directory.find(ids[(i + offset * 997) % ids.length]);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            concurrent = Math.min(concurrent, System.nanoTime() - start);
+        }
+        long lookups = (long) ids.length * THREADS;
+        System.out.printf("%n%d threads%n", THREADS);
+        System.out.printf("  %-12s %10.2f us per lookup %12.0f lookups/s%n",
+            "directory", concurrent / 1e3 / lookups * THREADS, lookups / (concurrent / 1e9));
+    }
+
+    /** Lookup as authenticate did before the directory. */
+    private static User scan(List<User> users, String id) {
+        for (User user : users) {
+            if (user != null && user.getId() != null && user.getId().equals(id)) {
+                return user;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,291 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Benchmark and consistency check of {@link LiveMetrics}.
+ *
+ * <p>Loads generated users, internships and applications into the
+ * controllers with live metrics attached (writes to the data files are
+ * discarded), then has several threads at once approve and reject
+ * internships and representatives, review applications, accept offers and
+ * approve withdrawals. Afterwards every counter is checked against a
+ * recount of the data. Finally times the staff dashboards both ways: the
+ * system overview and the applications-per-internship report recounted
+ * from the data, as they used to be, against the same figures read from
+ * the metrics.</p>
+ *
+ * <p>Usage: {@code java -cp bin MetricsBenchmark [students] [internships]}</p>
+ *
+ * @version 1.0
+ */
+public class MetricsBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int THREADS = 8;
+
+    private static final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public static void main(String[] args) throws InterruptedException {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int internshipCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        LocalDate today = LocalDate.now();
+        Random random = new Random(22);
+
+        DiscardingScheduler scheduler = new DiscardingScheduler();
+        InternshipController internships = new InternshipController();
+        ApplicationController applications = new ApplicationController();
+        RegistrationController registration = new RegistrationController();
+        internships.setPersistenceScheduler(scheduler);
+        applications.setPersistenceScheduler(scheduler);
+        registration.setPersistenceScheduler(scheduler);
+        applications.setInternshipService(internships);
+
+        // Attached before some of the data and after the rest, as the CLI does
+        LiveMetrics metrics = new LiveMetrics();
+        applications.setMetrics(metrics);
+
+        List<User> users = new ArrayList<>();
+        CareerCenterStaff staff = new CareerCenterStaff("staff@ntu.edu.sg", "Staff", "Career Services");
+        users.add(staff);
+        List<CompanyRepresentative> reps = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            CompanyRepresentative rep = new CompanyRepresentative("rep" + i + "@corp.com", "Rep " + i, "Company " + (i % 50));
+            rep.setApproved(i % 3 == 0);
+            reps.add(rep);
+            users.add(rep);
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student("U" + i, "Student " + i, SearchBenchmark.MAJORS[i % SearchBenchmark.MAJORS.length], 3 + i % 2);
+            students.add(student);
+            users.add(student);
+        }
+        UserDirectory directory = new UserDirectory(users);
+        registration.setUserDirectory(directory);
+        directory.setMetrics(metrics);
+
+        List<InternshipOpportunity> opps = new ArrayList<>();
+        InternshipStatus[] statuses = { InternshipStatus.PENDING, InternshipStatus.APPROVED };
+        for (int i = 0; i < internshipCount; i++) {
+            CompanyRepresentative rep = reps.get(i % reps.size());
+            InternshipOpportunity opp = new InternshipOpportunity("Intern " + i, rep.getCompanyName(), rep);
+            opp.setLevel(InternshipLevel.values()[i % InternshipLevel.values().length]);
+            opp.setTotalSlots(1 + random.nextInt(10));
+            opp.setOpenDate(today.minusDays(10));
+            opp.setCloseDate(today.plusDays(10));
+            opp.setStatus(statuses[i % statuses.length]);
+            internships.addOpportunity(opp);
+            rep.createInternship(opp);
+            opps.add(opp);
+        }
+        internships.setMetrics(metrics);
+
+        for (Student student : students) {
+            for (int i = 0; i < 3; i++) {
+                Application app = new Application(student, opps.get(random.nextInt(opps.size())));
+                try {
+                    student.addApplication(app);
+                    applications.loadApplication(app);
+                } catch (ApplicationException e) {
+                    // Same internship drawn twice
+                }
+            }
+        }
+        verify("after loading", metrics, directory, internships, applications);
+
+        // Everything that moves a counter, from several threads at once
+        List<Application> all = applications.getAllApplications();
+        long start = System.nanoTime();
+        parallel(thread -> {
+            Random local = new Random(thread);
+            for (int i = thread; i < opps.size(); i += THREADS) {
+                if (local.nextInt(4) == 0) internships.reject(staff, opps.get(i));
+                else internships.approve(staff, opps.get(i));
+            }
+            for (int i = thread; i < reps.size(); i += THREADS) {
+                if (local.nextBoolean()) registration.approveRepresentative(staff, reps.get(i));
+                else registration.rejectRepresentative(staff, reps.get(i));
+            }
+            for (int i = thread; i < all.size(); i += THREADS) {
+                Application app = all.get(i);
+                applications.review(app.getOpportunity(), app,
+                    local.nextInt(3) == 0 ? ApplicationStatus.REJECTED : ApplicationStatus.ACCEPTED);
+            }
+            for (int i = thread; i < students.size(); i += THREADS) {
+                Student student = students.get(i);
+                List<Application> offers = student.getSuccessfulApplications();
+                if (offers.isEmpty()) continue;
+                Application offer = offers.get(0);
+                try {
+                    applications.accept(student, offer);
+                } catch (ApplicationException e) {
+                    continue;
+                }
+                if (local.nextInt(5) == 0) {
+                    applications.requestForWithdrawal(offer);
+                    applications.decideWithdrawal(staff, offer, WithdrawalStatus.APPROVED);
+                }
+            }
+        });
+        System.out.printf("Concurrent changes on %d threads: %.1f ms%n", THREADS, (System.nanoTime() - start) / 1e6);
+        verify("after concurrent changes", metrics, directory, internships, applications);
+
+        // First rounds warm up the JIT; the best round is reported
+        long recount = Long.MAX_VALUE;
+        long live = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long begin = System.nanoTime();
+            sink += recount(directory.getUsers(), internships.getAllOpportunities(), applications.getAllApplications());
+            recount = Math.min(recount, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            sink += read(metrics, internships.getAllOpportunities());
+            live = Math.min(live, System.nanoTime() - begin);
+        }
+        if (sink == 0) throw new IllegalStateException("Nothing counted");
+
+        System.out.printf("%n%,d users, %,d internships, %,d applications (best of %d runs)%n",
+            directory.size(), opps.size(), all.size(), ROUNDS);
+        System.out.printf("  overview and per-internship report   recount %9.2f ms   live metrics %7.3f ms%n",
+            recount / 1e6, live / 1e6);
+    }
+
+    /** The overview and per-internship figures counted from the data. */
+    private static long recount(List<User> users, List<InternshipOpportunity> opps, List<Application> apps) {
+        long total = 0;
+        for (User user : users) {
+            if (user instanceof CompanyRepresentative && !((CompanyRepresentative) user).getIsApproved()) total++;
+        }
+        for (InternshipOpportunity opp : opps) {
+            if (opp.getStatus() == InternshipStatus.APPROVED) total++;
+        }
+        for (Application app : apps) {
+            if (app.getStatus() == ApplicationStatus.ACCEPTED) total++;
+        }
+        for (InternshipOpportunity opp : opps) {
+            for (Application app : apps) {
+                if (app.getOpportunity().equals(opp)) total++;
+            }
+        }
+        return total;
+    }
+
+    /** The same figures read from the metrics. */
+    private static long read(LiveMetrics metrics, List<InternshipOpportunity> opps) {
+        long total = metrics.getPendingRepresentatives()
+            + metrics.countInternships(InternshipStatus.APPROVED)
+            + metrics.countApplications(ApplicationStatus.ACCEPTED);
+        for (InternshipOpportunity opp : opps) {
+            total += metrics.countApplicationsFor(opp);
+        }
+        return total;
+    }
+
+    private static void verify(String when, LiveMetrics metrics, UserDirectory directory,
+                               InternshipController internships, ApplicationController applications) {
+        int students = 0, reps = 0, staff = 0, pendingReps = 0;
+        for (User user : directory.getUsers()) {
+            if (user instanceof Student) students++;
+            else if (user instanceof CareerCenterStaff) staff++;
+            else if (user instanceof CompanyRepresentative) {
+                reps++;
+                if (!((CompanyRepresentative) user).getIsApproved()) pendingReps++;
+            }
+        }
+        check(when, "students", students, metrics.getStudents());
+        check(when, "representatives", reps, metrics.getRepresentatives());
+        check(when, "staff", staff, metrics.getStaff());
+        check(when, "pending representatives", pendingReps, metrics.getPendingRepresentatives());
+
+        Map<InternshipStatus, Integer> byStatus = new EnumMap<>(InternshipStatus.class);
+        Map<String, Integer> byCompany = new HashMap<>();
+        for (InternshipOpportunity opp : internships.getAllOpportunities()) {
+            byStatus.merge(opp.getStatus(), 1, Integer::sum);
+            byCompany.merge(opp.getCompanyName() + "/" + opp.getStatus(), 1, Integer::sum);
+            check(when, "applications for " + opp.getTitle(),
+                applications.getApplicationsFor(opp).size(), metrics.countApplicationsFor(opp));
+        }
+        for (InternshipStatus status : InternshipStatus.values()) {
+            check(when, "internships " + status, byStatus.getOrDefault(status, 0), metrics.countInternships(status));
+        }
+        metrics.getCompanies().forEach((company, counts) -> {
+            for (InternshipStatus status : InternshipStatus.values()) {
+                check(when, company + " internships " + status,
+                    byCompany.getOrDefault(company + "/" + status, 0), counts.countInternships(status));
+            }
+        });
+
+        Map<ApplicationStatus, Integer> appStatus = new EnumMap<>(ApplicationStatus.class);
+        Map<String, Integer> byMajor = new TreeMap<>();
+        for (Application app : applications.getAllApplications()) {
+            appStatus.merge(app.getStatus(), 1, Integer::sum);
+            if (app.getStatus() == ApplicationStatus.ACCEPTED) byMajor.merge(app.getStudent().getMajor(), 1, Integer::sum);
+        }
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            check(when, "applications " + status, appStatus.getOrDefault(status, 0), metrics.countApplications(status));
+        }
+        if (!byMajor.equals(metrics.getPlacementsByMajor())) {
+            throw new IllegalStateException("Placements by major " + when + ": expected " + byMajor
+                + ", was " + metrics.getPlacementsByMajor());
+        }
+        System.out.println("Metrics match a full recount " + when);
+    }
+
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    private static void parallel(Task task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("A thread failed", failure.get());
+        }
+    }
+
+    private static void check(String when, String what, int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalStateException(what + " " + when + ": expected " + expected + ", was " + actual);
+        }
+    }
+
+    /**
+     * Discards writes.
+     */
+    private static class DiscardingScheduler extends PersistenceScheduler {
+        @Override
+        public CompletableFuture<Void> put(RecordJournal journal, String record) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> remove(RecordJournal journal, String key) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
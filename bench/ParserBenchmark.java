@@ -0,0 +1,153 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Benchmark of the data line parsers.
+ *
+ * <p>Generates one million rows in each data file format and compares the
+ * original {@code split("\\|")} + {@code trim()} parsing with the
+ * {@link RecordTokenizer}-based parsers in {@link DataManager}. Reports
+ * time and bytes allocated per row for each format.</p>
+ *
+ * <p>Usage: {@code java -cp bin ParserBenchmark [rows]}</p>
+ *
+ * @version 1.0
+ */
+public class ParserBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        File users = generate("users", rows, i -> "STUDENT|U" + i + "|Student " + i + "|password|Computer Science|" + (1 + i % 4));
+        File internships = generate("internships", rows, i -> "INT" + i + "|Intern " + i + "|Company " + (i % 500)
+            + "|rep" + (i % 500) + "@corp.com|Backend development with Java|BASIC|Computer Science,Engineering|5|"
+            + (i % 5) + "|APPROVED|true|2025-01-01|2025-12-31");
+        File applications = generate("applications", rows, i -> "U" + i + "|Intern " + (i % 1000)
+            + "|PENDING|2025-11-15|2025-11-15");
+
+        compare("users", users, ParserBenchmark::legacyUser, DataManager::parseUser);
+        compare("internships", internships, ParserBenchmark::legacyInternship, DataManager::parseInternship);
+        compare("applications", applications, ParserBenchmark::legacyApplication, DataManager::parseApplication);
+    }
+
+    private static void compare(String name, File file, Function<String, Object> legacy, Function<String, ?> tokenized)
+            throws IOException {
+        List<String> lines = readLines(file);
+        System.out.println("\n" + name + " (" + lines.size() + " rows)");
+        // First rounds warm up the JIT; the best round is reported
+        measure("  split + trim", lines, legacy);
+        measure("  tokenizer   ", lines, tokenized);
+    }
+
+    private static void measure(String label, List<String> lines, Function<String, ?> parser) {
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            int parsed = 0;
+            for (String line : lines) {
+                if (parser.apply(line) != null) parsed++;
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+            if (parsed != lines.size()) throw new IllegalStateException("Rows rejected: " + (lines.size() - parsed));
+            bestNanos = Math.min(bestNanos, nanos);
+            bestBytes = Math.min(bestBytes, bytes);
+        }
+        System.out.printf("%s %8.1f ms  %6.1f ns/row  %6.1f bytes/row%n",
+            label, bestNanos / 1e6, bestNanos / (double) lines.size(), bestBytes / (double) lines.size());
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static File generate(String name, int rows, java.util.function.IntFunction<String> row) throws IOException {
+        File file = File.createTempFile("bench-" + name, ".txt");
+        file.deleteOnExit();
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+            out.write("# Generated " + name + " data\n\n");
+            for (int i = 0; i < rows; i++) {
+                out.write(row.apply(i));
+                out.write('\n');
+            }
+        }
+        return file;
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    // ========== Original DataManager parsing, kept for comparison ==========
+
+    private static Object legacyUser(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length < 4) return null;
+        String type = parts[0].trim();
+        String id = parts[1].trim();
+        String name = parts[2].trim();
+        String password = parts[3].trim();
+        User user = null;
+        if (type.equals("STUDENT") && parts.length >= 6) {
+            user = new Student(id, name, parts[4].trim(), Integer.parseInt(parts[5].trim()));
+        } else if (type.equals("STAFF") && parts.length >= 5) {
+            user = new CareerCenterStaff(id, name, parts[4].trim());
+        }
+        if (user != null) user.setPasswordForPersistence(password);
+        return user;
+    }
+
+    private static Object legacyInternship(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length < 13) return null;
+        InternshipOpportunity opp = new InternshipOpportunity(parts[1].trim(), parts[2].trim(), null);
+        String repId = parts[3].trim();
+        opp.setDescription(parts[4].trim());
+        opp.setLevel(InternshipLevel.valueOf(parts[5].trim()));
+        String preferredMajor = parts[6].trim();
+        if (!preferredMajor.isEmpty() && !preferredMajor.equalsIgnoreCase("N/A")) {
+            List<String> majors = new ArrayList<>();
+            for (String major : preferredMajor.split(",")) {
+                majors.add(major.trim());
+            }
+            opp.setPreferredMajor(majors);
+        }
+        opp.setTotalSlots(Integer.parseInt(parts[7].trim()));
+        opp.setFilledSlots(Integer.parseInt(parts[8].trim()));
+        opp.setStatus(InternshipStatus.valueOf(parts[9].trim()));
+        opp.setVisible(Boolean.parseBoolean(parts[10].trim()));
+        opp.setOpenDate(LocalDate.parse(parts[11].trim()));
+        opp.setCloseDate(LocalDate.parse(parts[12].trim()));
+        return repId != null ? opp : null;
+    }
+
+    private static Object legacyApplication(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length < 5) return null;
+        return new String[] { parts[0].trim(), parts[1].trim(), ApplicationStatus.valueOf(parts[2].trim()).name() };
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark of hashed password logins.
+ *
+ * <p>Times one {@link PasswordHasher} hash at several work factors, then
+ * has many clients log in at once through {@link AuthController} and
+ * reports p50 and p99 login latency and the number of logins refused
+ * because the verifier queue was full. While the logins run, another
+ * thread keeps serving cheap user lookups, as other requests would be;
+ * its p99 latency is reported next to the same lookups without login
+ * load. Finally logs in users whose passwords are still stored as
+ * plaintext and checks that each was upgraded to a hash.</p>
+ *
+ * <p>Usage: {@code java -cp bin PasswordBenchmark [clients] [iterations]}</p>
+ *
+ * @version 1.0
+ */
+public class PasswordBenchmark {
+    private static final int LOGINS_PER_CLIENT = 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        if (args.length > 1) {
+            PasswordHasher.setIterations(Integer.parseInt(args[1]));
+        }
+        int iterations = PasswordHasher.getIterations();
+
+        // First rounds warm up the JIT; the best round is reported
+        System.out.println("One hash");
+        for (int count : new int[] { 10_000, 50_000, iterations }) {
+            PasswordHasher.setIterations(count);
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 10; round++) {
+                long start = System.nanoTime();
+                PasswordHasher.hash("password");
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("  %,9d iterations %8.1f ms%n", count, best / 1e6);
+        }
+        PasswordHasher.setIterations(iterations);
+
+        // Everyone shares one hash; hashing per user would dominate setup
+        String stored = PasswordHasher.hash("password");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Student student = new Student("U" + i, "Student " + i, "Computer Science", 1 + i % 4);
+            student.setPasswordForPersistence(stored);
+            users.add(student);
+        }
+        AuthController auth = new AuthController();
+        auth.setUsers(users);
+        UserDirectory directory = new UserDirectory(users);
+
+        long[] idle = lookupLatencies(directory, 200);
+        long[] latencies = new long[clients * LOGINS_PER_CLIENT];
+        AtomicInteger refused = new AtomicInteger();
+        Thread[] workers = new Thread[clients];
+        LookupLoad load = new LookupLoad(directory);
+        load.start();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            workers[c] = new Thread(() -> {
+                for (int i = 0; i < LOGINS_PER_CLIENT; i++) {
+                    String id = "U" + ((client * LOGINS_PER_CLIENT + i) % users.size());
+                    long begin = System.nanoTime();
+                    try {
+                        auth.authenticateAsync(id, "password").join();
+                    } catch (CompletionException e) {
+                        refused.incrementAndGet();
+                    }
+                    latencies[client * LOGINS_PER_CLIENT + i] = System.nanoTime() - begin;
+                }
+            });
+            workers[c].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] busy = load.finish();
+
+        System.out.printf("%n%d clients, %d logins, %,d iterations, %d verifier threads%n",
+            clients, latencies.length, iterations, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  login       p50 %8.1f ms   p99 %8.1f ms   %6.1f logins/s   %d refused%n",
+            percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+            latencies.length / (elapsed / 1e9), refused.get());
+        System.out.printf("  user lookup p99 %8.1f us idle, %8.1f us during logins%n",
+            percentile(idle, 99) / 1e3, percentile(busy, 99) / 1e3);
+
+        // Legacy plaintext passwords are upgraded at the first login
+        List<User> legacy = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            legacy.add(new Student("L" + i, "Legacy " + i, "Biology", 2));
+        }
+        AtomicInteger upgraded = new AtomicInteger();
+        auth.setUsers(legacy);
+        auth.setPasswordUpgradeListener(user -> upgraded.incrementAndGet());
+        for (User user : legacy) {
+            try {
+                auth.authenticate(user.getId(), "password");
+                auth.authenticate(user.getId(), "password");
+            } catch (AuthenticationException e) {
+                throw new IllegalStateException("Login failed for " + user.getId(), e);
+            }
+            if (PasswordHasher.needsRehash(user.getPasswordForPersistence())) {
+                throw new IllegalStateException("Password of " + user.getId() + " was not upgraded");
+            }
+        }
+        System.out.printf("%nUpgraded %d of %d plaintext passwords at first login%n", upgraded.get(), legacy.size());
+    }
+
+    private static long[] lookupLatencies(UserDirectory directory, int count) throws InterruptedException {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            long begin = System.nanoTime();
+            directory.find("U" + i);
+            latencies[i] = System.nanoTime() - begin;
+            Thread.sleep(1);
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] values, int percent) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+
+    /**
+     * Serves a user lookup every millisecond until finished.
+     */
+    private static class LookupLoad extends Thread {
+        private final UserDirectory directory;
+        private final List<Long> latencies = new ArrayList<>();
+        private volatile boolean running = true;
+
+        LookupLoad(UserDirectory directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public void run() {
+            int i = 0;
+            while (running) {
+                long begin = System.nanoTime();
+                directory.find("U" + (i++ % 1_000));
+                latencies.add(System.nanoTime() - begin);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long[] finish() throws InterruptedException {
+            running = false;
+            join();
+            return latencies.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of composite internship filtering.
+ *
+ * <p>Generates internships with mixed statuses, visibility, slots and
+ * preferred majors, then compares a linear scan (as
+ * {@code getFilteredOpportunities} plus a {@code filterByLevel} pass used
+ * to do) with the {@link InternshipQueryEngine} for student browsing and
+ * staff queries, including the pending-approval queue and per-level and
+ * per-representative listings, times concurrent student browsing with
+ * and without the cohort eligibility cache, and times the daily rollover of the set of
+ * internships open today. Reports the index each query is planned on and checks
+ * that both return the same internships.</p>
+ *
+ * <p>Usage: {@code java -cp bin QueryBenchmark [internships]}</p>
+ *
+ * @version 1.0
+ */
+public class QueryBenchmark {
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<InternshipOpportunity> internships = SearchBenchmark.generate(count, 42);
+        Random random = new Random(11);
+        CompanyRepresentative[] reps = new CompanyRepresentative[500];
+        for (int i = 0; i < reps.length; i++) {
+            reps[i] = new CompanyRepresentative("rep" + i + "@corp.com", "Rep " + i, "Company " + i);
+        }
+        for (InternshipOpportunity opp : internships) {
+            opp.setRepInCharge(reps[random.nextInt(reps.length)]);
+            int roll = random.nextInt(10);
+            if (roll < 7) {
+                opp.setStatus(InternshipStatus.APPROVED);
+                opp.setFilledSlots(random.nextInt(opp.getTotalSlots() + 1));
+                opp.setVisible(random.nextInt(5) > 0);
+                if (opp.isFilled()) opp.setStatus(InternshipStatus.FILLED);
+            } else {
+                opp.setVisible(false);
+                opp.setStatus(roll < 9 ? InternshipStatus.PENDING : InternshipStatus.REJECTED);
+            }
+        }
+
+        LocalDate today = LocalDate.of(2025, 5, 1);
+        DayClock clock = new DayClock(today);
+        long start = System.nanoTime();
+        InternshipQueryEngine engine = new InternshipQueryEngine(clock);
+        for (InternshipOpportunity opp : internships) {
+            engine.add(opp);
+        }
+        System.out.printf("Indexed %d internships in %.0f ms%n", engine.size(), (System.nanoTime() - start) / 1e6);
+
+        Student junior = new Student("U0000001A", "Junior", "Computer Science", 2);
+        Student senior = new Student("U0000002B", "Senior", "Biology", 4);
+
+        System.out.println("\nQueries (best of " + ROUNDS + " runs)");
+        run("year 2 student browse", engine, internships,
+            InternshipQuery.eligibleFor(junior, today).build());
+        run("year 4 student, ADVANCED", engine, internships,
+            InternshipQuery.eligibleFor(senior, today).level(InternshipLevel.ADVANCED).build());
+        run("company, approved", engine, internships,
+            InternshipQuery.builder().company("quantum labs 7").status(InternshipStatus.APPROVED).build());
+        run("pending approval", engine, internships,
+            InternshipQuery.builder().status(InternshipStatus.PENDING).build());
+        run("9+ slots open today", engine, internships,
+            InternshipQuery.builder().minRemainingSlots(9).openOn(today).build());
+        run("open today (date only)", engine, internships,
+            InternshipQuery.builder().openOn(today).build());
+        run("open ADVANCED today", engine, internships,
+            InternshipQuery.builder().status(InternshipStatus.APPROVED).visible(true).openOn(today)
+                .minRemainingSlots(1).level(InternshipLevel.ADVANCED).build());
+        run("one rep's internships", engine, internships,
+            InternshipQuery.builder().representative(reps[7]).build());
+
+        System.out.println("\nStudent browsing on 8 threads, a slot change every 20 browses");
+        browse(engine, internships, today, random);
+
+        // Roll the open set forward a day at a time, checking it against the dates
+        int days = 60;
+        long rolloverNanos = 0;
+        int changed = 0;
+        for (int day = 1; day <= days; day++) {
+            clock.day = today.plusDays(day);
+            start = System.nanoTime();
+            changed += engine.rollover();
+            rolloverNanos += System.nanoTime() - start;
+            int expected = scan(internships, InternshipQuery.builder().openOn(clock.day).build()).size();
+            if (engine.openTodayCount() != expected) {
+                throw new IllegalStateException("Open set wrong after rollover to " + clock.day);
+            }
+        }
+        System.out.printf("%nDaily rollover: %.1f us per day (%d internships opened or closed over %d days)%n",
+            rolloverNanos / 1e3 / days, changed, days);
+
+        start = System.nanoTime();
+        int updates = 100_000;
+        for (int i = 0; i < updates; i++) {
+            InternshipOpportunity opp = internships.get(random.nextInt(internships.size()));
+            if (opp.reserveSlot() || opp.freeSlot()) {
+                engine.update(opp);
+            }
+        }
+        System.out.printf("Re-index after slot change: %.2f us per internship%n",
+            (System.nanoTime() - start) / 1e3 / updates);
+    }
+
+    private static void run(String label, InternshipQueryEngine engine, List<InternshipOpportunity> internships,
+                            InternshipQuery query) {
+        List<InternshipOpportunity> expected = scan(internships, query);
+        List<InternshipOpportunity> actual = engine.execute(query);
+        if (expected.size() != actual.size() || !new HashSet<>(expected).containsAll(actual)) {
+            throw new IllegalStateException("Index disagrees with linear scan for " + label);
+        }
+
+        // First rounds warm up the JIT; the best round is reported
+        long linear = Long.MAX_VALUE;
+        long indexed = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            scan(internships, query);
+            linear = Math.min(linear, System.nanoTime() - start);
+            start = System.nanoTime();
+            engine.execute(query);
+            indexed = Math.min(indexed, System.nanoTime() - start);
+        }
+        System.out.printf("  %-26s linear %8.1f us   indexed %8.1f us  (%d results, %s)%n",
+            label, linear / 1e3, indexed / 1e3, expected.size(), engine.explain(query));
+    }
+
+    /**
+     * Simulates many students browsing on several threads while slots
+     * change, with and without the cohort cache, and checks cached
+     * results against uncached ones.
+     */
+    private static void browse(InternshipQueryEngine engine, List<InternshipOpportunity> internships,
+                               LocalDate today, Random random) {
+        String[] majors = SearchBenchmark.MAJORS;
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            students.add(new Student("U" + i, "Student " + i, majors[i % majors.length], 1 + (i / majors.length) % 4));
+        }
+        int browses = 20_000;
+        int threads = 8;
+
+        for (boolean cached : new boolean[] { false, true }) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                Thread[] workers = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                    int worker = t;
+                    workers[t] = new Thread(() -> {
+                        Random local = new Random(worker);
+                        for (int i = 0; i < browses / threads; i++) {
+                            Student student = students.get(local.nextInt(students.size()));
+                            InternshipQuery query = InternshipQuery.eligibleFor(student, today).build();
+                            if (cached) engine.executeCached(query); else engine.execute(query);
+                            if (i % 20 == 0) {
+                                // Someone accepts or withdraws from a placement
+                                InternshipOpportunity opp = internships.get(local.nextInt(internships.size()));
+                                engine.apply(opp, () -> opp.reserveSlot() || opp.freeSlot());
+                            }
+                        }
+                    });
+                    workers[t].start();
+                }
+                for (Thread worker : workers) {
+                    try {
+                        worker.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("  %-26s %8.1f us per browse%n",
+                cached ? "cohort cache" : "indexed query", best / 1e3 / browses);
+        }
+
+        for (Student student : students.subList(0, 40)) {
+            InternshipQuery query = InternshipQuery.eligibleFor(student, today).build();
+            if (!new HashSet<>(engine.execute(query)).equals(new HashSet<>(engine.executeCached(query)))) {
+                throw new IllegalStateException("Cached eligibility is stale for " + student.getId());
+            }
+        }
+        long[] stats = engine.cacheStats();
+        System.out.printf("  cache: %d hits, %d misses%n", stats[0], stats[1]);
+    }
+
+    /**
+     * Clock whose day the benchmark sets.
+     */
+    private static class DayClock extends Clock {
+        LocalDate day;
+
+        DayClock(LocalDate day) {
+            this.day = day;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+    }
+
+    /** Full scan, followed by a separate level pass as the browse menu used to do. */
+    private static List<InternshipOpportunity> scan(List<InternshipOpportunity> internships, InternshipQuery query) {
+        List<InternshipOpportunity> eligible = new ArrayList<>();
+        for (InternshipOpportunity opp : internships) {
+            if (query.matches(opp)) eligible.add(opp);
+        }
+        List<InternshipOpportunity> filtered = new ArrayList<>();
+        for (InternshipOpportunity opp : eligible) {
+            if (opp.getLevel() != null) filtered.add(opp);
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,148 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Speedup of parallel report generation with {@link ReportEngine}.
+ *
+ * <p>Takes one {@link AnalyticsSnapshot} of generated applications and
+ * internships, then runs the staff report group-bys (placements and
+ * acceptance rate by major, acceptance and fill rate by company,
+ * applications per internship and internships by status):</p>
+ * <ul>
+ *   <li>on the calling thread, as the baseline;</li>
+ *   <li>with each group-by split across engines of growing
+ *       parallelism;</li>
+ *   <li>as separate reports run at once by {@link ReportEngine#run}.</li>
+ * </ul>
+ *
+ * <p>Reports the best time and the speedup over the baseline for each
+ * parallelism, with the number of processors available, and checks that
+ * every parallel result equals the baseline's.</p>
+ *
+ * <p>Usage: {@code java -cp bin ReportBenchmark [applications] [maxParallelism]}</p>
+ *
+ * @version 1.0
+ */
+public class ReportBenchmark {
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int processors = Runtime.getRuntime().availableProcessors();
+        int maxParallelism = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, processors);
+        Random random = new Random(24);
+
+        List<InternshipOpportunity> opps = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            InternshipOpportunity opp = new InternshipOpportunity("Intern " + i, "Company " + (i % 1_000), null);
+            opp.setTotalSlots(1 + random.nextInt(10));
+            opp.setOpenDate(LocalDate.now().minusDays(1));
+            opp.setCloseDate(LocalDate.now().plusDays(30));
+            opp.setStatus(InternshipStatus.APPROVED);
+            opps.add(opp);
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count / 3; i++) {
+            students.add(new Student("U" + i, "Student " + i, SearchBenchmark.MAJORS[i % SearchBenchmark.MAJORS.length], 3));
+        }
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        List<Application> apps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Application app = new Application(students.get(random.nextInt(students.size())), opps.get(random.nextInt(opps.size())));
+            app.setStatus(statuses[random.nextInt(statuses.length)]);
+            apps.add(app);
+        }
+        AnalyticsSnapshot snapshot = AnalyticsSnapshot.of(opps, apps);
+        apps = null;
+        students = null;
+
+        String expected = allReports(snapshot);
+        long baseline = best(() -> allReports(snapshot));
+        System.out.printf("%,d applications, %,d internships, %d processors available (best of %d runs)%n",
+            count, opps.size(), processors, ROUNDS);
+        System.out.printf("  calling thread              %8.2f ms%n", baseline / 1e6);
+
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+            ReportEngine engine = new ReportEngine(parallelism);
+            AnalyticsSnapshot parallel = snapshot.using(engine);
+            check("split group-bys", expected, allReports(parallel));
+            long split = best(() -> allReports(parallel));
+
+            List<Runnable> reports = new ArrayList<>(separateReports(parallel));
+            check("reports run at once", expected, String.join("", engine.run(reports)));
+            long together = best(() -> String.join("", engine.run(reports)));
+
+            System.out.printf("  parallelism %2d   split %8.2f ms (%4.2fx)   reports at once %8.2f ms (%4.2fx)%n",
+                parallelism, split / 1e6, (double) baseline / split, together / 1e6, (double) baseline / together);
+        }
+    }
+
+    /** Every report, one after another, as text. */
+    private static String allReports(AnalyticsSnapshot snapshot) {
+        StringBuilder out = new StringBuilder();
+        for (Report report : separateReports(snapshot)) {
+            out.append(report.text());
+        }
+        return out.toString();
+    }
+
+    private static List<Report> separateReports(AnalyticsSnapshot snapshot) {
+        List<Report> reports = new ArrayList<>();
+        reports.add(new Report(s -> s.placementsByMajor().toString(), snapshot));
+        reports.add(new Report(s -> rates(s.acceptanceRateByMajor()), snapshot));
+        reports.add(new Report(s -> rates(s.acceptanceRateByCompany()), snapshot));
+        reports.add(new Report(s -> rates(s.fillRateByCompany()), snapshot));
+        reports.add(new Report(s -> Arrays.hashCode(s.applicationsPerInternship()) + " " + Arrays.toString(s.internshipsByStatus()), snapshot));
+        return reports;
+    }
+
+    private static String rates(Map<String, AnalyticsSnapshot.Rate> rates) {
+        StringBuilder out = new StringBuilder();
+        rates.forEach((name, rate) -> out.append(name).append('=').append(rate.getPart()).append('/').append(rate.getWhole()).append(';'));
+        return out.toString();
+    }
+
+    /** Best time of ROUNDS runs; the first rounds warm up the JIT. */
+    private static long best(Runnable run) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void check(String what, String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(what + " differ from the calling thread's results");
+        }
+    }
+
+    /**
+     * One report over a snapshot; prints its text when run, as the CLI's reports do.
+     */
+    private static class Report implements Runnable {
+        private final Function<AnalyticsSnapshot, String> body;
+        private final AnalyticsSnapshot snapshot;
+
+        Report(Function<AnalyticsSnapshot, String> body, AnalyticsSnapshot snapshot) {
+            this.body = body;
+            this.snapshot = snapshot;
+        }
+
+        String text() {
+            return body.apply(snapshot) + System.lineSeparator();
+        }
+
+        @Override
+        public void run() {
+            System.out.print(text());
+        }
+    }
+}
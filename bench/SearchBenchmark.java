@@ -0,0 +1,173 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Benchmark of internship text search.
+ *
+ * <p>Generates internship postings with varied titles, companies and
+ * descriptions, then compares the linear {@link SearchUtil} scans with
+ * the {@link InternshipSearchIndex} for substring queries, and reports
+ * word-prefix query and incremental re-index latency. Index results are
+ * checked against the linear scan. Finally it times top-10 queries of the
+ * {@link RankedSearchEngine}, some misspelt, against the same linear scan,
+ * checking the heap's top 10 against a full ranking.</p>
+ *
+ * <p>Usage: {@code java -cp bin SearchBenchmark [postings]}</p>
+ *
+ * @version 1.0
+ */
+public class SearchBenchmark {
+    private static final int ROUNDS = 5;
+
+    static final String[] ROLES = { "Software", "Data", "Backend", "Frontend", "Mobile", "Cloud", "Security",
+        "Machine Learning", "Product", "Marketing", "Finance", "Operations", "Research", "Hardware", "Design" };
+    static final String[] KINDS = { "Engineering Intern", "Analyst Intern", "Developer Intern", "Associate",
+        "Research Assistant", "Trainee" };
+    static final String[] COMPANIES = { "Tech Corp", "StartupCo", "Global Bank", "DataWorks", "CloudNine",
+        "Acme Systems", "Quantum Labs", "Blue Ocean Retail", "Northwind Logistics", "Helix Biotech" };
+    static final String[] TOPICS = { "Java", "Python", "SQL", "distributed systems", "React", "Kubernetes",
+        "statistics", "customer research", "embedded C", "financial modelling", "UX research", "networking" };
+    static final String[] MAJORS = { "Computer Science", "Engineering", "Business", "Mathematics", "Biology" };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<InternshipOpportunity> postings = generate(count, 42);
+
+        long start = System.nanoTime();
+        InternshipSearchIndex index = new InternshipSearchIndex();
+        for (InternshipOpportunity opp : postings) {
+            index.add(opp);
+        }
+        System.out.printf("Indexed %d postings (%d n-gram/token postings) in %.0f ms%n",
+            index.size(), index.postingCount(), (System.nanoTime() - start) / 1e6);
+
+        String[] titleQueries = { "eng", "software eng", "learning", "data analyst", "intern 4", "zz" };
+        String[] companyQueries = { "corp", "quantum labs 7", "bank", "o" };
+
+        System.out.println("\nSubstring queries (best of 5 runs)");
+        for (String query : titleQueries) {
+            compare("title   '" + query + "'",
+                q -> SearchUtil.searchByTitle(postings, q),
+                q -> index.containing(InternshipSearchIndex.Field.TITLE, q), query);
+        }
+        for (String query : companyQueries) {
+            compare("company '" + query + "'",
+                q -> SearchUtil.searchByCompany(postings, q),
+                q -> index.containing(InternshipSearchIndex.Field.COMPANY, q), query);
+        }
+
+        System.out.println("\nWord-prefix queries (best of 5 runs)");
+        for (String query : new String[] { "kub", "res", "mod" }) {
+            List<InternshipOpportunity> results = null;
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long t = System.nanoTime();
+                results = index.withWordPrefix(InternshipSearchIndex.Field.DESCRIPTION, query);
+                best = Math.min(best, System.nanoTime() - t);
+            }
+            System.out.printf("  description '%s*' %9.1f us  (%d results)%n", query, best / 1e3, results.size());
+        }
+
+        start = System.nanoTime();
+        RankedSearchEngine ranked = new RankedSearchEngine();
+        for (InternshipOpportunity opp : postings) {
+            ranked.add(opp);
+        }
+        System.out.printf("%nRanked index of %d words built in %.0f ms%n",
+            ranked.vocabularySize(), (System.nanoTime() - start) / 1e6);
+        System.out.println("Ranked top-10 queries (best of 5 runs)");
+        for (String query : new String[] { "software engineering", "sofware enginering", "kubernets",
+                "financial modeling", "machine learning python", "quantum labs" }) {
+            checkTopK(ranked, query, 10);
+            System.out.printf("  %-26s linear %9.1f us   ranked %9.1f us  (top: %s)%n", "'" + query + "'",
+                best(q -> SearchUtil.searchByTitle(postings, q), query) / 1e3,
+                best(q -> ranked.search(q, 10), query) / 1e3,
+                ranked.search(query, 1).get(0).getTitle());
+        }
+
+        Random random = new Random(7);
+        int updates = 10_000;
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            InternshipOpportunity opp = postings.get(random.nextInt(postings.size()));
+            opp.setDescription(description(random));
+            index.update(opp);
+            ranked.update(opp);
+        }
+        System.out.printf("%nRe-index (both indexes) after edit: %.1f us per posting%n", (System.nanoTime() - start) / 1e3 / updates);
+    }
+
+    private static void compare(String label, Function<String, List<InternshipOpportunity>> linear,
+                                Function<String, List<InternshipOpportunity>> indexed, String query) {
+        List<InternshipOpportunity> expected = linear.apply(query);
+        List<InternshipOpportunity> actual = indexed.apply(query);
+        if (!sameElements(expected, actual)) {
+            throw new IllegalStateException("Index disagrees with linear scan for " + label);
+        }
+        System.out.printf("  %-26s linear %9.1f us   index %9.1f us  (%d results)%n",
+            label, best(linear, query) / 1e3, best(indexed, query) / 1e3, expected.size());
+    }
+
+    private static void checkTopK(RankedSearchEngine ranked, String query, int k) {
+        List<RankedSearchEngine.Hit> top = ranked.searchScored(query, k);
+        List<RankedSearchEngine.Hit> all = ranked.searchScored(query, Integer.MAX_VALUE);
+        for (int i = 0; i < top.size(); i++) {
+            if (top.get(i).getOpportunity() != all.get(i).getOpportunity()) {
+                throw new IllegalStateException("Top-" + k + " differs from full ranking for '" + query + "'");
+            }
+        }
+    }
+
+    private static long best(Function<String, List<InternshipOpportunity>> search, String query) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            search.apply(query);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static boolean sameElements(List<InternshipOpportunity> a, List<InternshipOpportunity> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Generates postings with reproducible text.
+     *
+     * @param count number of postings
+     * @param seed random seed
+     * @return the postings
+     */
+    static List<InternshipOpportunity> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<InternshipOpportunity> postings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = ROLES[random.nextInt(ROLES.length)] + " " + KINDS[random.nextInt(KINDS.length)] + " " + i;
+            String company = COMPANIES[random.nextInt(COMPANIES.length)] + " " + (i % 100);
+            InternshipOpportunity opp = new InternshipOpportunity(title, company, null);
+            opp.setDescription(description(random));
+            opp.setLevel(InternshipLevel.values()[random.nextInt(3)]);
+            List<String> majors = new ArrayList<>();
+            majors.add(MAJORS[random.nextInt(MAJORS.length)]);
+            opp.setPreferredMajor(majors);
+            opp.setTotalSlots(1 + random.nextInt(10));
+            opp.setOpenDate(LocalDate.of(2025, 1, 1).plusDays(random.nextInt(200)));
+            opp.setCloseDate(opp.getOpenDate().plusDays(30 + random.nextInt(200)));
+            postings.add(opp);
+        }
+        return postings;
+    }
+
+    static String description(Random random) {
+        return "Work with " + TOPICS[random.nextInt(TOPICS.length)] + " and " + TOPICS[random.nextInt(TOPICS.length)]
+            + " on our " + ROLES[random.nextInt(ROLES.length)].toLowerCase() + " team";
+    }
+}
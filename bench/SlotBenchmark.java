@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contention benchmark of slot reservation on one popular internship.
+ *
+ * <p>Compares the locked check-then-increment that
+ * {@code InternshipOpportunity.reserveSlot} used to be with its
+ * compare-and-set on the packed slot state, reserving and freeing slots
+ * from a growing number of threads. Then checks, with many threads at
+ * once, that</p>
+ * <ul>
+ *   <li>raw reservations never take more slots than there are, and the
+ *       last one marks the internship FILLED;</li>
+ *   <li>{@link ApplicationController#accept} through the controllers
+ *       confirms exactly as many students as there are slots, withdrawing
+ *       the other applications of exactly those students;</li>
+ *   <li>when the acceptances cannot be saved, none of them leaves a slot
+ *       taken or an application withdrawn.</li>
+ * </ul>
+ *
+ * <p>Usage: {@code java -cp bin SlotBenchmark [threads]}</p>
+ *
+ * @version 1.0
+ */
+public class SlotBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int OPERATIONS = 2_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+
+        System.out.println("Reserve and free on one internship (best of " + ROUNDS + " runs)");
+        for (int threads = 1; threads <= maxThreads; threads *= 4) {
+            LockedSlots locked = new LockedSlots(10);
+            InternshipOpportunity opp = posting("Popular", 10);
+            long lockedNanos = time(threads, () -> {
+                if (locked.reserveSlot()) locked.freeSlot();
+            });
+            long casNanos = time(threads, () -> {
+                if (opp.reserveSlot()) opp.freeSlot();
+            });
+            System.out.printf("  %2d threads   locked %6.1f ns/op   compare-and-set %6.1f ns/op%n",
+                threads, (double) lockedNanos / OPERATIONS, (double) casNanos / OPERATIONS);
+        }
+
+        // Far more attempts than slots, all at once
+        InternshipOpportunity popular = posting("Rush", 1_000);
+        AtomicInteger taken = new AtomicInteger();
+        parallel(64, () -> {
+            for (int i = 0; i < 100; i++) {
+                if (popular.reserveSlot()) taken.incrementAndGet();
+            }
+        });
+        check("slots taken", popular.getTotalSlots(), taken.get());
+        check("filled slots", popular.getTotalSlots(), popular.getFilledSlots());
+        if (popular.getStatus() != InternshipStatus.FILLED) {
+            throw new IllegalStateException("Full internship is " + popular.getStatus());
+        }
+        System.out.printf("%n6,400 reservations on 1,000 slots from 64 threads: %d taken, status %s%n",
+            taken.get(), popular.getStatus());
+
+        acceptRush(false);
+        acceptRush(true);
+    }
+
+    /**
+     * Has 2,000 students with an offer for the same 100-slot internship
+     * and a pending application elsewhere accept at once.
+     */
+    private static void acceptRush(boolean failWrites) throws InterruptedException {
+        InternshipController internships = new InternshipController();
+        ApplicationController applications = new ApplicationController();
+        DiscardingScheduler scheduler = new DiscardingScheduler(failWrites);
+        internships.setPersistenceScheduler(scheduler);
+        applications.setPersistenceScheduler(scheduler);
+        applications.setInternshipService(internships);
+        CareerCenterStaff staff = new CareerCenterStaff("staff@ntu.edu.sg", "Staff", "Career Services");
+        InternshipOpportunity popular = posting("Popular", 100);
+        InternshipOpportunity other = posting("Other", 10);
+        internships.create(staff, popular);
+        internships.create(staff, other);
+
+        List<Student> students = new ArrayList<>();
+        List<Application> offers = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Student student = new Student("U" + i, "Student " + i, "Computer Science", 3);
+            Application offer = new Application(student, popular);
+            Application pending = new Application(student, other);
+            try {
+                student.addApplication(offer);
+                student.addApplication(pending);
+            } catch (ApplicationException e) {
+                throw new IllegalStateException(e);
+            }
+            applications.loadApplication(offer);
+            applications.loadApplication(pending);
+            offer.setStatus(ApplicationStatus.ACCEPTED);
+            students.add(student);
+            offers.add(offer);
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger confirmed = new AtomicInteger();
+        long start = System.nanoTime();
+        parallel(64, () -> {
+            for (int i = next.getAndIncrement(); i < offers.size(); i = next.getAndIncrement()) {
+                try {
+                    if (applications.accept(students.get(i), offers.get(i))) confirmed.incrementAndGet();
+                } catch (ApplicationException e) {
+                    // Full, or the acceptance could not be saved
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+
+        int expected = failWrites ? 0 : popular.getTotalSlots();
+        check("confirmed placements", expected, confirmed.get());
+        check("filled slots", expected, popular.getFilledSlots());
+        for (int i = 0; i < students.size(); i++) {
+            Application pending = students.get(i).getApplicationByOpportunity(other);
+            boolean placed = offers.get(i).hasReservedSlot();
+            if (placed == (pending.getStatus() != ApplicationStatus.WITHDRAWN)) {
+                throw new IllegalStateException("Partial acceptance for " + students.get(i).getId());
+            }
+        }
+        System.out.printf("%s2,000 students accept 100 slots on 64 threads%s: %d confirmed, %d filled in %.1f ms%n",
+            failWrites ? "" : "\n", failWrites ? " with every write failing" : "",
+            confirmed.get(), popular.getFilledSlots(), elapsed / 1e6);
+    }
+
+    private static InternshipOpportunity posting(String title, int slots) {
+        InternshipOpportunity opp = new InternshipOpportunity(title, "Quantum Labs", null);
+        opp.setLevel(InternshipLevel.BASIC);
+        opp.setTotalSlots(slots);
+        opp.setOpenDate(LocalDate.now().minusDays(1));
+        opp.setCloseDate(LocalDate.now().plusDays(30));
+        opp.setStatus(InternshipStatus.APPROVED);
+        return opp;
+    }
+
+    /** Best time of several rounds of OPERATIONS split across the threads. */
+    private static long time(int threads, Runnable operation) throws InterruptedException {
+        // First rounds warm up the JIT; the best round is reported
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            parallel(threads, () -> {
+                for (int i = 0; i < OPERATIONS / threads; i++) {
+                    operation.run();
+                }
+            });
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void parallel(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                task.run();
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static void check(String what, int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalStateException(what + ": expected " + expected + ", was " + actual);
+        }
+    }
+
+    /** Slot counting as reserveSlot and freeSlot did before the packed state. */
+    private static class LockedSlots {
+        private final int totalSlots;
+        private int filledSlots;
+        private InternshipStatus status = InternshipStatus.APPROVED;
+
+        LockedSlots(int totalSlots) {
+            this.totalSlots = totalSlots;
+        }
+
+        synchronized boolean reserveSlot() {
+            if (filledSlots < totalSlots) {
+                filledSlots++;
+                if (filledSlots >= totalSlots) {
+                    status = InternshipStatus.FILLED;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean freeSlot() {
+            if (filledSlots > 0) {
+                filledSlots--;
+                if (status == InternshipStatus.FILLED) {
+                    status = InternshipStatus.APPROVED;
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Discards writes, or fails every one of them.
+     */
+    private static class DiscardingScheduler extends PersistenceScheduler {
+        private final boolean fail;
+
+        DiscardingScheduler(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public CompletableFuture<Void> put(RecordJournal journal, String record) {
+            return fail ? CompletableFuture.failedFuture(new IOException("Disk full"))
+                        : CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> remove(RecordJournal journal, String key) {
+            return put(journal, key);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Column-oriented copy of the applications and internships, for staff
+ * reports that group and aggregate over all of them.
+ *
+ * <p>Reports that walk {@code Application → Student → getMajor()} and the
+ * internship getters follow a pointer per field per row. The snapshot
+ * instead copies each field the reports use into a primitive array, one
+ * entry per row:</p>
+ * <ul>
+ *   <li>applications: status ordinal, student major, company and
+ *       internship row;</li>
+ *   <li>internships: status ordinal, company, total and filled slots.</li>
+ * </ul>
+ *
+ * <p>Majors and companies are dictionary-encoded: each distinct value is
+ * stored once and rows hold its small integer code. A group-by is then a
+ * single pass over two or three int arrays, adding into an array indexed
+ * by the group code, with no objects or hashing per row. Companies are
+ * matched ignoring case and named as first seen.</p>
+ *
+ * <p>A snapshot is taken on demand with {@link #of} and never changes;
+ * it reflects the data at the time it was taken. Its group-bys run on the
+ * calling thread, or split across a {@link ReportEngine} for a view taken
+ * with {@link #using}.</p>
+ *
+ * @version 1.0
+ * @see LiveMetrics
+ */
+public final class AnalyticsSnapshot {
+    private static final String NONE = "(none)";
+    private static final int ACCEPTED = ApplicationStatus.ACCEPTED.ordinal();
+
+    // Dictionaries: code -> value
+    private final String[] majors;
+    private final String[] companies;
+
+    // Application columns
+    private final int applicationCount;
+    private final int[] appStatus;
+    private final int[] appMajor;
+    private final int[] appCompany;
+    private final int[] appInternship;
+
+    // Internship columns
+    private final int internshipCount;
+    private final int[] oppStatus;
+    private final int[] oppCompany;
+    private final int[] oppTotalSlots;
+    private final int[] oppFilledSlots;
+
+    // Null to aggregate on the calling thread
+    private final ReportEngine engine;
+
+    /**
+     * Group counts: how many of the rows in a group have some property.
+     */
+    public static final class Rate {
+        private final int part;
+        private final int whole;
+
+        Rate(int part, int whole) {
+            this.part = part;
+            this.whole = whole;
+        }
+
+        public int getPart() {
+            return part;
+        }
+
+        public int getWhole() {
+            return whole;
+        }
+
+        /**
+         * @return part as a percentage of whole, or 0 for an empty group
+         */
+        public double percent() {
+            return whole == 0 ? 0.0 : part * 100.0 / whole;
+        }
+    }
+
+    private AnalyticsSnapshot(List<InternshipOpportunity> internships, List<Application> applications) {
+        Dictionary majorCodes = new Dictionary(false);
+        Dictionary companyCodes = new Dictionary(true);
+        Map<InternshipOpportunity, Integer> rows = new IdentityHashMap<>();
+
+        internshipCount = internships.size();
+        oppStatus = new int[internshipCount];
+        oppCompany = new int[internshipCount];
+        oppTotalSlots = new int[internshipCount];
+        oppFilledSlots = new int[internshipCount];
+        for (int i = 0; i < internshipCount; i++) {
+            InternshipOpportunity opp = internships.get(i);
+            rows.put(opp, i);
+            oppStatus[i] = opp.getStatus().ordinal();
+            oppCompany[i] = companyCodes.code(opp.getCompanyName());
+            oppTotalSlots[i] = opp.getTotalSlots();
+            oppFilledSlots[i] = opp.getFilledSlots();
+        }
+
+        applicationCount = applications.size();
+        appStatus = new int[applicationCount];
+        appMajor = new int[applicationCount];
+        appCompany = new int[applicationCount];
+        appInternship = new int[applicationCount];
+        for (int i = 0; i < applicationCount; i++) {
+            Application app = applications.get(i);
+            InternshipOpportunity opp = app.getOpportunity();
+            appStatus[i] = app.getStatus().ordinal();
+            appMajor[i] = majorCodes.code(app.getStudent() == null ? null : app.getStudent().getMajor());
+            // Applications to internships outside the snapshot have no internship row
+            Integer row = opp == null ? null : rows.get(opp);
+            appInternship[i] = row == null ? -1 : row;
+            appCompany[i] = row != null ? oppCompany[row] : companyCodes.code(opp == null ? null : opp.getCompanyName());
+        }
+
+        majors = majorCodes.values();
+        companies = companyCodes.values();
+        engine = null;
+    }
+
+    private AnalyticsSnapshot(AnalyticsSnapshot source, ReportEngine engine) {
+        majors = source.majors;
+        companies = source.companies;
+        applicationCount = source.applicationCount;
+        appStatus = source.appStatus;
+        appMajor = source.appMajor;
+        appCompany = source.appCompany;
+        appInternship = source.appInternship;
+        internshipCount = source.internshipCount;
+        oppStatus = source.oppStatus;
+        oppCompany = source.oppCompany;
+        oppTotalSlots = source.oppTotalSlots;
+        oppFilledSlots = source.oppFilledSlots;
+        this.engine = engine;
+    }
+
+    /**
+     * Takes a snapshot of internships and applications.
+     *
+     * @param internships the internships, e.g. every internship in the system
+     * @param applications the applications, e.g. every application in the system
+     * @return the snapshot
+     */
+    public static AnalyticsSnapshot of(List<InternshipOpportunity> internships, List<Application> applications) {
+        return new AnalyticsSnapshot(internships, applications);
+    }
+
+    /**
+     * The same snapshot, with group-bys split across a report engine.
+     * The columns are shared, not copied.
+     *
+     * @param engine the engine, or null to aggregate on the calling thread
+     * @return a view of this snapshot
+     */
+    public AnalyticsSnapshot using(ReportEngine engine) {
+        return new AnalyticsSnapshot(this, engine);
+    }
+
+    public int getApplicationCount() {
+        return applicationCount;
+    }
+
+    public int getInternshipCount() {
+        return internshipCount;
+    }
+
+    /**
+     * Accepted applications per student major, for majors with any.
+     *
+     * @return count per major, sorted by major
+     */
+    public Map<String, Integer> placementsByMajor() {
+        int[] accepted = countWithStatus(appMajor, majors.length, appStatus, ACCEPTED);
+        Map<String, Integer> result = new TreeMap<>();
+        for (int code = 0; code < accepted.length; code++) {
+            if (accepted[code] > 0) {
+                result.put(majors[code], accepted[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Accepted applications out of all applications, per student major.
+     *
+     * @return rate per major, sorted by major
+     */
+    public Map<String, Rate> acceptanceRateByMajor() {
+        return rates(majors, countWithStatus(appMajor, majors.length, appStatus, ACCEPTED),
+                     count(appMajor, majors.length));
+    }
+
+    /**
+     * Accepted applications out of all applications, per company.
+     *
+     * @return rate per company with applications, sorted by company
+     */
+    public Map<String, Rate> acceptanceRateByCompany() {
+        return rates(companies, countWithStatus(appCompany, companies.length, appStatus, ACCEPTED),
+                     count(appCompany, companies.length));
+    }
+
+    /**
+     * Filled slots out of all slots, per company.
+     *
+     * @return rate per company with internships, sorted by company
+     */
+    public Map<String, Rate> fillRateByCompany() {
+        return rates(companies, sum(oppCompany, companies.length, oppFilledSlots),
+                     sum(oppCompany, companies.length, oppTotalSlots));
+    }
+
+    /**
+     * Applications per internship, indexed like the internship list the
+     * snapshot was taken from.
+     *
+     * @return count per internship row
+     */
+    public int[] applicationsPerInternship() {
+        return groupBy(applicationCount, internshipCount, (counts, from, to) -> {
+            for (int i = from; i < to; i++) {
+                int row = appInternship[i];
+                if (row >= 0) {
+                    counts[row]++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Internships per status ordinal.
+     *
+     * @return count per {@link InternshipStatus} ordinal
+     */
+    public int[] internshipsByStatus() {
+        return count(oppStatus, InternshipStatus.values().length);
+    }
+
+    // ---- Group-by kernels: one pass over int columns into an array of groups ----
+
+    private int[] count(int[] groups, int groupCount) {
+        return groupBy(groups.length, groupCount, (counts, from, to) -> {
+            for (int i = from; i < to; i++) {
+                counts[groups[i]]++;
+            }
+        });
+    }
+
+    private int[] countWithStatus(int[] groups, int groupCount, int[] statuses, int status) {
+        return groupBy(groups.length, groupCount, (counts, from, to) -> {
+            for (int i = from; i < to; i++) {
+                // Branch-free: rows with other statuses add zero
+                counts[groups[i]] += statuses[i] == status ? 1 : 0;
+            }
+        });
+    }
+
+    private int[] sum(int[] groups, int groupCount, int[] values) {
+        return groupBy(groups.length, groupCount, (sums, from, to) -> {
+            for (int i = from; i < to; i++) {
+                sums[groups[i]] += values[i];
+            }
+        });
+    }
+
+    /** Runs a kernel over all rows, split across the engine if there is one. */
+    private int[] groupBy(int rows, int groupCount, ReportEngine.RangeFolder<int[]> kernel) {
+        if (engine == null) {
+            int[] groups = new int[groupCount];
+            kernel.fold(groups, 0, rows);
+            return groups;
+        }
+        return engine.aggregate(rows, () -> new int[groupCount], kernel, ReportEngine::addInto);
+    }
+
+    private static Map<String, Rate> rates(String[] names, int[] parts, int[] wholes) {
+        Map<String, Rate> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int code = 0; code < names.length; code++) {
+            if (wholes[code] > 0) {
+                // Majors are encoded case-sensitively; groups differing only in case are added together
+                result.merge(names[code], new Rate(parts[code], wholes[code]),
+                    (a, b) -> new Rate(a.part + b.part, a.whole + b.whole));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Assigns consecutive codes to distinct values.
+     */
+    private static class Dictionary {
+        private final boolean ignoreCase;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        Dictionary(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+        }
+
+        int code(String value) {
+            String shown = value == null ? NONE : value;
+            String key = ignoreCase ? shown.toLowerCase() : shown;
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = values.size();
+                codes.put(key, code);
+                values.add(shown);
+            }
+            return code;
+        }
+
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
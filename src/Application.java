@@ -46,12 +46,16 @@ import java.util.Objects;
  * @see WithdrawalRequest
  */
 public class Application {
-    private ApplicationStatus status = ApplicationStatus.PENDING;
+    private volatile ApplicationStatus status = ApplicationStatus.PENDING;
     private LocalDate createdAt;
     private LocalDate updatedAt;
     private Student student;
     private InternshipOpportunity opp;
-    private WithdrawalRequest withdrawal;
+    private volatile WithdrawalRequest withdrawal;
+    // Set once the student confirmed the placement since the data was loaded
+    private volatile boolean slotReserved;
+    // Store whose status index follows this application, if any
+    private volatile ApplicationRepository repository;
 
     public Application(Student student, InternshipOpportunity opp) {
         this.student = student;
@@ -64,9 +68,29 @@ public class Application {
         return status;
     }
 
-    public void setStatus(ApplicationStatus status) {
+    public synchronized void setStatus(ApplicationStatus status) {
         this.status = status;
         this.updatedAt = LocalDate.now();
+        ApplicationRepository owner = repository;
+        if (owner != null) {
+            owner.statusChanged(this);
+        }
+    }
+
+    /**
+     * Changes the status only if it is still the expected one, so that of
+     * several sessions deciding on the same application only one succeeds.
+     *
+     * @param expected the status the decision was made on
+     * @param next the new status
+     * @return true if the status was changed
+     */
+    public synchronized boolean transition(ApplicationStatus expected, ApplicationStatus next) {
+        if (status != expected) {
+            return false;
+        }
+        setStatus(next);
+        return true;
     }
 
     public Student getStudent() {
@@ -93,6 +117,29 @@ public class Application {
         return status == ApplicationStatus.PENDING || status == ApplicationStatus.ACCEPTED;
     }
 
+    /**
+     * Tells whether the student confirmed this placement, reserving a slot,
+     * since the data was loaded. The data files do not record it.
+     *
+     * @return true if a slot is held for this application
+     */
+    public boolean hasReservedSlot() {
+        return slotReserved;
+    }
+
+    public void setReservedSlot(boolean slotReserved) {
+        this.slotReserved = slotReserved;
+    }
+
+    /**
+     * Registers the store to tell about status changes.
+     *
+     * @param repository the store holding this application
+     */
+    void setRepository(ApplicationRepository repository) {
+        this.repository = repository;
+    }
+
     public WithdrawalRequest getWithdrawal() {
         return withdrawal;
     }
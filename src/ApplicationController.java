@@ -1,5 +1,10 @@
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Implementation of application management services.
@@ -7,16 +12,55 @@ import java.util.List;
  * <p>This class implements the ApplicationServiceInterface, providing
  * application lifecycle management with loose coupling.</p>
  * 
+ * <p>Changes are persisted by appending only the changed applications to
+ * the {@link RecordJournal} of data/applications.txt, through a
+ * {@link PersistenceScheduler} that may group them with other changes.</p>
+ * 
+ * <p>Applications are kept in an {@link ApplicationRepository}, indexed
+ * by student, internship and status, so a duplicate is found without a
+ * scan and reports read just the applications they need.</p>
+ * 
+ * <p>Several sessions may use the controller at once. Listings and reports
+ * iterate copies taken from the repository without holding its lock.
+ * Decisions lock only what they change: an application's status
+ * moves only from the state the decision was made on, a withdrawal request
+ * is decided once, and accepting a placement holds the student's lock
+ * while it withdraws the student's other applications.</p>
+ * 
+ * <p>Accepting a placement is all or nothing: the slot is reserved with
+ * the internship's compare-and-set, the other applications are withdrawn,
+ * and all of it is saved before the acceptance returns. If the save
+ * fails, the withdrawals and the reservation are undone.</p>
+ * 
  * @version 1.0
  */
 public class ApplicationController implements ApplicationServiceInterface {
-    private List<Application> applications;
+    private static final String DATA_FILE = "data/applications.txt";
+
+    private final ApplicationRepository applications;
+    private final RecordJournal journal = RecordJournal.forApplications(DATA_FILE);
     private InternshipServiceInterface internshipService;
+    private PersistenceScheduler scheduler = new PersistenceScheduler();
 
     public ApplicationController() {
-        this.applications = new ArrayList<>();
+        this.applications = new ApplicationRepository();
+    }
+    
+    public void setPersistenceScheduler(PersistenceScheduler scheduler) {
+        if (scheduler != null) {
+            this.scheduler = scheduler;
+        }
     }
     
+    /**
+     * Keeps live metrics of the applications current.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(LiveMetrics metrics) {
+        applications.setMetrics(metrics);
+    }
+
     public void setInternshipService(InternshipServiceInterface internshipService) {
         this.internshipService = internshipService;
     }
@@ -28,34 +72,52 @@ public class ApplicationController implements ApplicationServiceInterface {
         if (!app.getStudent().equals(student)) {
             return false;
         }
-        if (app.getStatus() != ApplicationStatus.ACCEPTED) {
-            throw new ApplicationException("Application must be in ACCEPTED status to be confirmed");
-        }
 
-        // Reserve slot on the internship
         InternshipOpportunity opp = app.getOpportunity();
-        boolean slotReserved = opp.reserveSlot();
-        if (!slotReserved) {
-            throw new ApplicationException("No slots available for this internship");
-        }
+        // One acceptance per student at a time, so two sessions cannot each keep a placement
+        synchronized (student) {
+            if (app.getStatus() != ApplicationStatus.ACCEPTED) {
+                throw new ApplicationException("Application must be in ACCEPTED status to be confirmed");
+            }
+            if (app.hasReservedSlot()) {
+                throw new ApplicationException("This placement has already been confirmed");
+            }
 
-        // Auto-withdraw all other active applications from the same student
-        for (Application otherApp : student.getApplications()) {
-            if (otherApp != app && otherApp.isActive()) {
-                otherApp.setStatus(ApplicationStatus.WITHDRAWN);
+            // Reserve slot on the internship
+            if (!reserveSlot(opp)) {
+                throw new ApplicationException("No slots available for this internship");
             }
-        }
-        
-        // Persist changes to file
-        try {
-            writeApplicationsToFile("data/applications.txt");
-            if (internshipService != null) {
-                internshipService.saveInternships();
+            app.setReservedSlot(true);
+
+            // Auto-withdraw all other active applications from the same student
+            Map<Application, ApplicationStatus> withdrawn = new LinkedHashMap<>();
+            for (Application otherApp : student.getApplications()) {
+                ApplicationStatus previous = otherApp.getStatus();
+                if (otherApp != app && otherApp.isActive() && otherApp.transition(previous, ApplicationStatus.WITHDRAWN)) {
+                    withdrawn.put(otherApp, previous);
+                }
+            }
+
+            // Persist changes to file; the acceptance counts only once all of it is saved
+            try {
+                saveAcceptance(app, withdrawn.keySet(), opp).join();
+            } catch (CompletionException e) {
+                SystemLogger.logSystem("ERROR", "Failed to save applications after acceptance: " + e.getCause().getMessage());
+                // Undo the withdrawals and the reservation, and save the restored state again
+                for (Map.Entry<Application, ApplicationStatus> entry : withdrawn.entrySet()) {
+                    entry.getKey().transition(ApplicationStatus.WITHDRAWN, entry.getValue());
+                }
+                app.setReservedSlot(false);
+                freeSlot(opp);
+                saveAcceptance(app, withdrawn.keySet(), opp).whenComplete((done, restoreError) -> {
+                    if (restoreError != null) {
+                        SystemLogger.logSystem("ERROR", "Failed to save reverted acceptance: " + restoreError.getMessage());
+                    }
+                });
+                throw new ApplicationException("Your acceptance could not be saved, please try again");
             }
-            SystemLogger.logSystem("APPLICATION_ACCEPTED", "Student " + student.getName() + " accepted placement for " + opp.getTitle());
-        } catch (Exception e) {
-            SystemLogger.logSystem("ERROR", "Failed to save applications after acceptance: " + e.getMessage());
         }
+        SystemLogger.logSystem("APPLICATION_ACCEPTED", "Student " + student.getName() + " accepted placement for " + opp.getTitle());
 
         return true;
     }
@@ -67,11 +129,7 @@ public class ApplicationController implements ApplicationServiceInterface {
         if (!app.getStudent().equals(student)) {
             return false;
         }
-        if (app.getStatus() == ApplicationStatus.PENDING) {
-            app.setStatus(ApplicationStatus.REJECTED);
-            return true;
-        }
-        return false;
+        return app.transition(ApplicationStatus.PENDING, ApplicationStatus.REJECTED);
     }
 
     public void review(InternshipOpportunity internshipOpportunity, Application app, ApplicationStatus decision) {
@@ -81,16 +139,15 @@ public class ApplicationController implements ApplicationServiceInterface {
         if (!app.getOpportunity().equals(internshipOpportunity)) {
             return;
         }
-        if (app.getStatus() == ApplicationStatus.PENDING) {
-            app.setStatus(decision);
-            
-            // Persist changes to file
-            try {
-                writeApplicationsToFile("data/applications.txt");
-                SystemLogger.logSystem("APPLICATION_REVIEWED", "Application for " + app.getStudent().getName() + " reviewed: " + decision);
-            } catch (Exception e) {
-                SystemLogger.logSystem("ERROR", "Failed to save applications after review: " + e.getMessage());
-            }
+        // Of several reviews of the same application, only the first decides it
+        if (app.transition(ApplicationStatus.PENDING, decision)) {
+            // Persist changes to file; a review session commits many of these together
+            persist(app).whenComplete((done, e) -> {
+                if (e != null) {
+                    SystemLogger.logSystem("ERROR", "Failed to save applications after review: " + e.getMessage());
+                }
+            });
+            SystemLogger.logSystem("APPLICATION_REVIEWED", "Application for " + app.getStudent().getName() + " reviewed: " + decision);
         }
     }
 
@@ -99,9 +156,11 @@ public class ApplicationController implements ApplicationServiceInterface {
             return;
         }
 
-        if (app.getStatus() != null && app.getStatus() != ApplicationStatus.WITHDRAWN) {
-            WithdrawalRequest withdrawal = new WithdrawalRequest(app.getStudent(), "Requested by student");
-            app.setWithdrawal(withdrawal);
+        synchronized (app) {
+            if (app.getStatus() != null && app.getStatus() != ApplicationStatus.WITHDRAWN) {
+                WithdrawalRequest withdrawal = new WithdrawalRequest(app.getStudent(), "Requested by student");
+                app.setWithdrawal(withdrawal);
+            }
         }
     }
 
@@ -111,34 +170,34 @@ public class ApplicationController implements ApplicationServiceInterface {
         }
 
         WithdrawalRequest withdrawal = app.getWithdrawal();
-        if (withdrawal != null) {
-            withdrawal.decide(staff, decision);
+        // Only the first of several staff deciding the same request frees the slot
+        if (withdrawal != null && withdrawal.decideIfPending(staff, decision)) {
             if (decision == WithdrawalStatus.APPROVED) {
                 app.setStatus(ApplicationStatus.WITHDRAWN);
+                app.setReservedSlot(false);
                 // Free the slot on the internship
-                app.getOpportunity().freeSlot();
+                freeSlot(app.getOpportunity());
                 
                 // Persist changes
-                try {
-                    writeApplicationsToFile("data/applications.txt");
-                    if (internshipService != null) {
-                        internshipService.saveInternships();
-                    }
-                    SystemLogger.logSystem("WITHDRAWAL_APPROVED", "Withdrawal approved for " + app.getStudent().getName());
-                } catch (Exception e) {
-                    SystemLogger.logSystem("ERROR", "Failed to save after withdrawal: " + e.getMessage());
+                CompletableFuture<Void> saved = persist(app);
+                if (internshipService != null) {
+                    saved = CompletableFuture.allOf(saved, internshipService.saveInternship(app.getOpportunity()));
                 }
+                saved.whenComplete((done, e) -> {
+                    if (e != null) {
+                        SystemLogger.logSystem("ERROR", "Failed to save after withdrawal: " + e.getMessage());
+                    }
+                });
+                SystemLogger.logSystem("WITHDRAWAL_APPROVED", "Withdrawal approved for " + app.getStudent().getName());
             }
         }
     }
 
     public void addApplication(Application app) {
-        if (app != null && !applications.contains(app)) {
-            applications.add(app);
-            
-            // Persist changes to file
+        if (app != null && applications.add(app)) {
+            // Persist changes to file, waiting for the write so a failure can be reverted
             try {
-                writeApplicationsToFile("data/applications.txt");
+                persist(app).join();
                 SystemLogger.logSystem("APPLICATION_ADDED", "Application added for " + app.getStudent().getName() + " to " + app.getOpportunity().getTitle());
             } catch (Exception e) {
                 // Log the error
@@ -151,36 +210,59 @@ public class ApplicationController implements ApplicationServiceInterface {
     
     // Internal method for loading applications without triggering save
     public void loadApplication(Application app) {
-        if (app != null && !applications.contains(app)) {
+        if (app != null) {
             applications.add(app);
         }
     }
 
     public List<Application> getAllApplications() {
-        return new ArrayList<>(applications);
+        return applications.all();
     }
-    
-    private void writeApplicationsToFile(String filepath) throws java.io.IOException {
-        if (filepath == null) throw new java.io.IOException("Invalid filepath");
 
-        try (java.io.PrintWriter pw = new java.io.PrintWriter(new java.io.FileWriter(filepath))) {
-            // Write header/comments
-            pw.println("# Application Data File");
-            pw.println("# Format: STUDENT_ID|INTERNSHIP_TITLE|STATUS|CREATED_DATE|UPDATED_DATE");
-            pw.println();
+    public List<Application> getApplicationsFor(InternshipOpportunity opp) {
+        return applications.forInternship(opp);
+    }
 
-            for (Application app : applications) {
-                if (app == null) continue;
-                
-                pw.printf("%s|%s|%s|%s|%s\n",
-                    app.getStudent().getId(),
-                    app.getOpportunity().getTitle(),
-                    app.getStatus(),
-                    app.getCreatedAt(),
-                    app.getUpdatedAt()
-                );
-            }
+    public List<Application> getApplicationsByStatus(ApplicationStatus status) {
+        return applications.withStatus(status);
+    }
+    
+    /**
+     * Saves an accepted application, the applications it withdrew and its
+     * internship as one group.
+     */
+    private CompletableFuture<Void> saveAcceptance(Application app, Collection<Application> withdrawn,
+                                                   InternshipOpportunity opp) {
+        List<CompletableFuture<Void>> saved = new ArrayList<>();
+        saved.add(persist(app));
+        for (Application otherApp : withdrawn) {
+            saved.add(persist(otherApp));
+        }
+        if (internshipService != null) {
+            saved.add(internshipService.saveInternship(opp));
         }
+        return CompletableFuture.allOf(saved.toArray(new CompletableFuture<?>[0]));
     }
-}
 
+    private boolean reserveSlot(InternshipOpportunity opp) {
+        return internshipService != null ? internshipService.reserveSlot(opp) : opp.reserveSlot();
+    }
+
+    private boolean freeSlot(InternshipOpportunity opp) {
+        return internshipService != null ? internshipService.freeSlot(opp) : opp.freeSlot();
+    }
+    
+    private CompletableFuture<Void> persist(Application app) {
+        return scheduler.put(journal, formatRecord(app));
+    }
+    
+    private static String formatRecord(Application app) {
+        return String.format("%s|%s|%s|%s|%s",
+            app.getStudent().getId(),
+            app.getOpportunity().getTitle(),
+            app.getStatus(),
+            app.getCreatedAt(),
+            app.getUpdatedAt()
+        );
+    }
+}
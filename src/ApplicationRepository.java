@@ -0,0 +1,255 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory store of applications, indexed by student, internship and status.
+ *
+ * <p>Besides the applications in the order they were added, the store keeps</p>
+ * <ul>
+ *   <li>the applications of each student, by student id;</li>
+ *   <li>the applications to each internship, by the opportunity itself
+ *       (its title can be edited, so it is not a stable key);</li>
+ *   <li>the applications in each {@link ApplicationStatus}.</li>
+ * </ul>
+ *
+ * <p>An application is a duplicate if its student already applied to the
+ * same internship, which is found among that student's few applications
+ * instead of by scanning every application. Applications added here report
+ * their status changes back to the store, so the status index stays
+ * current however the status is set.</p>
+ *
+ * <p>All methods lock the store; queries return copies, which callers may
+ * iterate without locking. Additions, removals and status changes are
+ * also reported to the {@link LiveMetrics}, if set, under the same
+ * lock.</p>
+ *
+ * @version 1.0
+ * @see ApplicationController
+ */
+public class ApplicationRepository {
+    private final List<Application> rows = new ArrayList<>();
+    private final Map<String, List<Application>> byStudent = new HashMap<>();
+    private final Map<InternshipOpportunity, List<Application>> byInternship = new IdentityHashMap<>();
+    private final Map<ApplicationStatus, Set<Application>> byStatus = new EnumMap<>(ApplicationStatus.class);
+    private LiveMetrics metrics;
+
+    /**
+     * Constructs an empty store.
+     */
+    public ApplicationRepository() {
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            byStatus.put(status, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+    }
+
+    /**
+     * Reports every change from now on to live metrics, after counting
+     * the applications already stored.
+     *
+     * @param metrics the metrics to keep current
+     */
+    public synchronized void setMetrics(LiveMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            for (ApplicationStatus status : ApplicationStatus.values()) {
+                for (Application app : byStatus.get(status)) {
+                    metrics.applicationMoved(app, null, status);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an application unless its student already applied to the same
+     * internship.
+     *
+     * @param app the application
+     * @return true if the application was added
+     */
+    public boolean add(Application app) {
+        if (app == null || app.getStudent() == null || app.getOpportunity() == null) {
+            return false;
+        }
+        // Registered first, so a status set while the application is being added is not missed
+        app.setRepository(this);
+        synchronized (this) {
+            List<Application> ofStudent = byStudent.computeIfAbsent(app.getStudent().getId(), k -> new ArrayList<>());
+            if (find(ofStudent, app.getOpportunity()) != null) {
+                return false;
+            }
+            ofStudent.add(app);
+            byInternship.computeIfAbsent(app.getOpportunity(), k -> new ArrayList<>()).add(app);
+            rows.add(app);
+            reindexStatus(app);
+            return true;
+        }
+    }
+
+    /**
+     * Removes an application.
+     *
+     * @param app the application
+     * @return true if it was in the store
+     */
+    public synchronized boolean remove(Application app) {
+        if (app == null || app.getStudent() == null) {
+            return false;
+        }
+        List<Application> ofStudent = byStudent.get(app.getStudent().getId());
+        if (ofStudent == null || !removeSame(ofStudent, app)) {
+            return false;
+        }
+        if (ofStudent.isEmpty()) {
+            byStudent.remove(app.getStudent().getId());
+        }
+        List<Application> ofInternship = byInternship.get(app.getOpportunity());
+        if (ofInternship != null) {
+            removeSame(ofInternship, app);
+            if (ofInternship.isEmpty()) {
+                byInternship.remove(app.getOpportunity());
+            }
+        }
+        removeSame(rows, app);
+        ApplicationStatus was = unindexStatus(app);
+        if (metrics != null) {
+            metrics.applicationMoved(app, was, null);
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether a student already applied to an internship.
+     *
+     * @param student the student
+     * @param opp the internship
+     * @return true if an application of the student to it is stored
+     */
+    public synchronized boolean contains(Student student, InternshipOpportunity opp) {
+        return student != null && find(byStudent.get(student.getId()), opp) != null;
+    }
+
+    /**
+     * Every application, in the order they were added.
+     *
+     * @return a copy of the applications
+     */
+    public synchronized List<Application> all() {
+        return new ArrayList<>(rows);
+    }
+
+    /**
+     * The applications of one student, in the order they were added.
+     *
+     * @param student the student
+     * @return a copy of the student's applications
+     */
+    public synchronized List<Application> forStudent(Student student) {
+        return student == null ? new ArrayList<>() : copy(byStudent.get(student.getId()));
+    }
+
+    /**
+     * The applications to one internship, in the order they were added.
+     *
+     * @param opp the internship
+     * @return a copy of the internship's applications
+     */
+    public synchronized List<Application> forInternship(InternshipOpportunity opp) {
+        return copy(byInternship.get(opp));
+    }
+
+    /**
+     * The applications with a status, in no particular order.
+     *
+     * @param status the status
+     * @return a copy of the matching applications
+     */
+    public synchronized List<Application> withStatus(ApplicationStatus status) {
+        return status == null ? new ArrayList<>() : new ArrayList<>(byStatus.get(status));
+    }
+
+    /**
+     * Number of applications with a status.
+     *
+     * @param status the status
+     * @return the count
+     */
+    public synchronized int countWithStatus(ApplicationStatus status) {
+        return status == null ? 0 : byStatus.get(status).size();
+    }
+
+    /**
+     * Number of applications stored.
+     *
+     * @return the count
+     */
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    /**
+     * Moves an application to the status index of its current status.
+     * Called by {@link Application#setStatus} after every change; ignored
+     * for applications not in the store.
+     *
+     * @param app the application whose status changed
+     */
+    synchronized void statusChanged(Application app) {
+        List<Application> ofStudent = app.getStudent() == null ? null : byStudent.get(app.getStudent().getId());
+        if (ofStudent != null && find(ofStudent, app.getOpportunity()) == app) {
+            reindexStatus(app);
+        }
+    }
+
+    private void reindexStatus(Application app) {
+        // Re-read rather than trusting the old status, so racing changes settle on the latest one
+        ApplicationStatus was = unindexStatus(app);
+        ApplicationStatus status = app.getStatus();
+        if (status != null) {
+            byStatus.get(status).add(app);
+        }
+        if (metrics != null) {
+            metrics.applicationMoved(app, was, status);
+        }
+    }
+
+    /** Removes an application from the status index; returns the status it was filed under. */
+    private ApplicationStatus unindexStatus(Application app) {
+        for (Map.Entry<ApplicationStatus, Set<Application>> entry : byStatus.entrySet()) {
+            if (entry.getValue().remove(app)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static Application find(List<Application> apps, InternshipOpportunity opp) {
+        if (apps != null) {
+            for (Application app : apps) {
+                if (app.getOpportunity() == opp) {
+                    return app;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean removeSame(List<Application> apps, Application app) {
+        for (int i = 0; i < apps.size(); i++) {
+            if (apps.get(i) == app) {
+                apps.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Application> copy(List<Application> apps) {
+        return apps == null ? new ArrayList<>() : new ArrayList<>(apps);
+    }
+}
@@ -80,5 +80,21 @@ public interface ApplicationServiceInterface {
      * @return list of all applications
      */
     List<Application> getAllApplications();
+    
+    /**
+     * Gets the applications to one internship, without scanning the others.
+     * 
+     * @param opp the internship
+     * @return list of its applications, in the order they were made
+     */
+    List<Application> getApplicationsFor(InternshipOpportunity opp);
+    
+    /**
+     * Gets the applications with a given status, without scanning the others.
+     * 
+     * @param status the status
+     * @return list of matching applications, in no particular order
+     */
+    List<Application> getApplicationsByStatus(ApplicationStatus status);
 }
 
@@ -0,0 +1,203 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sidecar index of one sealed audit log segment.
+ *
+ * <p>Holds the time range and record count of the segment and, for every
+ * user ID and every action, the byte offsets of the matching lines in
+ * ascending order. It is stored next to the segment as
+ * {@code audit-<n>.idx} in a small binary format:</p>
+ * <pre>
+ * int magic, int version, long minTs, long maxTs, int count,
+ * int users,   { UTF userId, int n, long offset * n } * users,
+ * int actions, { UTF action, int n, long offset * n } * actions
+ * </pre>
+ *
+ * @version 1.0
+ * @see AuditLog
+ * @see AuditQuery
+ */
+class AuditIndex {
+    private static final int MAGIC = 0x41554458; // "AUDX"
+    private static final int VERSION = 1;
+    private static final long[] NONE = new long[0];
+
+    private long minTime = Long.MAX_VALUE;
+    private long maxTime = Long.MIN_VALUE;
+    private int count;
+    private final Map<String, Postings> byUser = new HashMap<>();
+    private final Map<String, Postings> byAction = new HashMap<>();
+
+    /**
+     * Adds a record; offsets must be added in ascending order.
+     *
+     * @param record the record
+     * @param offset byte offset of its line in the segment
+     */
+    void add(AuditRecord record, long offset) {
+        minTime = Math.min(minTime, record.timeMillis);
+        maxTime = Math.max(maxTime, record.timeMillis);
+        count++;
+        if (record.userId != null) {
+            byUser.computeIfAbsent(record.userId, k -> new Postings()).add(offset);
+        }
+        byAction.computeIfAbsent(record.action, k -> new Postings()).add(offset);
+    }
+
+    long getMinTime() {
+        return minTime;
+    }
+
+    long getMaxTime() {
+        return maxTime;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Tells whether any record falls within [from, to].
+     *
+     * @param from earliest time in epoch milliseconds
+     * @param to latest time in epoch milliseconds
+     * @return true if the ranges overlap
+     */
+    boolean overlaps(long from, long to) {
+        return count > 0 && minTime <= to && maxTime >= from;
+    }
+
+    long[] offsetsForUser(String userId) {
+        Postings postings = byUser.get(userId);
+        return postings == null ? NONE : postings.toArray();
+    }
+
+    long[] offsetsForAction(String action) {
+        Postings postings = byAction.get(action);
+        return postings == null ? NONE : postings.toArray();
+    }
+
+    /**
+     * Writes the index, replacing any previous file atomically.
+     *
+     * @param path the index file
+     * @throws IOException if it cannot be written
+     */
+    void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            out.writeInt(count);
+            writePostings(out, byUser);
+            writePostings(out, byAction);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads an index written by {@link #write}.
+     *
+     * @param path the index file
+     * @return the index
+     * @throws IOException if it cannot be read or is not an audit index
+     */
+    static AuditIndex read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an audit index: " + path);
+            }
+            AuditIndex index = new AuditIndex();
+            index.minTime = in.readLong();
+            index.maxTime = in.readLong();
+            index.count = in.readInt();
+            readPostings(in, index.byUser);
+            readPostings(in, index.byAction);
+            return index;
+        }
+    }
+
+    /**
+     * Intersects two ascending offset arrays.
+     *
+     * @param a first offsets
+     * @param b second offsets
+     * @return offsets present in both, ascending
+     */
+    static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static void writePostings(DataOutputStream out, Map<String, Postings> postings) throws IOException {
+        out.writeInt(postings.size());
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            out.writeUTF(entry.getKey());
+            Postings list = entry.getValue();
+            out.writeInt(list.size);
+            for (int i = 0; i < list.size; i++) {
+                out.writeLong(list.offsets[i]);
+            }
+        }
+    }
+
+    private static void readPostings(DataInputStream in, Map<String, Postings> postings) throws IOException {
+        int keys = in.readInt();
+        for (int k = 0; k < keys; k++) {
+            String key = in.readUTF();
+            Postings list = new Postings();
+            int n = in.readInt();
+            list.offsets = new long[Math.max(n, 1)];
+            for (int i = 0; i < n; i++) {
+                list.offsets[i] = in.readLong();
+            }
+            list.size = n;
+            postings.put(key, list);
+        }
+    }
+
+    /**
+     * Growable list of line offsets.
+     */
+    private static class Postings {
+        long[] offsets = new long[4];
+        int size;
+
+        void add(long offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(offsets, size);
+        }
+    }
+}
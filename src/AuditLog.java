@@ -0,0 +1,248 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Segmented JSON-lines audit log with a sidecar index per segment.
+ *
+ * <p>Every event is appended as one {@link AuditRecord} line to the active
+ * segment {@code logs/audit/audit-<n>.jsonl}. When the segment reaches its
+ * size limit it is sealed: its {@link AuditIndex} (time range, offsets by
+ * user and by action) is written to {@code audit-<n>.idx} and a new
+ * segment is started. {@link AuditQuery} uses the indexes to read only the
+ * matching lines of sealed segments.</p>
+ *
+ * <p>At startup the most recent unsealed segment is continued and its
+ * index rebuilt in memory; any older unsealed segment is sealed.</p>
+ *
+ * <p>Not thread-safe; used only by the {@link SystemLogger} writer thread.</p>
+ *
+ * @version 1.0
+ */
+class AuditLog {
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".jsonl";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private OutputStream out;
+    private Path segment;
+    private int sequence;
+    private long size;
+    private AuditIndex index;
+
+    /**
+     * Constructs an audit log.
+     *
+     * @param directory directory holding the segments, e.g. logs/audit
+     * @param segmentBytes size at which a segment is sealed
+     */
+    AuditLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(1024, segmentBytes);
+    }
+
+    /**
+     * Appends one record, sealing the active segment first if it is full.
+     *
+     * @param record the record
+     * @throws IOException if the segment cannot be written
+     */
+    void append(AuditRecord record) throws IOException {
+        if (out == null) {
+            open();
+        }
+        line.setLength(0);
+        record.appendJson(line);
+        byte[] bytes = line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length > segmentBytes) {
+            seal();
+            startSegment(sequence + 1);
+        }
+        out.write(bytes);
+        index.add(record, size);
+        size += bytes.length;
+    }
+
+    void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Closes the active segment without sealing it; the next append reopens it.
+     */
+    void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Nothing more can be done with this segment
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * Lists the segments of an audit directory in sequence order.
+     *
+     * @param directory the audit directory
+     * @return segment files, oldest first
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                if (sequenceOf(path) > 0) {
+                    segments.add(path);
+                }
+            }
+        }
+        segments.sort((a, b) -> Integer.compare(sequenceOf(a), sequenceOf(b)));
+        return segments;
+    }
+
+    static Path indexFor(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    /**
+     * Builds the index of a segment by reading it, ignoring lines that are
+     * not valid records (such as one torn by a crash).
+     *
+     * @param segment the segment file
+     * @return its index
+     * @throws IOException if it cannot be read
+     */
+    static AuditIndex scan(Path segment) throws IOException {
+        AuditIndex index = new AuditIndex();
+        try (InputStream in = Files.newInputStream(segment)) {
+            forEachLine(in, (text, offset) -> {
+                AuditRecord record = AuditRecord.parse(text);
+                if (record != null) index.add(record, offset);
+            });
+        }
+        return index;
+    }
+
+    /**
+     * Receives each line of a segment with its byte offset.
+     */
+    interface LineVisitor {
+        void visit(String line, long offset);
+    }
+
+    /**
+     * Reads complete UTF-8 lines and their offsets; a final line without '\n' is skipped.
+     */
+    static void forEachLine(InputStream in, LineVisitor visitor) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        byte[] pending = new byte[256];
+        int pendingLength = 0;
+        long offset = 0;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    visitor.visit(new String(pending, 0, pendingLength, StandardCharsets.UTF_8), offset);
+                    offset += pendingLength + 1;
+                    pendingLength = 0;
+                } else {
+                    if (pendingLength == pending.length) {
+                        pending = Arrays.copyOf(pending, pendingLength * 2);
+                    }
+                    pending[pendingLength++] = b;
+                }
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size() - 1; i++) {
+            Path older = segments.get(i);
+            if (!Files.exists(indexFor(older))) {
+                scan(older).write(indexFor(older));
+            }
+        }
+        if (!segments.isEmpty()) {
+            Path last = segments.get(segments.size() - 1);
+            if (!Files.exists(indexFor(last))) {
+                continueSegment(last);
+                return;
+            }
+            startSegment(sequenceOf(last) + 1);
+        } else {
+            startSegment(1);
+        }
+    }
+
+    private void continueSegment(Path last) throws IOException {
+        // Drop a line torn by a crash so the next record starts on its own line
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            long keep = length;
+            ByteBuffer one = ByteBuffer.allocate(1);
+            while (keep > 0) {
+                one.clear();
+                channel.read(one, keep - 1);
+                if (one.get(0) == '\n') break;
+                keep--;
+            }
+            if (keep < length) {
+                channel.truncate(keep);
+            }
+        }
+        segment = last;
+        sequence = sequenceOf(last);
+        index = scan(last);
+        size = Files.size(last);
+        out = new BufferedOutputStream(Files.newOutputStream(last, StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    private void startSegment(int sequence) throws IOException {
+        this.sequence = sequence;
+        this.segment = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        this.index = new AuditIndex();
+        this.size = 0;
+        this.out = new BufferedOutputStream(Files.newOutputStream(segment,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), 64 * 1024);
+    }
+
+    private void seal() throws IOException {
+        out.close();
+        out = null;
+        index.write(indexFor(segment));
+    }
+
+    private static int sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Offline query tool for the structured audit log.
+ *
+ * <p>Prints the JSON lines of every audit event matching the given
+ * filters, oldest first:</p>
+ * <pre>
+ * java -cp bin AuditQuery [--user ID] [--action ACTION] [--from yyyy-MM-dd] [--to yyyy-MM-dd] [--dir logs/audit]
+ * </pre>
+ *
+ * <p>Sealed segments are skipped when their time range does not overlap
+ * the query or their {@link AuditIndex} has no entry for the user or
+ * action. Otherwise only the indexed lines are read, by seeking to their
+ * offsets. Only the active, unsealed segment and queries without a user or
+ * action are answered by scanning.</p>
+ *
+ * @version 1.0
+ * @see AuditLog
+ */
+public class AuditQuery {
+    private String userId;
+    private String action;
+    private long from = Long.MIN_VALUE;
+    private long to = Long.MAX_VALUE;
+    private Path directory = Paths.get("logs", "audit");
+
+    private int segmentsSkipped;
+    private int segmentsSeeked;
+    private int segmentsScanned;
+    private long matches;
+
+    /**
+     * Runs a query from the command line.
+     *
+     * @param args filters, see the class description
+     */
+    public static void main(String[] args) {
+        AuditQuery query = new AuditQuery();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--user": query.userId = require(args[i], value); i++; break;
+                    case "--action": query.action = require(args[i], value); i++; break;
+                    case "--from": query.from = startOfDay(require(args[i], value)); i++; break;
+                    case "--to": query.to = startOfDay(require(args[i], value)) + 24L * 60 * 60 * 1000 - 1; i++; break;
+                    case "--dir": query.directory = Paths.get(require(args[i], value)); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java AuditQuery [--user ID] [--action ACTION] [--from yyyy-MM-dd] [--to yyyy-MM-dd] [--dir logs/audit]");
+            System.exit(2);
+        }
+
+        try {
+            query.run();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+        System.err.printf("%d matching events; segments: %d skipped, %d read by index, %d scanned%n",
+            query.matches, query.segmentsSkipped, query.segmentsSeeked, query.segmentsScanned);
+    }
+
+    private void run() throws IOException {
+        for (Path segment : AuditLog.listSegments(directory)) {
+            Path indexFile = AuditLog.indexFor(segment);
+            if (!Files.exists(indexFile)) {
+                scan(segment);
+                continue;
+            }
+
+            AuditIndex index = AuditIndex.read(indexFile);
+            if (!index.overlaps(from, to)) {
+                segmentsSkipped++;
+                continue;
+            }
+            long[] offsets;
+            if (userId != null && action != null) {
+                offsets = AuditIndex.intersect(index.offsetsForUser(userId), index.offsetsForAction(action));
+            } else if (userId != null) {
+                offsets = index.offsetsForUser(userId);
+            } else if (action != null) {
+                offsets = index.offsetsForAction(action);
+            } else {
+                scan(segment);
+                continue;
+            }
+
+            if (offsets.length == 0) {
+                segmentsSkipped++;
+            } else {
+                seek(segment, offsets);
+            }
+        }
+    }
+
+    private void seek(Path segment, long[] offsets) throws IOException {
+        segmentsSeeked++;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            for (long offset : offsets) {
+                String line = readLine(channel, offset, buffer);
+                if (line != null) {
+                    print(line, AuditRecord.parse(line));
+                }
+            }
+        }
+    }
+
+    private void scan(Path segment) throws IOException {
+        segmentsScanned++;
+        try (InputStream in = Files.newInputStream(segment)) {
+            AuditLog.forEachLine(in, (line, offset) -> print(line, AuditRecord.parse(line)));
+        }
+    }
+
+    private void print(String line, AuditRecord record) {
+        if (record == null || record.timeMillis < from || record.timeMillis > to) {
+            return;
+        }
+        if (userId != null && !userId.equals(record.userId)) {
+            return;
+        }
+        if (action != null && !action.equals(record.action)) {
+            return;
+        }
+        matches++;
+        System.out.println(line);
+    }
+
+    private static String readLine(FileChannel channel, long offset, ByteBuffer buffer) throws IOException {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        long position = offset;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return null; // No line feed: torn line
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    text.write(bytes, 0, i);
+                    return new String(text.toByteArray(), StandardCharsets.UTF_8);
+                }
+            }
+            // Lines longer than the buffer are rare; keep reading until the line feed
+            text.write(bytes, 0, read);
+            position += read;
+        }
+    }
+
+    private static String require(String option, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return value;
+    }
+
+    private static long startOfDay(String date) {
+        return LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
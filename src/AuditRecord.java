@@ -0,0 +1,212 @@
+/**
+ * One event of the structured audit log.
+ *
+ * <p>Stored as a single JSON object per line with the typed fields</p>
+ * <pre>
+ * {"ts":1760659200000,"action":"LOGIN","userId":"U2345123F","entity":null,"details":"Alice (Student) logged in"}
+ * </pre>
+ * <p>where {@code ts} is milliseconds since the epoch and the other fields
+ * are strings or null. System events have no user.</p>
+ *
+ * @version 1.0
+ * @see AuditLog
+ * @see AuditQuery
+ */
+class AuditRecord {
+    final long timeMillis;
+    final String action;
+    final String userId;
+    final String entity;
+    final String details;
+
+    AuditRecord(long timeMillis, String action, String userId, String entity, String details) {
+        this.timeMillis = timeMillis;
+        this.action = action;
+        this.userId = userId;
+        this.entity = entity;
+        this.details = details;
+    }
+
+    /**
+     * Appends this record as one JSON line, without the line feed.
+     *
+     * @param out the buffer to append to
+     */
+    void appendJson(StringBuilder out) {
+        out.append("{\"ts\":").append(timeMillis);
+        out.append(",\"action\":");
+        appendString(out, action);
+        out.append(",\"userId\":");
+        appendString(out, userId);
+        out.append(",\"entity\":");
+        appendString(out, entity);
+        out.append(",\"details\":");
+        appendString(out, details);
+        out.append('}');
+    }
+
+    /**
+     * Parses a line written by {@link #appendJson}.
+     *
+     * @param line the JSON line
+     * @return the record, or null if the line is not a valid audit record
+     */
+    static AuditRecord parse(String line) {
+        Parser parser = new Parser(line);
+        long ts = Long.MIN_VALUE;
+        String action = null;
+        String userId = null;
+        String entity = null;
+        String details = null;
+        try {
+            parser.expect('{');
+            if (!parser.consume('}')) {
+                do {
+                    String field = parser.string();
+                    parser.expect(':');
+                    switch (field) {
+                        case "ts": ts = parser.number(); break;
+                        case "action": action = parser.nullableString(); break;
+                        case "userId": userId = parser.nullableString(); break;
+                        case "entity": entity = parser.nullableString(); break;
+                        case "details": details = parser.nullableString(); break;
+                        default: parser.skipValue();
+                    }
+                } while (parser.consume(','));
+                parser.expect('}');
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ts == Long.MIN_VALUE || action == null) {
+            return null;
+        }
+        return new AuditRecord(ts, action, userId, entity, details);
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Minimal reader for the flat objects written by {@link #appendJson}.
+     * Errors are reported as IllegalArgumentException.
+     */
+    private static class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + pos);
+            }
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        long number() {
+            skipWhitespace();
+            int start = pos;
+            if (pos < text.length() && text.charAt(pos) == '-') pos++;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) pos++;
+            try {
+                return Long.parseLong(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected number at " + start);
+            }
+        }
+
+        String nullableString() {
+            skipWhitespace();
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return string();
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) break;
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) throw new IllegalArgumentException("Bad escape");
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Bad escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: value.append(escaped); // \" \\ \/
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+
+        void skipValue() {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == '"') {
+                string();
+            } else if (text.startsWith("null", pos) || text.startsWith("true", pos)) {
+                pos += 4;
+            } else if (text.startsWith("false", pos)) {
+                pos += 5;
+            } else {
+                number();
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && text.charAt(pos) <= ' ') pos++;
+        }
+    }
+}
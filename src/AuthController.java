@@ -1,5 +1,7 @@
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * Implementation of authentication services.
@@ -8,47 +10,121 @@ import java.util.List;
  * concrete authentication logic while allowing for loose coupling
  * with client code.</p>
  * 
+ * <p>Users are looked up by ID in a {@link UserDirectory}, so a login
+ * takes the same time however many users there are. The directory is
+ * shared with the {@link RegistrationController}, so newly registered
+ * representatives are found without reloading.</p>
+ * 
+ * <p>Passwords are hashed with {@link PasswordHasher}, which makes each
+ * check cost tens of milliseconds of CPU. Checks run on a bounded
+ * {@link PasswordVerifier} pool, one thread per processor, so that logins
+ * cannot take every thread of the caller; when too many checks are queued,
+ * further ones fail at once instead of waiting. The pool is shared with
+ * the {@link RegistrationController} for registrations and password
+ * changes. Stored passwords that are plaintext or
+ * hashed with a lower work factor are hashed again after a successful
+ * login and handed to the password upgrade listener to be saved.</p>
+ * 
  * @version 1.0
  */
 public class AuthController implements AuthServiceInterface {
-    private List<User> users;
+    /** Logins waiting for a verifier thread, per thread, before new ones are refused. */
+    public static final int QUEUED_LOGINS_PER_THREAD = 64;
+
+    private UserDirectory directory;
+    private final PasswordVerifier verifier;
+    private volatile Consumer<User> passwordUpgradeListener = user -> { };
 
     public AuthController() {
-        this.users = new ArrayList<>();
+        this(Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors() * QUEUED_LOGINS_PER_THREAD);
+    }
+
+    /**
+     * Creates a controller with a verifier pool of the given size.
+     *
+     * @param verifierThreads threads checking passwords
+     * @param maxQueuedLogins logins that may wait for a thread
+     */
+    public AuthController(int verifierThreads, int maxQueuedLogins) {
+        this.directory = new UserDirectory();
+        this.verifier = new PasswordVerifier(verifierThreads, maxQueuedLogins);
+    }
+
+    /**
+     * Gets the pool that hashes and checks passwords, to share it with
+     * other controllers.
+     *
+     * @return the password verifier
+     */
+    public PasswordVerifier getPasswordVerifier() {
+        return verifier;
     }
 
     public User authenticate(String username, String password) throws AuthenticationException {
+        try {
+            return authenticateAsync(username, password).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AuthenticationException) {
+                throw (AuthenticationException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Authenticates a user without waiting for the password check, which
+     * runs on the verifier pool.
+     *
+     * @param username the user ID
+     * @param password the password to verify
+     * @return the authenticated user, or a future failed with an
+     *         {@link AuthenticationException}
+     */
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
         if (username == null || password == null) {
-            throw new AuthenticationException("Username and password cannot be null");
+            return CompletableFuture.failedFuture(new AuthenticationException("Username and password cannot be null"));
         }
 
         // First try to find user by ID
-        User found = null;
-        for (User user : users) {
-            if (user != null && user.getId() != null && user.getId().equals(username)) {
-                found = user;
-                break;
-            }
-        }
+        User found = directory.find(username);
 
         if (found == null) {
-            throw new AuthenticationException("Invalid ID");
+            return CompletableFuture.failedFuture(new AuthenticationException("Invalid ID"));
         }
 
         // If the account is a company representative, ensure it's approved before allowing login
         if (found instanceof CompanyRepresentative) {
             CompanyRepresentative rep = (CompanyRepresentative) found;
             if (!rep.getIsApproved()) {
-                throw new AuthenticationException("Account not approved");
+                return CompletableFuture.failedFuture(new AuthenticationException("Account not approved"));
             }
         }
 
         // ID found and account authorized (if applicable), now verify password
-        if (!found.verifyPassword(password)) {
-            throw new AuthenticationException("Incorrect password");
+        return verifier.submit(() -> verify(found, password));
+    }
+
+    private User verify(User user, String password) {
+        if (!user.verifyPassword(password)) {
+            throw new CompletionException(new AuthenticationException("Incorrect password"));
+        }
+        if (PasswordHasher.needsRehash(user.getPasswordForPersistence())) {
+            user.setPassword(password);
+            passwordUpgradeListener.accept(user);
         }
+        return user;
+    }
 
-        return found;
+    /**
+     * Sets what saves a user whose stored password was upgraded at login.
+     *
+     * @param listener called on a verifier thread with the upgraded user
+     */
+    public void setPasswordUpgradeListener(Consumer<User> listener) {
+        if (listener != null) {
+            this.passwordUpgradeListener = listener;
+        }
     }
 
     public void logout(User user) {
@@ -59,12 +135,23 @@ public class AuthController implements AuthServiceInterface {
 
     public void setUsers(List<User> users) {
         if (users != null) {
-            this.users = users; // Share the same list reference
+            this.directory = new UserDirectory(users);
+        }
+    }
+
+    /**
+     * Looks users up in a directory shared with other controllers.
+     *
+     * @param directory the user directory
+     */
+    public void setUserDirectory(UserDirectory directory) {
+        if (directory != null) {
+            this.directory = directory;
         }
     }
     
     public List<User> getUsers() {
-        return new ArrayList<>(users);
+        return directory.getUsers();
     }
 }
 
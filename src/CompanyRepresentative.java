@@ -1,6 +1,6 @@
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents a Company Representative user in the Internship Placement Management System.
@@ -36,7 +36,9 @@ import java.util.List;
  * </ul>
  * 
  * <p>The class maintains a list of created internships and provides
- * methods to manage the 5-internship limit and approval workflow.</p>
+ * methods to manage the 5-internship limit and approval workflow. The
+ * list is copy-on-write, so it can be read while another session
+ * changes it.</p>
  * 
  * @version 1.0
  * @see User
@@ -47,9 +49,9 @@ public class CompanyRepresentative extends User {
     private String companyName;
     private String department;
     private String position;
-    private boolean isApproved;
+    private volatile boolean isApproved;
 
-    private final List<InternshipOpportunity> createdInternships = new ArrayList<>();
+    private final List<InternshipOpportunity> createdInternships = new CopyOnWriteArrayList<>();
 
     public CompanyRepresentative(String id, String name, String companyName) {
         setId(id);
@@ -48,5 +48,13 @@ public interface DataAccessInterface {
      */
     List<Application> loadApplications(String filename, List<User> users, 
                                       List<InternshipOpportunity> internships) throws DataAccessException;
+    
+    /**
+     * Gets the reports of all loads performed by this data source,
+     * in the order the loads completed.
+     * 
+     * @return list of load reports (rows parsed, rows skipped, time per file)
+     */
+    List<LoadReport> getLoadReports();
 }
 
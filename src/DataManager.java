@@ -1,234 +1,381 @@
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.time.LocalDate;
+import java.nio.file.Paths;
 
 /**
  * Implementation of data access services using file I/O.
- * 
+ *
  * <p>This class implements the DataAccessInterface, providing
  * file-based data persistence with loose coupling to allow for
  * alternative implementations (e.g., database, API).</p>
- * 
+ *
+ * <p>Each load runs in two passes. The parse pass turns every data line
+ * into a record independently of any other line, using a
+ * {@link RecordTokenizer} so that numeric, boolean, enum and date fields
+ * are read without intermediate substrings. The link pass then
+ * resolves references between files (internship to representative,
+ * application to student and internship) through hash indexes built once
+ * per load, so loading is linear in the number of lines. Each load records
+ * a {@link LoadReport}.</p>
+ *
+ * <p>Before a file is read, changes left in its {@link RecordJournal} are
+ * folded into it.</p>
+ *
  * @version 1.0
+ * @see ParallelDataManager
  */
 public class DataManager implements DataAccessInterface {
+    // values() clones its array on every call, so the tokenizer gets shared copies
+    private static final InternshipLevel[] LEVELS = InternshipLevel.values();
+    private static final InternshipStatus[] INTERNSHIP_STATUSES = InternshipStatus.values();
+    private static final ApplicationStatus[] APPLICATION_STATUSES = ApplicationStatus.values();
+
+    private final List<LoadReport> loadReports = new ArrayList<>();
 
     public DataManager() {
         // No-op constructor
     }
 
+    public List<LoadReport> getLoadReports() {
+        return new ArrayList<>(loadReports);
+    }
+
     public List<User> loadUsers(String filepath) throws DataAccessException {
         if (filepath == null) {
             throw new DataAccessException("Filepath cannot be null");
         }
-        
+
         List<User> users = new ArrayList<>();
-        
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue; // Skip empty lines and comments
-                }
-                
-                String[] parts = line.split("\\|");
-                if (parts.length < 4) {
-                    continue; // Skip invalid lines
-                }
-                
-                String type = parts[0].trim();
-                String id = parts[1].trim();
-                String name = parts[2].trim();
-                String password = parts[3].trim();
-                
-                User user = null;
-                
-                if (type.equals("STUDENT") && parts.length >= 6) {
-                    String major = parts[4].trim();
-                    int year = Integer.parseInt(parts[5].trim());
-                    user = new Student(id, name, major, year);
-                } else if (type.equals("COMPANY_REP") && parts.length >= 8) {
-                    String companyName = parts[4].trim();
-                    String department = parts[5].trim();
-                    String position = parts[6].trim();
-                    boolean isApproved = Boolean.parseBoolean(parts[7].trim());
-                    CompanyRepresentative rep = new CompanyRepresentative(id, name, companyName);
-                    rep.setDepartment(department);
-                    rep.setPosition(position);
-                    rep.setApproved(isApproved);
-                    user = rep;
-                } else if (type.equals("STAFF") && parts.length >= 5) {
-                    String department = parts[4].trim();
-                    user = new CareerCenterStaff(id, name, department);
-                }
-                
-                if (user != null) {
-                    user.setPassword(password);
-                    users.add(user);
-                }
+        LoadReport report = new LoadReport(filepath);
+        long start = System.nanoTime();
+
+        try {
+            RecordJournal.forUsers(filepath).recover();
+            for (User user : readRecords(filepath, DataManager::parseUser, report)) {
+                users.add(user);
+                report.rowParsed();
             }
         } catch (IOException e) {
             throw new DataAccessException("Error reading file: " + filepath + " - " + e.getMessage());
         } catch (NumberFormatException e) {
             throw new DataAccessException("Error parsing numeric data: " + e.getMessage());
         }
-        
+
+        finishReport(report, start);
         return users;
     }
-    
+
     public List<InternshipOpportunity> loadInternships(String filepath, List<User> users) throws DataAccessException {
         if (filepath == null) {
             throw new DataAccessException("Filepath cannot be null");
         }
-        
-        List<InternshipOpportunity> internships = new ArrayList<>();
-        
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-                
-                String[] parts = line.split("\\|");
-                if (parts.length < 13) {
-                    continue;
-                }
-                
-                // String id = parts[0].trim(); // Not used currently
-                String title = parts[1].trim();
-                String companyName = parts[2].trim();
-                String repId = parts[3].trim();
-                String description = parts[4].trim();
-                String levelStr = parts[5].trim();
-                String preferredMajor = parts[6].trim();
-                int totalSlots = Integer.parseInt(parts[7].trim());
-                int filledSlots = Integer.parseInt(parts[8].trim());
-                String statusStr = parts[9].trim();
-                boolean visible = Boolean.parseBoolean(parts[10].trim());
-                String openDateStr = parts[11].trim();
-                String closeDateStr = parts[12].trim();
-                
-                // Find the rep
-                CompanyRepresentative rep = null;
-                for (User user : users) {
-                    if (user instanceof CompanyRepresentative && user.getId().equals(repId)) {
-                        rep = (CompanyRepresentative) user;
-                        break;
-                    }
-                }
-                
-                if (rep == null) {
-                    continue; // Skip if rep not found
-                }
-                
-                InternshipOpportunity opp = new InternshipOpportunity(title, companyName, rep);
-                opp.setDescription(description);
-                opp.setLevel(InternshipLevel.valueOf(levelStr));
-                
-                // Set preferred major (can be comma-separated for multiple majors)
-                if (preferredMajor != null && !preferredMajor.isEmpty() && !preferredMajor.equalsIgnoreCase("N/A")) {
-                    List<String> majors = new ArrayList<>();
-                    for (String major : preferredMajor.split(",")) {
-                        majors.add(major.trim());
-                    }
-                    opp.setPreferredMajor(majors);
-                }
-                
-                opp.setTotalSlots(totalSlots);
-                opp.setFilledSlots(filledSlots);
-                opp.setStatus(InternshipStatus.valueOf(statusStr));
-                opp.setVisible(visible);
-                opp.setOpenDate(LocalDate.parse(openDateStr));
-                opp.setCloseDate(LocalDate.parse(closeDateStr));
-                
-                internships.add(opp);
-                rep.createInternship(opp);
-            }
+
+        List<InternshipOpportunity> internships;
+        LoadReport report = new LoadReport(filepath);
+        long start = System.nanoTime();
+
+        try {
+            RecordJournal.forInternships(filepath).recover();
+            List<InternshipRecord> records = readRecords(filepath, DataManager::parseInternship, report);
+            internships = linkInternships(records, users, report);
         } catch (IOException e) {
             throw new DataAccessException("Error reading file: " + filepath + " - " + e.getMessage());
         } catch (Exception e) {
             throw new DataAccessException("Error parsing internship data: " + e.getMessage());
         }
-        
+
+        finishReport(report, start);
         return internships;
     }
-    
-    public List<Application> loadApplications(String filepath, List<User> users, List<InternshipOpportunity> internships) 
+
+    public List<Application> loadApplications(String filepath, List<User> users, List<InternshipOpportunity> internships)
             throws DataAccessException {
         if (filepath == null) {
             throw new DataAccessException("Filepath cannot be null");
         }
-        
-        List<Application> applications = new ArrayList<>();
-        
+
+        List<Application> applications;
+        LoadReport report = new LoadReport(filepath);
+        long start = System.nanoTime();
+
+        try {
+            RecordJournal.forApplications(filepath).recover();
+            List<ApplicationRecord> records = readRecords(filepath, DataManager::parseApplication, report);
+            applications = linkApplications(records, users, internships, report);
+        } catch (IOException e) {
+            throw new DataAccessException("Error reading file: " + filepath + " - " + e.getMessage());
+        } catch (Exception e) {
+            throw new DataAccessException("Error parsing application data: " + e.getMessage());
+        }
+
+        finishReport(report, start);
+        return applications;
+    }
+
+    /**
+     * Reads every data line of a file and parses it into a record.
+     *
+     * <p>Blank lines and comments are ignored. Lines the parser rejects
+     * (returns null for) are counted as skipped on the report. Records are
+     * returned in file order.</p>
+     *
+     * <p>If the file ends with a {@link SnapshotChecksum} trailer it is
+     * verified first, so a damaged file fails the load instead of silently
+     * losing rows.</p>
+     *
+     * @param filepath the file to read
+     * @param parser converts one trimmed data line into a record, or null if invalid
+     * @param report the report to count skipped lines on
+     * @return parsed records in file order
+     * @throws IOException if the file cannot be read or fails its checksum
+     */
+    protected <T> List<T> readRecords(String filepath, Function<String, T> parser, LoadReport report) throws IOException {
+        SnapshotChecksum.verify(Paths.get(filepath));
+        List<T> records = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
             String line;
             while ((line = br.readLine()) != null) {
                 line = line.trim();
                 if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-                
-                String[] parts = line.split("\\|");
-                if (parts.length < 5) {
-                    continue;
-                }
-                
-                String studentId = parts[0].trim();
-                String internshipTitle = parts[1].trim();
-                String statusStr = parts[2].trim();
-                // String createdDateStr = parts[3].trim(); // Not used currently
-                // String updatedDateStr = parts[4].trim(); // Not used currently
-                
-                // Find student
-                Student student = null;
-                for (User user : users) {
-                    if (user instanceof Student && user.getId().equals(studentId)) {
-                        student = (Student) user;
-                        break;
-                    }
-                }
-                
-                if (student == null) {
-                    continue;
-                }
-                
-                // Find internship
-                InternshipOpportunity internship = null;
-                for (InternshipOpportunity opp : internships) {
-                    if (opp.getTitle().equals(internshipTitle)) {
-                        internship = opp;
-                        break;
-                    }
-                }
-                
-                if (internship == null) {
-                    continue;
+                    continue; // Skip empty lines and comments
                 }
-                
-                Application app = new Application(student, internship);
-                app.setStatus(ApplicationStatus.valueOf(statusStr));
-                
-                applications.add(app);
-                try {
-                    student.addApplication(app);
-                } catch (ApplicationException e) {
-                    // Ignore validation errors when loading
+
+                T record = parser.apply(line);
+                if (record != null) {
+                    records.add(record);
+                } else {
+                    report.rowSkipped();
                 }
             }
-        } catch (IOException e) {
-            throw new DataAccessException("Error reading file: " + filepath + " - " + e.getMessage());
-        } catch (Exception e) {
-            throw new DataAccessException("Error parsing application data: " + e.getMessage());
         }
-        
+        return records;
+    }
+
+    private void finishReport(LoadReport report, long start) {
+        report.setElapsedNanos(System.nanoTime() - start);
+        loadReports.add(report);
+    }
+
+    // ========== Parse pass: one line at a time, no cross-file references ==========
+
+    static User parseUser(String line) {
+        RecordTokenizer fields = RecordTokenizer.forCurrentThread().reset(line);
+        int count = fields.fieldCount();
+        if (count < 4) {
+            return null; // Skip invalid lines
+        }
+
+        User user = null;
+
+        if (fields.textEquals(0, "STUDENT") && count >= 6) {
+            int year = fields.parseInt(5);
+            user = new Student(fields.text(1), fields.text(2), fields.text(4), year);
+        } else if (fields.textEquals(0, "COMPANY_REP") && count >= 8) {
+            CompanyRepresentative rep = new CompanyRepresentative(fields.text(1), fields.text(2), fields.text(4));
+            rep.setDepartment(fields.text(5));
+            rep.setPosition(fields.text(6));
+            rep.setApproved(fields.parseBoolean(7));
+            user = rep;
+        } else if (fields.textEquals(0, "STAFF") && count >= 5) {
+            user = new CareerCenterStaff(fields.text(1), fields.text(2), fields.text(4));
+        }
+
+        if (user != null) {
+            user.setPasswordForPersistence(fields.text(3));
+        }
+        return user;
+    }
+
+    static InternshipRecord parseInternship(String line) {
+        RecordTokenizer fields = RecordTokenizer.forCurrentThread().reset(line);
+        if (fields.fieldCount() < 13) {
+            return null;
+        }
+
+        // Field 0 (ID) is not used currently
+        int totalSlots = fields.parseInt(7);
+        int filledSlots = fields.parseInt(8);
+
+        // The rep is attached in the link pass
+        InternshipOpportunity opp = new InternshipOpportunity(fields.text(1), fields.text(2), null);
+        InternshipRecord record = new InternshipRecord(fields.text(3), opp);
+        try {
+            opp.setDescription(fields.text(4));
+            opp.setLevel(fields.parseEnum(5, InternshipLevel.class, LEVELS));
+
+            // Set preferred major (can be comma-separated for multiple majors)
+            if (!fields.isEmpty(6) && !fields.textEqualsIgnoreCase(6, "N/A")) {
+                opp.setPreferredMajor(fields.splitField(6, ','));
+            }
+
+            opp.setTotalSlots(totalSlots);
+            opp.setFilledSlots(filledSlots);
+            opp.setStatus(fields.parseEnum(9, InternshipStatus.class, INTERNSHIP_STATUSES));
+            opp.setVisible(fields.parseBoolean(10));
+            opp.setOpenDate(fields.parseDate(11));
+            opp.setCloseDate(fields.parseDate(12));
+        } catch (RuntimeException e) {
+            // Only fatal if the rep resolves; lines with unknown reps are skipped regardless
+            record.error = e;
+        }
+        return record;
+    }
+
+    static ApplicationRecord parseApplication(String line) {
+        RecordTokenizer fields = RecordTokenizer.forCurrentThread().reset(line);
+        if (fields.fieldCount() < 5) {
+            return null;
+        }
+
+        // Fields 3 and 4 (created/updated dates) are not used currently
+        ApplicationStatus status = null;
+        RuntimeException error = null;
+        try {
+            status = fields.parseEnum(2, ApplicationStatus.class, APPLICATION_STATUSES);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        return new ApplicationRecord(fields.text(0), fields.text(1), status, error);
+    }
+
+    // ========== Link pass: resolve references through indexes, in file order ==========
+
+    static List<InternshipOpportunity> linkInternships(List<InternshipRecord> records, List<User> users, LoadReport report) {
+        List<InternshipOpportunity> internships = new ArrayList<>();
+        Map<String, CompanyRepresentative> repsById = indexRepresentatives(users);
+
+        for (InternshipRecord record : records) {
+            // Find the rep
+            CompanyRepresentative rep = repsById.get(record.repId);
+
+            if (rep == null) {
+                report.rowSkipped();
+                continue; // Skip if rep not found
+            }
+            if (record.error != null) {
+                throw record.error;
+            }
+
+            InternshipOpportunity opp = record.opportunity;
+            opp.setRepInCharge(rep);
+            internships.add(opp);
+            rep.createInternship(opp);
+            report.rowParsed();
+        }
+        return internships;
+    }
+
+    static List<Application> linkApplications(List<ApplicationRecord> records, List<User> users,
+                                              List<InternshipOpportunity> internships, LoadReport report) {
+        List<Application> applications = new ArrayList<>();
+        Map<String, Student> studentsById = indexStudents(users);
+        Map<String, InternshipOpportunity> internshipsByTitle = indexByTitle(internships);
+
+        for (ApplicationRecord record : records) {
+            // Find student
+            Student student = studentsById.get(record.studentId);
+
+            if (student == null) {
+                report.rowSkipped();
+                continue;
+            }
+
+            // Find internship
+            InternshipOpportunity internship = internshipsByTitle.get(record.internshipTitle);
+
+            if (internship == null) {
+                report.rowSkipped();
+                continue;
+            }
+
+            if (record.error != null) {
+                throw record.error;
+            }
+
+            Application app = new Application(student, internship);
+            app.setStatus(record.status);
+
+            applications.add(app);
+            report.rowParsed();
+            try {
+                student.addApplication(app);
+            } catch (ApplicationException e) {
+                // Ignore validation errors when loading
+            }
+        }
         return applications;
     }
-}
 
+    // Index helpers keep the first match for a key, like the linear scans they replace
+
+    private static Map<String, CompanyRepresentative> indexRepresentatives(List<User> users) {
+        Map<String, CompanyRepresentative> index = new HashMap<>();
+        if (users == null) return index;
+        for (User user : users) {
+            if (user instanceof CompanyRepresentative && user.getId() != null) {
+                index.putIfAbsent(user.getId(), (CompanyRepresentative) user);
+            }
+        }
+        return index;
+    }
+
+    private static Map<String, Student> indexStudents(List<User> users) {
+        Map<String, Student> index = new HashMap<>();
+        if (users == null) return index;
+        for (User user : users) {
+            if (user instanceof Student && user.getId() != null) {
+                index.putIfAbsent(user.getId(), (Student) user);
+            }
+        }
+        return index;
+    }
+
+    private static Map<String, InternshipOpportunity> indexByTitle(List<InternshipOpportunity> internships) {
+        Map<String, InternshipOpportunity> index = new HashMap<>();
+        if (internships == null) return index;
+        for (InternshipOpportunity opp : internships) {
+            if (opp != null && opp.getTitle() != null) {
+                index.putIfAbsent(opp.getTitle(), opp);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * An internship line parsed without its representative.
+     * Field errors are kept so they can be raised only for lines that link.
+     */
+    static class InternshipRecord {
+        final String repId;
+        final InternshipOpportunity opportunity;
+        RuntimeException error;
+
+        InternshipRecord(String repId, InternshipOpportunity opportunity) {
+            this.repId = repId;
+            this.opportunity = opportunity;
+        }
+    }
+
+    /**
+     * An application line with its references still unresolved.
+     */
+    static class ApplicationRecord {
+        final String studentId;
+        final String internshipTitle;
+        final ApplicationStatus status;
+        final RuntimeException error;
+
+        ApplicationRecord(String studentId, String internshipTitle, ApplicationStatus status, RuntimeException error) {
+            this.studentId = studentId;
+            this.internshipTitle = internshipTitle;
+            this.status = status;
+            this.error = error;
+        }
+    }
+}
@@ -1,8 +1,18 @@
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.ArrayList;
 import java.util.List;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of internship management services.
@@ -10,13 +20,67 @@ import java.time.LocalDate;
  * <p>This class implements the InternshipServiceInterface, providing
  * internship opportunity management with loose coupling.</p>
  * 
+ * <p>Changes are persisted by appending only the changed internship to the
+ * {@link RecordJournal} of data/internships.txt, through a
+ * {@link PersistenceScheduler} that may group them with other changes.</p>
+ * 
+ * <p>Text search is answered by an {@link InternshipSearchIndex} that is
+ * updated whenever an internship is added, saved, approved, rejected or
+ * removed through this controller; ranked search by a
+ * {@link RankedSearchEngine} kept up to date the same way.</p>
+ * 
+ * <p>Filtering, the visible and open listings and the pending-approval
+ * queue run {@link InternshipQuery} filters on an
+ * {@link InternshipQueryEngine}, whose secondary indexes (status, level,
+ * representative, major and others) make them proportional to the result
+ * rather than to all internships. Status and visibility changes are
+ * applied together with the re-indexing, and must therefore go through
+ * this controller (for example {@link #reserveSlot} rather than
+ * {@link InternshipOpportunity#reserveSlot}). Slot changes are the
+ * exception: the internship's own compare-and-set decides them without
+ * the engine's lock, and the internship is re-indexed right after, so that
+ * students accepting offers on the same internship do not queue behind
+ * each other.</p>
+ * 
+ * <p>Just after each midnight the engine's set of internships open today
+ * is rolled over on a background thread, expiring internships that closed
+ * and activating those that opened.</p>
+ * 
+ * <p>The controller is shared by concurrent sessions. Internships are kept
+ * in a copy-on-write list, as they are read far more often than added;
+ * the indexes lock themselves, and the journal bookkeeping is guarded by
+ * its own lock.</p>
+ * 
  * @version 1.0
  */
 public class InternshipController implements InternshipServiceInterface {
-    private List<InternshipOpportunity> opportunities;
+    private static final String DATA_FILE = "data/internships.txt";
+
+    private static final ScheduledExecutorService DAY_ROLLOVER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "internship-day-rollover");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CopyOnWriteArrayList<InternshipOpportunity> opportunities;
+    private final RecordJournal journal = RecordJournal.forInternships(DATA_FILE);
+    // Record ID and last persisted journal key (title and company) of each internship; guarded by itself
+    private final Map<InternshipOpportunity, PersistedRecord> persisted = new IdentityHashMap<>();
+    private int nextRecordId = 1;
+    private PersistenceScheduler scheduler = new PersistenceScheduler();
+    private final InternshipSearchIndex searchIndex = new InternshipSearchIndex();
+    private final RankedSearchEngine rankedSearch = new RankedSearchEngine();
+    private final InternshipQueryEngine queryEngine = new InternshipQueryEngine();
 
     public InternshipController() {
-        this.opportunities = new ArrayList<>();
+        this.opportunities = new CopyOnWriteArrayList<>();
+        scheduleRollover(new WeakReference<>(this));
+    }
+
+    public void setPersistenceScheduler(PersistenceScheduler scheduler) {
+        if (scheduler != null) {
+            this.scheduler = scheduler;
+        }
     }
 
     public boolean create(CareerCenterStaff staff, InternshipOpportunity opp) {
@@ -28,8 +92,11 @@ public class InternshipController implements InternshipServiceInterface {
             return false;
         }
 
-        if (!opportunities.contains(opp)) {
-            opportunities.add(opp);
+        if (opportunities.addIfAbsent(opp)) {
+            track(opp);
+            searchIndex.add(opp);
+            rankedSearch.add(opp);
+            queryEngine.add(opp);
             return true;
         }
 
@@ -41,19 +108,34 @@ public class InternshipController implements InternshipServiceInterface {
             return;
         }
 
-        if (opp.getStatus() == InternshipStatus.PENDING) {
+        // Check and change the status in one step, so concurrent reviews cannot both succeed
+        boolean changed = queryEngine.apply(opp, () -> {
+            if (opp.getStatus() != InternshipStatus.PENDING) {
+                return false;
+            }
             opp.setStatus(InternshipStatus.APPROVED);
+            return true;
+        });
+        if (changed) {
+            searchIndex.update(opp);
             
-            // Persist changes to file
-            try {
-                writeInternshipsToFile("data/internships.txt");
-                SystemLogger.logSystem("INTERNSHIP_APPROVED", "Internship '" + opp.getTitle() + "' approved and saved");
-            } catch (Exception e) {
-                // Log the error
-                SystemLogger.logSystem("ERROR", "Failed to save internships: " + e.getMessage());
-                // If persistence fails, revert the change
-                opp.setStatus(InternshipStatus.PENDING);
-            }
+            // Persist changes to file; a bulk approval commits many of these together
+            persist(opp).whenComplete((done, e) -> {
+                if (e == null) {
+                    SystemLogger.logSystem("INTERNSHIP_APPROVED", "Internship '" + opp.getTitle() + "' approved and saved");
+                } else {
+                    // Log the error
+                    SystemLogger.logSystem("ERROR", "Failed to save internships: " + e.getMessage());
+                    // If persistence fails, revert the change unless it was changed again since
+                    queryEngine.apply(opp, () -> {
+                        if (opp.getStatus() != InternshipStatus.APPROVED) {
+                            return false;
+                        }
+                        opp.setStatus(InternshipStatus.PENDING);
+                        return true;
+                    });
+                }
+            });
         }
     }
 
@@ -62,19 +144,34 @@ public class InternshipController implements InternshipServiceInterface {
             return;
         }
 
-        if (opp.getStatus() == InternshipStatus.PENDING) {
+        // Check and change the status in one step, so concurrent reviews cannot both succeed
+        boolean changed = queryEngine.apply(opp, () -> {
+            if (opp.getStatus() != InternshipStatus.PENDING) {
+                return false;
+            }
             opp.setStatus(InternshipStatus.REJECTED);
+            return true;
+        });
+        if (changed) {
+            searchIndex.update(opp);
             
-            // Persist changes to file
-            try {
-                writeInternshipsToFile("data/internships.txt");
-                SystemLogger.logSystem("INTERNSHIP_REJECTED", "Internship '" + opp.getTitle() + "' rejected and saved");
-            } catch (Exception e) {
-                // Log the error
-                SystemLogger.logSystem("ERROR", "Failed to save internships: " + e.getMessage());
-                // If persistence fails, revert the change
-                opp.setStatus(InternshipStatus.PENDING);
-            }
+            // Persist changes to file; a bulk rejection commits many of these together
+            persist(opp).whenComplete((done, e) -> {
+                if (e == null) {
+                    SystemLogger.logSystem("INTERNSHIP_REJECTED", "Internship '" + opp.getTitle() + "' rejected and saved");
+                } else {
+                    // Log the error
+                    SystemLogger.logSystem("ERROR", "Failed to save internships: " + e.getMessage());
+                    // If persistence fails, revert the change unless it was changed again since
+                    queryEngine.apply(opp, () -> {
+                        if (opp.getStatus() != InternshipStatus.REJECTED) {
+                            return false;
+                        }
+                        opp.setStatus(InternshipStatus.PENDING);
+                        return true;
+                    });
+                }
+            });
         }
     }
 
@@ -82,16 +179,37 @@ public class InternshipController implements InternshipServiceInterface {
         if (opp == null) {
             return;
         }
-        opp.setVisible(!opp.isVisible());
+        queryEngine.apply(opp, () -> {
+            opp.setVisible(!opp.isVisible());
+            return true;
+        });
+        saveInternship(opp);
     }
     
     public void saveInternships() {
         try {
-            writeInternshipsToFile("data/internships.txt");
+            writeInternshipsToFile();
         } catch (Exception e) {
             SystemLogger.logSystem("ERROR", "Failed to save internships: " + e.getMessage());
         }
     }
+    
+    public CompletableFuture<Void> saveInternship(InternshipOpportunity opp) {
+        if (opp == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        searchIndex.update(opp); // Saved after an edit, so its text may have changed
+        rankedSearch.update(opp);
+        queryEngine.update(opp);
+        String title = opp.getTitle();
+        CompletableFuture<Void> saved = persist(opp);
+        saved.whenComplete((done, e) -> {
+            if (e != null) {
+                SystemLogger.logSystem("ERROR", "Failed to save internship '" + title + "': " + e.getMessage());
+            }
+        });
+        return saved;
+    }
 
     public void showInternshipOpportunity(InternshipOpportunity opp) {
         if (opp == null) {
@@ -101,13 +219,27 @@ public class InternshipController implements InternshipServiceInterface {
     }
 
     public Set<InternshipOpportunity> getVisibleOpportunities() {
-        Set<InternshipOpportunity> visible = new HashSet<>();
-        for (InternshipOpportunity opp : opportunities) {
-            if (opp != null && opp.isVisible() && opp.getStatus() == InternshipStatus.APPROVED) {
-                visible.add(opp);
-            }
-        }
-        return visible;
+        return new HashSet<>(query(InternshipQuery.builder()
+            .status(InternshipStatus.APPROVED)
+            .visible(true)
+            .build()));
+    }
+
+    public List<InternshipOpportunity> getPendingOpportunities() {
+        return query(InternshipQuery.builder().status(InternshipStatus.PENDING).build());
+    }
+
+    /**
+     * Keeps live metrics of internship statuses per company current.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(LiveMetrics metrics) {
+        queryEngine.setMetrics(metrics);
+    }
+
+    public Map<InternshipStatus, Integer> countByStatus() {
+        return queryEngine.countByStatus();
     }
 
     public Set<InternshipOpportunity> showAllInternshipOpportunities() {
@@ -140,8 +272,11 @@ public class InternshipController implements InternshipServiceInterface {
         if (!rep.getIsApproved()) return; // only approved reps may add opportunities in backend
         if (rep.countActiveInternships() >= 5) return; // enforce 5 active internships limit
 
-        if (!opportunities.contains(opp)) {
-            opportunities.add(opp);
+        if (opportunities.addIfAbsent(opp)) {
+            track(opp);
+            searchIndex.add(opp);
+            rankedSearch.add(opp);
+            queryEngine.add(opp);
         }
     }
 
@@ -150,13 +285,23 @@ public class InternshipController implements InternshipServiceInterface {
     }
 
     public List<InternshipOpportunity> getOpenOpportunities(LocalDate today) {
-        List<InternshipOpportunity> open = new ArrayList<>();
-        for (InternshipOpportunity opp : opportunities) {
-            if (opp != null && opp.isOpenForApplication(today)) {
-                open.add(opp);
-            }
+        return getOpenOpportunities(today, null);
+    }
+
+    public List<InternshipOpportunity> getOpenOpportunities(LocalDate today, InternshipLevel level) {
+        if (today == null) {
+            return new ArrayList<>();
+        }
+        // Same conditions as InternshipOpportunity.isOpenForApplication
+        InternshipQuery.Builder open = InternshipQuery.builder()
+            .status(InternshipStatus.APPROVED)
+            .visible(true)
+            .openOn(today)
+            .minRemainingSlots(1);
+        if (level != null) {
+            open.level(level);
         }
-        return open;
+        return query(open.build());
     }
 
     public List<InternshipOpportunity> filterByLevel(List<InternshipOpportunity> opps, InternshipLevel level) {
@@ -210,96 +355,218 @@ public class InternshipController implements InternshipServiceInterface {
         
         opportunities.remove(opp);
         rep.removeInternship(opp);
+        searchIndex.remove(opp);
+        rankedSearch.remove(opp);
+        queryEngine.remove(opp);
+        unpersist(opp);
         return true;
     }
 
     public void removeOpportunity(InternshipOpportunity opp) {
-        opportunities.remove(opp);
+        if (opportunities.remove(opp)) {
+            searchIndex.remove(opp);
+            rankedSearch.remove(opp);
+            queryEngine.remove(opp);
+            unpersist(opp);
+        }
     }
 
     public List<InternshipOpportunity> getFilteredOpportunities(Student student) {
         if (student == null) {
             return new ArrayList<>();
         }
+        // Visible, approved, open today, not filled, level and preferred major eligible;
+        // shared by every student of the same year band and major
+        return queryEngine.executeCached(InternshipQuery.eligibleFor(student, LocalDate.now()).build());
+    }
 
-        List<InternshipOpportunity> filtered = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-        
-        for (InternshipOpportunity opp : opportunities) {
-            // Skip null entries
-            if (opp == null) continue;
-            
-            // Check if visible
-            if (!opp.isVisible()) continue;
-            
-            // Status must be approved
-            if (opp.getStatus() != InternshipStatus.APPROVED) continue;
-            
-            // Date must be within range
-            if (opp.getOpenDate() == null || opp.getCloseDate() == null) continue;
-            if (today.isBefore(opp.getOpenDate()) || today.isAfter(opp.getCloseDate())) continue;
-            
-            // Must not be filled
-            if (opp.isFilled()) continue;
-            
-            // Level eligibility (Year 1-2 can only see BASIC)
-            if (!student.canApplyForLevel(opp.getLevel())) continue;
-            
-            // Preferred major filter (if set, only students with matching major can see it)
-            List<String> preferred = opp.getPreferredMajor();
-            if (preferred != null && !preferred.isEmpty() && !preferred.contains(student.getMajor())) {
-                continue;
-            }
+    public List<InternshipOpportunity> query(InternshipQuery query) {
+        return queryEngine.execute(query);
+    }
 
-            filtered.add(opp);
+    public boolean reserveSlot(InternshipOpportunity opp) {
+        if (opp == null || !opp.reserveSlot()) {
+            return false;
         }
-        
-        return filtered;
+        queryEngine.update(opp);
+        return true;
+    }
+
+    public boolean freeSlot(InternshipOpportunity opp) {
+        if (opp == null || !opp.freeSlot()) {
+            return false;
+        }
+        queryEngine.update(opp);
+        return true;
     }
     
     public List<InternshipOpportunity> getOpportunities() {
         return new ArrayList<>(opportunities);
     }
+
+    public List<InternshipOpportunity> searchByCompany(String companyName) {
+        return searchIndex.containing(InternshipSearchIndex.Field.COMPANY, companyName);
+    }
+
+    public List<InternshipOpportunity> searchByTitle(String title) {
+        return searchIndex.containing(InternshipSearchIndex.Field.TITLE, title);
+    }
+
+    public List<InternshipOpportunity> searchByDescription(String text) {
+        return searchIndex.containing(InternshipSearchIndex.Field.DESCRIPTION, text);
+    }
+
+    public List<InternshipOpportunity> searchRanked(String query, int limit) {
+        return rankedSearch.search(query, limit);
+    }
     
-    private void writeInternshipsToFile(String filepath) throws java.io.IOException {
-        if (filepath == null) throw new java.io.IOException("Invalid filepath");
+    /**
+     * Schedules the open set's rollover for just after the next midnight,
+     * computed afresh each day so time zone changes are followed.
+     * 
+     * <p>The shared scheduler holds the controller only weakly, so a
+     * controller nothing else refers to is collected and its rollovers
+     * stop.</p>
+     */
+    private static void scheduleRollover(WeakReference<InternshipController> controller) {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        long delay = Duration.between(now, midnight).toMillis() + 1;
+        DAY_ROLLOVER.schedule(() -> {
+            InternshipController live = controller.get();
+            if (live == null) {
+                return;
+            }
+            try {
+                live.rollover();
+            } finally {
+                scheduleRollover(controller);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
 
-        try (java.io.PrintWriter pw = new java.io.PrintWriter(new java.io.FileWriter(filepath))) {
-            // Write header/comments similar to sample file
-            pw.println("# Internship Data File");
-            pw.println("# Format: ID|TITLE|COMPANY|REP_ID|DESCRIPTION|LEVEL|PREFERRED_MAJOR|TOTAL_SLOTS|FILLED_SLOTS|STATUS|VISIBLE|OPEN_DATE|CLOSE_DATE");
-            pw.println();
+    private void rollover() {
+        try {
+            int changed = queryEngine.rollover();
+            SystemLogger.logSystem("DAY_ROLLOVER", "Internships open on " + LocalDate.now() + ": "
+                + queryEngine.openTodayCount() + " (" + changed + " opened or closed)");
+        } catch (RuntimeException e) {
+            SystemLogger.logSystem("ERROR", "Failed to roll over open internships: " + e.getMessage());
+        }
+    }
 
-            int idCounter = 1;
-            for (InternshipOpportunity opp : opportunities) {
+    /**
+     * Assigns a record ID to a newly added internship. Its current key is
+     * taken as the persisted key, which is true for loaded internships and
+     * harmless for new ones.
+     */
+    private void track(InternshipOpportunity opp) {
+        synchronized (persisted) {
+            PersistedRecord record = new PersistedRecord(String.format("INT%03d", nextRecordId++));
+            record.key = journal.keyOf(formatRecord(record.id, opp));
+            persisted.put(opp, record);
+        }
+    }
+    
+    /**
+     * Journals the current state of one internship.
+     * If its title or company (the record key) changed, the old record is deleted first.
+     */
+    private CompletableFuture<Void> persist(InternshipOpportunity opp) {
+        synchronized (persisted) {
+            PersistedRecord record = persisted.get(opp);
+            if (record == null) {
+                return CompletableFuture.completedFuture(null); // Not managed by this controller
+            }
+            String line = formatRecord(record.id, opp);
+            String key = journal.keyOf(line);
+            if (!record.key.equals(key)) {
+                scheduler.remove(journal, record.key);
+            }
+            record.key = key;
+            return scheduler.put(journal, line);
+        }
+    }
+    
+    private void unpersist(InternshipOpportunity opp) {
+        PersistedRecord record;
+        synchronized (persisted) {
+            record = persisted.remove(opp);
+        }
+        if (record == null) {
+            return;
+        }
+        scheduler.remove(journal, record.key).whenComplete((done, e) -> {
+            if (e != null) {
+                SystemLogger.logSystem("ERROR", "Failed to save internship removal '" + record.key + "': " + e.getMessage());
+            }
+        });
+    }
+    
+    private void writeInternshipsToFile() throws java.io.IOException {
+        // One snapshot of the list is written and then tracked
+        List<InternshipOpportunity> snapshot = new ArrayList<>(opportunities);
+        List<String> records = new ArrayList<>();
+        int idCounter = 1;
+        for (InternshipOpportunity opp : snapshot) {
+            if (opp == null) continue;
+            
+            // Generate ID
+            String id = String.format("INT%03d", idCounter++);
+            records.add(formatRecord(id, opp));
+        }
+        synchronized (persisted) {
+            // Changes still pending are older than this snapshot and must not be appended after it
+            scheduler.flush();
+            journal.writeSnapshot(records);
+            
+            // The snapshot now holds every internship under its current key
+            persisted.clear();
+            idCounter = 1;
+            int row = 0;
+            for (InternshipOpportunity opp : snapshot) {
                 if (opp == null) continue;
-                
-                // Generate ID
-                String id = String.format("INT%03d", idCounter++);
-                
-                // Format preferred majors as comma-separated list
-                String preferredMajor = "";
-                if (opp.getPreferredMajor() != null && !opp.getPreferredMajor().isEmpty()) {
-                    preferredMajor = String.join(",", opp.getPreferredMajor());
-                }
-                
-                pw.printf("%s|%s|%s|%s|%s|%s|%s|%d|%d|%s|%b|%s|%s\n",
-                    id,
-                    opp.getTitle(),
-                    opp.getCompanyName(),
-                    opp.getRepInCharge() != null ? opp.getRepInCharge().getId() : "",
-                    opp.getDescription() != null ? opp.getDescription() : "",
-                    opp.getLevel(),
-                    preferredMajor,
-                    opp.getTotalSlots(),
-                    opp.getFilledSlots(),
-                    opp.getStatus(),
-                    opp.isVisible(),
-                    opp.getOpenDate(),
-                    opp.getCloseDate()
-                );
+                PersistedRecord record = new PersistedRecord(String.format("INT%03d", idCounter++));
+                record.key = journal.keyOf(records.get(row++));
+                persisted.put(opp, record);
             }
+            nextRecordId = Math.max(nextRecordId, idCounter);
+        }
+    }
+    
+    private static String formatRecord(String id, InternshipOpportunity opp) {
+        // Format preferred majors as comma-separated list
+        String preferredMajor = "";
+        if (opp.getPreferredMajor() != null && !opp.getPreferredMajor().isEmpty()) {
+            preferredMajor = String.join(",", opp.getPreferredMajor());
+        }
+        
+        return String.format("%s|%s|%s|%s|%s|%s|%s|%d|%d|%s|%b|%s|%s",
+            id,
+            opp.getTitle(),
+            opp.getCompanyName(),
+            opp.getRepInCharge() != null ? opp.getRepInCharge().getId() : "",
+            opp.getDescription() != null ? opp.getDescription() : "",
+            opp.getLevel(),
+            preferredMajor,
+            opp.getTotalSlots(),
+            opp.getFilledSlots(),
+            opp.getStatus(),
+            opp.isVisible(),
+            opp.getOpenDate(),
+            opp.getCloseDate()
+        );
+    }
+    
+    /**
+     * Record ID and journal key of a persisted internship.
+     */
+    private static class PersistedRecord {
+        final String id;
+        String key;
+        
+        PersistedRecord(String id) {
+            this.id = id;
         }
     }
 }
-
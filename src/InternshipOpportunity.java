@@ -1,6 +1,7 @@
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents an Internship Opportunity in the Internship Placement Management System.
@@ -33,6 +34,10 @@ import java.util.Objects;
  *   <li>Slots freed when post-confirmation withdrawals are approved</li>
  *   <li>Status automatically changes to FILLED when all slots are taken</li>
  *   <li>Status reverts to APPROVED when a slot is freed from FILLED state</li>
+ *   <li>Status, total and filled slots are packed into one atomic word, so
+ *       reserving or freeing a slot and the FILLED transition it causes are
+ *       a single lock-free compare-and-set; concurrent sessions can neither
+ *       lose a slot change nor take more slots than there are</li>
  * </ul>
  * 
  * <p>Visibility Rules:</p>
@@ -52,26 +57,29 @@ import java.util.Objects;
  * @see CompanyRepresentative
  */
 public class InternshipOpportunity {
+    // Status (ordinal + 1, 0 for none), total slots and filled slots, from the high bits down
+    private static final int SLOT_BITS = 24;
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+    private static final int STATUS_SHIFT = 2 * SLOT_BITS;
+    private static final InternshipStatus[] STATUSES = InternshipStatus.values();
+
     private String title;
     private String description;
     private InternshipLevel level;
     private List<String> preferredMajor;
     private LocalDate openDate;
     private LocalDate closeDate;
-    private InternshipStatus status;
     private String companyName;
     private CompanyRepresentative repInCharge;
-    private int totalSlots;
-    private int filledSlots;
-    private boolean visible;
+    private volatile boolean visible;
+    private final AtomicLong slotState = new AtomicLong();
 
     public InternshipOpportunity(String title, String companyName, CompanyRepresentative repInCharge) {
         this.title = title;
         this.companyName = companyName;
         this.repInCharge = repInCharge;
-        this.status = InternshipStatus.PENDING;
+        this.slotState.set(pack(InternshipStatus.PENDING, 0, 0));
         this.visible = true;
-        this.filledSlots = 0;
     }
 
     public String getTitle() {
@@ -123,11 +131,11 @@ public class InternshipOpportunity {
     }
 
     public InternshipStatus getStatus() {
-        return status;
+        return statusOf(slotState.get());
     }
 
     public void setStatus(InternshipStatus status) {
-        this.status = status;
+        slotState.updateAndGet(state -> pack(status, totalOf(state), filledOf(state)));
     }
 
     public String getCompanyName() {
@@ -147,19 +155,19 @@ public class InternshipOpportunity {
     }
 
     public int getTotalSlots() {
-        return totalSlots;
+        return totalOf(slotState.get());
     }
 
     public void setTotalSlots(int totalSlots) {
-        this.totalSlots = totalSlots;
+        slotState.updateAndGet(state -> pack(statusOf(state), totalSlots, filledOf(state)));
     }
 
     public int getFilledSlots() {
-        return filledSlots;
+        return filledOf(slotState.get());
     }
 
     public void setFilledSlots(int filledSlots) {
-        this.filledSlots = filledSlots;
+        slotState.updateAndGet(state -> pack(statusOf(state), totalOf(state), filledSlots));
     }
 
     public boolean isVisible() {
@@ -167,7 +175,7 @@ public class InternshipOpportunity {
     }
 
     public void setVisible(boolean visible) {
-        if (visible && status != InternshipStatus.APPROVED) {
+        if (visible && getStatus() != InternshipStatus.APPROVED) {
             throw new IllegalStateException("Cannot make visible before approval");
         }
         this.visible = visible;
@@ -175,7 +183,8 @@ public class InternshipOpportunity {
 
 
     public boolean isOpenForApplication(LocalDate today) {
-        if (status != InternshipStatus.APPROVED || !visible || today == null) {
+        long state = slotState.get();
+        if (statusOf(state) != InternshipStatus.APPROVED || !visible || today == null) {
             return false;
         }
         if (openDate == null || closeDate == null) {
@@ -183,37 +192,73 @@ public class InternshipOpportunity {
         }
         return !today.isBefore(openDate) && 
                !today.isAfter(closeDate) &&
-               !isFilled();
+               filledOf(state) < totalOf(state);
     }
 
     public boolean isFilled() {
-        return filledSlots >= totalSlots;
+        long state = slotState.get();
+        return filledOf(state) >= totalOf(state);
     }
 
     public int remainingSlots() {
-        return Math.max(0, totalSlots - filledSlots);
+        long state = slotState.get();
+        return Math.max(0, totalOf(state) - filledOf(state));
     }
 
     public boolean reserveSlot() {
-        if (filledSlots < totalSlots) {
-            filledSlots++;
-            if (filledSlots >= totalSlots) {
-                this.status = InternshipStatus.FILLED;
+        long state;
+        long next;
+        do {
+            state = slotState.get();
+            int filled = filledOf(state);
+            int total = totalOf(state);
+            if (filled >= total) {
+                return false;
             }
-            return true;
-        }
-        return false;
+            InternshipStatus status = filled + 1 >= total ? InternshipStatus.FILLED : statusOf(state);
+            next = pack(status, total, filled + 1);
+        } while (!slotState.compareAndSet(state, next));
+        return true;
     }
 
     public boolean freeSlot() {
-        if (filledSlots > 0) {
-            filledSlots--;
+        long state;
+        long next;
+        do {
+            state = slotState.get();
+            int filled = filledOf(state);
+            if (filled <= 0) {
+                return false;
+            }
+            InternshipStatus status = statusOf(state);
             if (status == InternshipStatus.FILLED) {
                 status = InternshipStatus.APPROVED; // space reopened
             }
-            return true;
-        }
-        return false;
+            next = pack(status, totalOf(state), filled - 1);
+        } while (!slotState.compareAndSet(state, next));
+        return true;
+    }
+
+    private static long pack(InternshipStatus status, int total, int filled) {
+        long code = status == null ? 0 : status.ordinal() + 1;
+        return code << STATUS_SHIFT | clamp(total) << SLOT_BITS | clamp(filled);
+    }
+
+    private static long clamp(int slots) {
+        return Math.min(Math.max(slots, 0), SLOT_MASK);
+    }
+
+    private static InternshipStatus statusOf(long state) {
+        int code = (int) (state >>> STATUS_SHIFT);
+        return code == 0 ? null : STATUSES[code - 1];
+    }
+
+    private static int totalOf(long state) {
+        return (int) (state >>> SLOT_BITS & SLOT_MASK);
+    }
+
+    private static int filledOf(long state) {
+        return (int) (state & SLOT_MASK);
     }
 
     @Override
@@ -236,8 +281,8 @@ public class InternshipOpportunity {
                 "title='" + title + '\'' +
                 ", company='" + companyName + '\'' +
                 ", level=" + level +
-                ", status=" + status +
-                ", slots=" + filledSlots + "/" + totalSlots +
+                ", status=" + getStatus() +
+                ", slots=" + getFilledSlots() + "/" + getTotalSlots() +
                 '}';
     }
 }
@@ -0,0 +1,263 @@
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Composite filter over internship opportunities.
+ *
+ * <p>A query combines any of the following criteria with AND; criteria
+ * that are not set match every internship:</p>
+ * <ul>
+ *   <li>status, one of a set</li>
+ *   <li>visibility</li>
+ *   <li>level, one of a set</li>
+ *   <li>major: internships without preferred majors, or preferring the major</li>
+ *   <li>company name, ignoring case</li>
+ *   <li>representative in charge, by ID</li>
+ *   <li>open on a date: the date lies within the application period</li>
+ *   <li>a minimum number of remaining slots</li>
+ * </ul>
+ *
+ * <p>Queries are built with {@link #builder()} or, for what a student may
+ * browse, {@link #eligibleFor(Student, LocalDate)}, and are run by the
+ * {@link InternshipQueryEngine} of the {@link InternshipController}.
+ * Queries are immutable, and equal when their criteria are equal, so
+ * students of the same year band and major build equal eligibility
+ * queries.</p>
+ *
+ * @version 1.0
+ * @see InternshipQueryEngine
+ */
+public class InternshipQuery {
+    private final Set<InternshipStatus> statuses;
+    private final Boolean visible;
+    private final Set<InternshipLevel> levels;
+    private final String major;
+    private final boolean majorSet;
+    private final String company;
+    private final String repId;
+    private final LocalDate openOn;
+    private final int minRemainingSlots;
+
+    private InternshipQuery(Builder builder) {
+        this.statuses = builder.statuses == null ? null : Collections.unmodifiableSet(EnumSet.copyOf(builder.statuses));
+        this.visible = builder.visible;
+        this.levels = builder.levels == null ? null : Collections.unmodifiableSet(EnumSet.copyOf(builder.levels));
+        this.major = builder.major;
+        this.majorSet = builder.majorSet;
+        this.company = builder.company;
+        this.repId = builder.repId;
+        this.openOn = builder.openOn;
+        this.minRemainingSlots = builder.minRemainingSlots;
+    }
+
+    /**
+     * Starts a query that matches every internship.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a query for the internships a student may browse and apply for
+     * on a date: visible, approved, open on the date, not filled, of a level
+     * the student may apply for and without a preferred major other than
+     * the student's.
+     *
+     * @param student the student
+     * @param today the date
+     * @return a builder that further criteria can be added to
+     */
+    public static Builder eligibleFor(Student student, LocalDate today) {
+        Set<InternshipLevel> levels = EnumSet.noneOf(InternshipLevel.class);
+        for (InternshipLevel level : InternshipLevel.values()) {
+            if (student.canApplyForLevel(level)) {
+                levels.add(level);
+            }
+        }
+        return builder()
+            .status(InternshipStatus.APPROVED)
+            .visible(true)
+            .levels(levels)
+            .major(student.getMajor())
+            .openOn(today)
+            .minRemainingSlots(1);
+    }
+
+    /**
+     * Checks every criterion against an internship.
+     *
+     * @param opp the internship
+     * @return true if it matches the query
+     */
+    public boolean matches(InternshipOpportunity opp) {
+        if (opp == null) return false;
+        if (statuses != null && !statuses.contains(opp.getStatus())) return false;
+        if (visible != null && opp.isVisible() != visible) return false;
+        if (levels != null && !levels.contains(opp.getLevel())) return false;
+        if (majorSet) {
+            List<String> preferred = opp.getPreferredMajor();
+            if (preferred != null && !preferred.isEmpty() && !preferred.contains(major)) return false;
+        }
+        if (company != null && (opp.getCompanyName() == null || !opp.getCompanyName().equalsIgnoreCase(company))) {
+            return false;
+        }
+        if (repId != null && (opp.getRepInCharge() == null || !repId.equals(opp.getRepInCharge().getId()))) {
+            return false;
+        }
+        if (openOn != null) {
+            if (opp.getOpenDate() == null || opp.getCloseDate() == null) return false;
+            if (openOn.isBefore(opp.getOpenDate()) || openOn.isAfter(opp.getCloseDate())) return false;
+        }
+        return opp.remainingSlots() >= minRemainingSlots;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InternshipQuery that = (InternshipQuery) o;
+        return majorSet == that.majorSet &&
+               minRemainingSlots == that.minRemainingSlots &&
+               Objects.equals(statuses, that.statuses) &&
+               Objects.equals(visible, that.visible) &&
+               Objects.equals(levels, that.levels) &&
+               Objects.equals(major, that.major) &&
+               Objects.equals(company, that.company) &&
+               Objects.equals(repId, that.repId) &&
+               Objects.equals(openOn, that.openOn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statuses, visible, levels, major, majorSet, company, repId, openOn, minRemainingSlots);
+    }
+
+    /** Statuses to match, or null for any. */
+    Set<InternshipStatus> getStatuses() {
+        return statuses;
+    }
+
+    /** Visibility to match, or null for either. */
+    Boolean getVisible() {
+        return visible;
+    }
+
+    /** Levels to match, or null for any. */
+    Set<InternshipLevel> getLevels() {
+        return levels;
+    }
+
+    boolean hasMajor() {
+        return majorSet;
+    }
+
+    String getMajor() {
+        return major;
+    }
+
+    /** Company name to match, or null for any. */
+    String getCompany() {
+        return company;
+    }
+
+    /** ID of the representative in charge to match, or null for any. */
+    String getRepId() {
+        return repId;
+    }
+
+    /** Date the application period must include, or null for any. */
+    LocalDate getOpenOn() {
+        return openOn;
+    }
+
+    int getMinRemainingSlots() {
+        return minRemainingSlots;
+    }
+
+    /**
+     * Builder of {@link InternshipQuery}. Statuses, levels and the minimum
+     * of remaining slots set more than once are narrowed to what every
+     * setting allows; other criteria are replaced.
+     */
+    public static class Builder {
+        private Set<InternshipStatus> statuses;
+        private Boolean visible;
+        private Set<InternshipLevel> levels;
+        private String major;
+        private boolean majorSet;
+        private String company;
+        private String repId;
+        private LocalDate openOn;
+        private int minRemainingSlots;
+
+        private Builder() {
+        }
+
+        public Builder status(InternshipStatus... allowed) {
+            statuses = narrow(statuses, EnumSet.noneOf(InternshipStatus.class), allowed);
+            return this;
+        }
+
+        public Builder visible(boolean visible) {
+            this.visible = visible;
+            return this;
+        }
+
+        public Builder level(InternshipLevel... allowed) {
+            levels = narrow(levels, EnumSet.noneOf(InternshipLevel.class), allowed);
+            return this;
+        }
+
+        public Builder levels(Collection<InternshipLevel> allowed) {
+            return level(allowed.toArray(new InternshipLevel[0]));
+        }
+
+        public Builder major(String major) {
+            this.major = major;
+            this.majorSet = true;
+            return this;
+        }
+
+        public Builder company(String company) {
+            this.company = company;
+            return this;
+        }
+
+        public Builder representative(CompanyRepresentative rep) {
+            this.repId = rep == null ? null : rep.getId();
+            return this;
+        }
+
+        public Builder openOn(LocalDate date) {
+            this.openOn = date;
+            return this;
+        }
+
+        public Builder minRemainingSlots(int slots) {
+            this.minRemainingSlots = Math.max(this.minRemainingSlots, slots);
+            return this;
+        }
+
+        public InternshipQuery build() {
+            return new InternshipQuery(this);
+        }
+
+        @SafeVarargs
+        private static <E extends Enum<E>> Set<E> narrow(Set<E> current, Set<E> empty, E... allowed) {
+            Set<E> next = empty;
+            for (E value : allowed) {
+                if (value != null && (current == null || current.contains(value))) {
+                    next.add(value);
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,622 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs {@link InternshipQuery} filters against secondary indexes.
+ *
+ * <p>Every internship is indexed by status, visibility, level, company
+ * (ignoring case), representative ID, preferred major, open date, close
+ * date and remaining slots. Each index maps a key to the {@link PostingList} of internships
+ * with that key. An internship has one key per index, except that it is
+ * listed under each of its preferred majors (or under "any major" if it
+ * has none), so the lists one query takes from an index never overlap.</p>
+ *
+ * <p>A query is planned by asking every index it constrains for the lists
+ * of candidate internships and their total size, and scanning only the
+ * smallest such set. Each candidate is checked against the whole query
+ * with {@link InternshipQuery#matches} and added to the result directly,
+ * so no intermediate lists are built. A query without criteria scans
+ * everything.</p>
+ *
+ * <p>Open and close dates are bucketed by day. From them the engine keeps
+ * the set of internships whose application period includes the current
+ * day, so a query for internships open today starts from that set instead
+ * of comparing dates. The set is maintained as internships change and is
+ * rolled forward at each day boundary by {@link #rollover}: internships
+ * whose close date has passed are expired and those whose open date has
+ * arrived are activated, touching only the buckets of the days crossed.
+ * A query that finds the day has changed rolls over first.</p>
+ *
+ * <p>Results of queries that many callers repeat, such as a student
+ * cohort's eligibility, can be cached with {@link #executeCached}; cached
+ * results are updated along with the indexes.</p>
+ *
+ * <p>The indexes are kept current by {@link InternshipController}, which
+ * makes every change to an internship it manages through {@link #apply}:
+ * the change and the re-indexing of all indexes happen under the engine's
+ * lock, so a query never sees an internship filed under stale keys.
+ * Results are in no particular order.</p>
+ *
+ * <p>Every change of an internship's status or company, as seen by the
+ * re-indexing, is also reported to the {@link LiveMetrics}, if set.</p>
+ *
+ * @version 1.0
+ * @see InternshipQuery
+ */
+public class InternshipQueryEngine {
+    // Key for internships without preferred majors, which every major may see
+    private static final String ANY_MAJOR = "\u0000any";
+
+    private final Map<InternshipOpportunity, Integer> ids = new IdentityHashMap<>();
+    private final List<InternshipOpportunity> docs = new ArrayList<>();
+    private final List<Keys> keys = new ArrayList<>();
+
+    private final KeyIndex<InternshipStatus> byStatus = new KeyIndex<>();
+    private final KeyIndex<Boolean> byVisible = new KeyIndex<>();
+    private final KeyIndex<InternshipLevel> byLevel = new KeyIndex<>();
+    private final KeyIndex<String> byCompany = new KeyIndex<>();
+    private final KeyIndex<String> byRep = new KeyIndex<>();
+    private final KeyIndex<String> byMajor = new KeyIndex<>();
+    private final KeyIndex<Integer> byRemaining = new KeyIndex<>(new TreeMap<>());
+    private final KeyIndex<LocalDate> byOpenDate = new KeyIndex<>(new TreeMap<>());
+    private final KeyIndex<LocalDate> byCloseDate = new KeyIndex<>(new TreeMap<>());
+
+    // Cached results of repeated queries, by query, least recently used first
+    static final int MAX_CACHED_QUERIES = 256;
+    private final Map<InternshipQuery, BitSet> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<InternshipQuery, BitSet> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+        }
+    };
+    private long cacheHits;
+    private long cacheMisses;
+
+    private final Clock clock;
+    // Day the open set is for, and the internships open on that day (by ID)
+    private LocalDate today;
+    private final BitSet openToday = new BitSet();
+    private int openTodayCount;
+    private LiveMetrics metrics;
+
+    /**
+     * Constructs an empty engine using the system clock and time zone.
+     */
+    public InternshipQueryEngine() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an empty engine.
+     *
+     * @param clock clock that decides the current day
+     */
+    public InternshipQueryEngine(Clock clock) {
+        this.clock = clock;
+        this.today = LocalDate.now(clock);
+    }
+
+    /**
+     * Reports every status or company change from now on to live metrics,
+     * after counting the internships already indexed.
+     *
+     * @param metrics the metrics to keep current
+     */
+    public synchronized void setMetrics(LiveMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            for (Keys indexed : keys) {
+                if (indexed != null) {
+                    metrics.internshipMoved(null, null, indexed.status, indexed.companyName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes an internship, or re-indexes it if already present.
+     *
+     * @param opp the internship
+     */
+    public synchronized void add(InternshipOpportunity opp) {
+        if (opp == null) return;
+        Integer id = ids.get(opp);
+        if (id == null) {
+            id = docs.size();
+            ids.put(opp, id);
+            docs.add(opp);
+            keys.add(null);
+        }
+        reindex(id, opp);
+    }
+
+    /**
+     * Re-indexes an internship after any of its indexed attributes may have
+     * changed. Only the index entries whose key changed are touched.
+     * Internships that were never added are ignored.
+     *
+     * @param opp the internship
+     */
+    public synchronized void update(InternshipOpportunity opp) {
+        Integer id = opp == null ? null : ids.get(opp);
+        if (id != null) {
+            reindex(id, opp);
+        }
+    }
+
+    /**
+     * Changes an internship and re-indexes it as one transaction.
+     *
+     * @param opp the internship
+     * @param change the change; returns false if it changed nothing
+     * @return the result of the change
+     */
+    public synchronized boolean apply(InternshipOpportunity opp, BooleanSupplier change) {
+        boolean changed = change.getAsBoolean();
+        if (changed) {
+            update(opp);
+        }
+        return changed;
+    }
+
+    /**
+     * Removes an internship from the indexes.
+     *
+     * @param opp the internship
+     */
+    public synchronized void remove(InternshipOpportunity opp) {
+        Integer id = opp == null ? null : ids.remove(opp);
+        if (id == null) return;
+        Keys old = keys.get(id);
+        if (old != null) {
+            old.unindex(this, id);
+            if (metrics != null) {
+                metrics.internshipMoved(old.status, old.companyName, null, null);
+            }
+        }
+        keys.set(id, null);
+        docs.set(id, null);
+        setOpenToday(id, false);
+        for (BitSet matches : cache.values()) {
+            matches.clear(id);
+        }
+    }
+
+    /**
+     * Finds the internships matching a query.
+     *
+     * @param query the query
+     * @return matching internships, in no particular order
+     */
+    public synchronized List<InternshipOpportunity> execute(InternshipQuery query) {
+        catchUp();
+        List<InternshipOpportunity> results = new ArrayList<>();
+        forEachMatch(query, id -> results.add(docs.get(id)));
+        return results;
+    }
+
+    /**
+     * Finds the internships matching a query through the cohort cache.
+     *
+     * <p>Meant for queries that many callers repeat, such as the
+     * eligibility query of a cohort of students with the same major and
+     * year band (see {@link InternshipQuery#eligibleFor}). The first call
+     * runs the query and caches the IDs of the matches; later calls only
+     * read them. Whenever an internship is re-indexed, its membership in
+     * every cached result is re-checked, so cached results are always
+     * exact. The least recently used results are dropped beyond
+     * {@value #MAX_CACHED_QUERIES} queries, as are results for past days at
+     * each rollover.</p>
+     *
+     * @param query the query
+     * @return matching internships, in the order they were added
+     */
+    public synchronized List<InternshipOpportunity> executeCached(InternshipQuery query) {
+        catchUp();
+        BitSet matches = cache.get(query);
+        if (matches == null) {
+            cacheMisses++;
+            BitSet computed = new BitSet(docs.size());
+            forEachMatch(query, computed::set);
+            cache.put(query, computed);
+            matches = computed;
+        } else {
+            cacheHits++;
+        }
+        List<InternshipOpportunity> results = new ArrayList<>(matches.cardinality());
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            results.add(docs.get(id));
+        }
+        return results;
+    }
+
+    /**
+     * Gets how often {@link #executeCached} was answered from the cache.
+     *
+     * @return cache hits and misses, as {@code {hits, misses}}
+     */
+    public synchronized long[] cacheStats() {
+        return new long[] { cacheHits, cacheMisses };
+    }
+
+    private void forEachMatch(InternshipQuery query, IntConsumer action) {
+        Candidates best = choose(query);
+        if (best == null) {
+            for (int id = 0; id < docs.size(); id++) {
+                if (docs.get(id) != null && query.matches(docs.get(id))) action.accept(id);
+            }
+        } else if (best.bits != null) {
+            for (int id = best.bits.nextSetBit(0); id >= 0; id = best.bits.nextSetBit(id + 1)) {
+                if (query.matches(docs.get(id))) action.accept(id);
+            }
+        } else {
+            for (PostingList postings : best.lists) {
+                for (int i = 0; i < postings.size(); i++) {
+                    int id = postings.get(i);
+                    if (query.matches(docs.get(id))) action.accept(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the open set to the clock's current day, expiring internships
+     * that closed and activating those that opened on the days in between.
+     * Called at each midnight; does nothing if the day has not changed.
+     *
+     * @return number of internships expired or activated
+     */
+    public synchronized int rollover() {
+        LocalDate now = LocalDate.now(clock);
+        if (now.equals(today)) {
+            return 0;
+        }
+        int changed = 0;
+        if (now.isAfter(today)) {
+            // Expire those that closed before the new day
+            for (PostingList postings : sorted(byCloseDate).subMap(today, true, now, false).values()) {
+                for (int i = 0; i < postings.size(); i++) {
+                    if (setOpenToday(postings.get(i), false)) changed++;
+                }
+            }
+            // Activate those that opened since, unless they have closed again
+            for (PostingList postings : sorted(byOpenDate).subMap(today, false, now, true).values()) {
+                for (int i = 0; i < postings.size(); i++) {
+                    int id = postings.get(i);
+                    if (keys.get(id).isOpenOn(now) && setOpenToday(id, true)) changed++;
+                }
+            }
+        } else {
+            // The clock went back: rebuild from the open date buckets
+            openToday.clear();
+            openTodayCount = 0;
+            for (PostingList postings : sorted(byOpenDate).headMap(now, true).values()) {
+                for (int i = 0; i < postings.size(); i++) {
+                    int id = postings.get(i);
+                    if (keys.get(id).isOpenOn(now) && setOpenToday(id, true)) changed++;
+                }
+            }
+        }
+        today = now;
+        // Cohort queries are for a date; those for past days will not be asked again
+        cache.keySet().removeIf(query -> query.getOpenOn() != null && query.getOpenOn().isBefore(now));
+        return changed;
+    }
+
+    /**
+     * Gets the number of internships whose application period includes the current day.
+     *
+     * @return size of the open set
+     */
+    public synchronized int openTodayCount() {
+        catchUp();
+        return openTodayCount;
+    }
+
+    /**
+     * Counts the indexed internships of each status, without scanning them.
+     *
+     * @return count per status, including zero counts
+     */
+    public synchronized Map<InternshipStatus, Integer> countByStatus() {
+        Map<InternshipStatus, Integer> counts = new EnumMap<>(InternshipStatus.class);
+        for (InternshipStatus status : InternshipStatus.values()) {
+            PostingList postings = byStatus.map.get(status);
+            counts.put(status, postings == null ? 0 : postings.size());
+        }
+        return counts;
+    }
+
+    /**
+     * Describes which index a query would be answered from, for diagnostics.
+     *
+     * @param query the query
+     * @return the index name and the number of candidates it yields
+     */
+    public synchronized String explain(InternshipQuery query) {
+        catchUp();
+        Candidates best = choose(query);
+        return best == null ? "scan (" + ids.size() + " candidates)" : best.index + " (" + best.size + " candidates)";
+    }
+
+    /**
+     * Gets the number of indexed internships.
+     *
+     * @return indexed internship count
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /** Picks the constrained index that yields the fewest candidates, or null to scan. */
+    private Candidates choose(InternshipQuery query) {
+        List<Candidates> options = new ArrayList<>();
+        if (query.getStatuses() != null) {
+            options.add(byStatus.candidates("status", query.getStatuses()));
+        }
+        if (query.getVisible() != null) {
+            options.add(byVisible.candidates("visible", Set.of(query.getVisible())));
+        }
+        if (query.getLevels() != null) {
+            options.add(byLevel.candidates("level", query.getLevels()));
+        }
+        if (query.getCompany() != null) {
+            options.add(byCompany.candidates("company", Set.of(query.getCompany().toLowerCase())));
+        }
+        if (query.getRepId() != null) {
+            options.add(byRep.candidates("rep", Set.of(query.getRepId())));
+        }
+        if (query.hasMajor()) {
+            // Majors are the one multi-valued key: internships preferring it, plus those open to all
+            Set<String> majors = new HashSet<>();
+            majors.add(ANY_MAJOR);
+            if (query.getMajor() != null) majors.add(query.getMajor());
+            options.add(byMajor.candidates("major", majors));
+        }
+        if (query.getMinRemainingSlots() > 0) {
+            options.add(byRemaining.atLeast("remainingSlots", query.getMinRemainingSlots()));
+        }
+        LocalDate date = query.getOpenOn();
+        if (date != null && date.equals(today)) {
+            options.add(new Candidates("openToday", openToday, openTodayCount));
+        } else if (date != null) {
+            options.add(byOpenDate.atMost("openDate", date));
+            options.add(byCloseDate.atLeast("closeDate", date));
+        }
+
+        Candidates best = null;
+        for (Candidates option : options) {
+            if (best == null || option.size < best.size) best = option;
+        }
+        return best;
+    }
+
+    private void reindex(int id, InternshipOpportunity opp) {
+        Keys old = keys.get(id);
+        Keys next = new Keys(opp);
+        if (old == null) {
+            next.index(this, id);
+        } else {
+            old.diff(next, this, id);
+        }
+        keys.set(id, next);
+        if (metrics != null && (old == null || old.status != next.status || !Objects.equals(old.company, next.company))) {
+            metrics.internshipMoved(old == null ? null : old.status, old == null ? null : old.companyName,
+                                    next.status, next.companyName);
+        }
+        setOpenToday(id, next.isOpenOn(today));
+        for (Map.Entry<InternshipQuery, BitSet> cached : cache.entrySet()) {
+            cached.getValue().set(id, cached.getKey().matches(opp));
+        }
+    }
+
+    /** Adds an internship to or removes it from the open set; returns true if that changed it. */
+    private boolean setOpenToday(int id, boolean open) {
+        if (openToday.get(id) == open) {
+            return false;
+        }
+        openToday.set(id, open);
+        openTodayCount += open ? 1 : -1;
+        return true;
+    }
+
+    /** Rolls over first if a query arrives on a new day before the scheduled rollover. */
+    private void catchUp() {
+        if (!LocalDate.now(clock).equals(today)) {
+            rollover();
+        }
+    }
+
+    private static NavigableMap<LocalDate, PostingList> sorted(KeyIndex<LocalDate> index) {
+        return (NavigableMap<LocalDate, PostingList>) index.map;
+    }
+
+    /**
+     * Candidate lists chosen from one index.
+     */
+    private static class Candidates {
+        final String index;
+        final List<PostingList> lists;
+        final BitSet bits;
+        final int size;
+
+        Candidates(String index, List<PostingList> lists, int size) {
+            this.index = index;
+            this.lists = lists;
+            this.bits = null;
+            this.size = size;
+        }
+
+        Candidates(String index, BitSet bits, int size) {
+            this.index = index;
+            this.lists = null;
+            this.bits = bits;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Map from a key to the internships with that key.
+     */
+    private static class KeyIndex<K> {
+        final Map<K, PostingList> map;
+
+        KeyIndex() {
+            this(new HashMap<>());
+        }
+
+        KeyIndex(Map<K, PostingList> map) {
+            this.map = map;
+        }
+
+        void add(K key, int id) {
+            if (key != null) map.computeIfAbsent(key, k -> new PostingList()).add(id);
+        }
+
+        void remove(K key, int id) {
+            if (key == null) return;
+            PostingList postings = map.get(key);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                map.remove(key);
+            }
+        }
+
+        void move(K from, K to, int id) {
+            if (!Objects.equals(from, to)) {
+                remove(from, id);
+                add(to, id);
+            }
+        }
+
+        Candidates candidates(String name, Set<K> keys) {
+            List<PostingList> lists = new ArrayList<>();
+            int size = 0;
+            for (K key : keys) {
+                PostingList postings = map.get(key);
+                if (postings != null) {
+                    lists.add(postings);
+                    size += postings.size();
+                }
+            }
+            return new Candidates(name, lists, size);
+        }
+
+        /** Candidates with a key of at least {@code key}; the index must be sorted. */
+        Candidates atLeast(String name, K key) {
+            return collect(name, ((NavigableMap<K, PostingList>) map).tailMap(key, true).values());
+        }
+
+        /** Candidates with a key of at most {@code key}; the index must be sorted. */
+        Candidates atMost(String name, K key) {
+            return collect(name, ((NavigableMap<K, PostingList>) map).headMap(key, true).values());
+        }
+
+        private static Candidates collect(String name, Collection<PostingList> values) {
+            List<PostingList> lists = new ArrayList<>(values);
+            int size = 0;
+            for (PostingList postings : lists) size += postings.size();
+            return new Candidates(name, lists, size);
+        }
+    }
+
+    /**
+     * Index keys of one internship, as last indexed.
+     */
+    private static class Keys {
+        final InternshipStatus status;
+        final boolean visible;
+        final InternshipLevel level;
+        final String company;
+        final String companyName;
+        final String repId;
+        final Set<String> majors;
+        final int remaining;
+        final LocalDate openDate;
+        final LocalDate closeDate;
+
+        Keys(InternshipOpportunity opp) {
+            status = opp.getStatus();
+            visible = opp.isVisible();
+            level = opp.getLevel();
+            companyName = opp.getCompanyName();
+            company = companyName == null ? null : companyName.toLowerCase();
+            repId = opp.getRepInCharge() == null ? null : opp.getRepInCharge().getId();
+            List<String> preferred = opp.getPreferredMajor();
+            majors = new HashSet<>();
+            if (preferred == null || preferred.isEmpty()) {
+                majors.add(ANY_MAJOR);
+            } else {
+                for (String major : preferred) {
+                    if (major != null) majors.add(major);
+                }
+            }
+            remaining = opp.remainingSlots();
+            openDate = opp.getOpenDate();
+            closeDate = opp.getCloseDate();
+        }
+
+        boolean isOpenOn(LocalDate day) {
+            return openDate != null && closeDate != null && !day.isBefore(openDate) && !day.isAfter(closeDate);
+        }
+
+        void index(InternshipQueryEngine engine, int id) {
+            engine.byStatus.add(status, id);
+            engine.byVisible.add(visible, id);
+            engine.byLevel.add(level, id);
+            engine.byCompany.add(company, id);
+            engine.byRep.add(repId, id);
+            for (String major : majors) engine.byMajor.add(major, id);
+            engine.byRemaining.add(remaining, id);
+            engine.byOpenDate.add(openDate, id);
+            engine.byCloseDate.add(closeDate, id);
+        }
+
+        void unindex(InternshipQueryEngine engine, int id) {
+            engine.byStatus.remove(status, id);
+            engine.byVisible.remove(visible, id);
+            engine.byLevel.remove(level, id);
+            engine.byCompany.remove(company, id);
+            engine.byRep.remove(repId, id);
+            for (String major : majors) engine.byMajor.remove(major, id);
+            engine.byRemaining.remove(remaining, id);
+            engine.byOpenDate.remove(openDate, id);
+            engine.byCloseDate.remove(closeDate, id);
+        }
+
+        /** Moves the entries whose key differs in {@code next}. */
+        void diff(Keys next, InternshipQueryEngine engine, int id) {
+            engine.byStatus.move(status, next.status, id);
+            engine.byVisible.move(visible, next.visible, id);
+            engine.byLevel.move(level, next.level, id);
+            engine.byCompany.move(company, next.company, id);
+            engine.byRep.move(repId, next.repId, id);
+            if (!majors.equals(next.majors)) {
+                for (String major : majors) {
+                    if (!next.majors.contains(major)) engine.byMajor.remove(major, id);
+                }
+                for (String major : next.majors) {
+                    if (!majors.contains(major)) engine.byMajor.add(major, id);
+                }
+            }
+            engine.byRemaining.move(remaining, next.remaining, id);
+            engine.byOpenDate.move(openDate, next.openDate, id);
+            engine.byCloseDate.move(closeDate, next.closeDate, id);
+        }
+    }
+}
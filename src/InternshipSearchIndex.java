@@ -0,0 +1,290 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over the text fields of internship opportunities.
+ *
+ * <p>For each of the title, company and description the index keeps</p>
+ * <ul>
+ *   <li>n-gram postings: every substring of one to three characters of
+ *       the lower-cased field, mapped to the documents containing it, and</li>
+ *   <li>token postings in a sorted map, for word-prefix queries.</li>
+ * </ul>
+ *
+ * <p>A substring query of up to three characters is answered by a single
+ * posting list. Longer queries intersect the postings of their trigrams,
+ * starting with the shortest, and check only the surviving candidates
+ * with {@code contains}, so results are exactly those of a
+ * case-insensitive linear scan (see {@link SearchUtil}).</p>
+ *
+ * <p>Opportunities are added, re-indexed and removed incrementally by
+ * {@link InternshipController}; a re-index only touches the n-grams and
+ * tokens whose presence changed. Results are returned in the order the
+ * opportunities were added.</p>
+ *
+ * @version 1.0
+ * @see InternshipController
+ */
+public class InternshipSearchIndex {
+    /**
+     * Indexed text fields.
+     */
+    public enum Field {
+        TITLE, COMPANY, DESCRIPTION
+    }
+
+    private static final int MAX_GRAM = 3;
+
+    private final Map<InternshipOpportunity, Integer> ids = new IdentityHashMap<>();
+    private final List<InternshipOpportunity> docs = new ArrayList<>();
+    private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+
+    /**
+     * Constructs an empty index.
+     */
+    public InternshipSearchIndex() {
+        for (Field field : Field.values()) {
+            fields.put(field, new FieldIndex());
+        }
+    }
+
+    /**
+     * Indexes an opportunity, or re-indexes it if already present.
+     *
+     * @param opp the opportunity
+     */
+    public synchronized void add(InternshipOpportunity opp) {
+        if (opp == null) return;
+        Integer id = ids.get(opp);
+        if (id == null) {
+            id = docs.size();
+            ids.put(opp, id);
+            docs.add(opp);
+        }
+        index(id, opp);
+    }
+
+    /**
+     * Re-indexes an opportunity after its text fields may have changed.
+     * Opportunities that were never added are ignored.
+     *
+     * @param opp the opportunity
+     */
+    public synchronized void update(InternshipOpportunity opp) {
+        Integer id = opp == null ? null : ids.get(opp);
+        if (id != null) {
+            index(id, opp);
+        }
+    }
+
+    /**
+     * Removes an opportunity from the index.
+     *
+     * @param opp the opportunity
+     */
+    public synchronized void remove(InternshipOpportunity opp) {
+        Integer id = opp == null ? null : ids.remove(opp);
+        if (id == null) return;
+        for (FieldIndex field : fields.values()) {
+            field.set(id, "");
+        }
+        docs.set(id, null);
+    }
+
+    /**
+     * Finds opportunities whose field contains the text, ignoring case.
+     *
+     * @param field the field to search
+     * @param text the text to look for
+     * @return matching opportunities, in the order they were added
+     */
+    public synchronized List<InternshipOpportunity> containing(Field field, String text) {
+        String query = text.toLowerCase();
+        FieldIndex index = fields.get(field);
+        List<InternshipOpportunity> results = new ArrayList<>();
+
+        if (query.isEmpty()) {
+            for (InternshipOpportunity opp : docs) {
+                if (opp != null) results.add(opp);
+            }
+            return results;
+        }
+        if (query.length() <= MAX_GRAM) {
+            // Every substring this short is itself indexed, so the postings are exact
+            PostingList postings = index.grams.get(gram(query, 0, query.length()));
+            if (postings != null) {
+                for (int i = 0; i < postings.size(); i++) {
+                    results.add(docs.get(postings.get(i)));
+                }
+            }
+            return results;
+        }
+
+        // Intersect trigram postings, shortest first, then verify the candidates
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= query.length(); i++) {
+            PostingList postings = index.grams.get(gram(query, i, MAX_GRAM));
+            if (postings == null) {
+                return results;
+            }
+            lists.add(postings);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        PostingList shortest = lists.get(0);
+        candidates:
+        for (int i = 0; i < shortest.size(); i++) {
+            int id = shortest.get(i);
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) continue candidates;
+            }
+            if (index.text.get(id).contains(query)) {
+                results.add(docs.get(id));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Finds opportunities with a word in the field that starts with the prefix, ignoring case.
+     *
+     * @param field the field to search
+     * @param prefix the start of a word
+     * @return matching opportunities, in the order they were added
+     */
+    public synchronized List<InternshipOpportunity> withWordPrefix(Field field, String prefix) {
+        String query = prefix.toLowerCase().trim();
+        List<InternshipOpportunity> results = new ArrayList<>();
+        if (query.isEmpty()) {
+            return results;
+        }
+        BitSet matches = new BitSet(docs.size());
+        for (PostingList postings : fields.get(field).tokens.subMap(query, true, query + Character.MAX_VALUE, true).values()) {
+            for (int i = 0; i < postings.size(); i++) {
+                matches.set(postings.get(i));
+            }
+        }
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            results.add(docs.get(id));
+        }
+        return results;
+    }
+
+    /**
+     * Gets the number of indexed opportunities.
+     *
+     * @return indexed opportunity count
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * Gets the total number of n-gram and token postings, a measure of index size.
+     *
+     * @return posting count over all fields
+     */
+    public synchronized long postingCount() {
+        long count = 0;
+        for (FieldIndex field : fields.values()) {
+            for (PostingList postings : field.grams.values()) count += postings.size();
+            for (PostingList postings : field.tokens.values()) count += postings.size();
+        }
+        return count;
+    }
+
+    private void index(int id, InternshipOpportunity opp) {
+        fields.get(Field.TITLE).set(id, lower(opp.getTitle()));
+        fields.get(Field.COMPANY).set(id, lower(opp.getCompanyName()));
+        fields.get(Field.DESCRIPTION).set(id, lower(opp.getDescription()));
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    /** Packs a substring of up to three characters into a key. */
+    private static long gram(String text, int from, int length) {
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            key = (key << 16) | text.charAt(from + i);
+        }
+        return key;
+    }
+
+    /**
+     * Postings and stored lower-cased text of one field.
+     */
+    private static class FieldIndex {
+        final Map<Long, PostingList> grams = new HashMap<>();
+        final TreeMap<String, PostingList> tokens = new TreeMap<>();
+        final List<String> text = new ArrayList<>();
+
+        /** Replaces the text of a document, updating only the postings that change. */
+        void set(int id, String value) {
+            while (text.size() <= id) text.add("");
+            String old = text.get(id);
+            if (old.equals(value)) {
+                return;
+            }
+            text.set(id, value);
+
+            Set<Long> oldGrams = grams(old);
+            Set<Long> newGrams = grams(value);
+            for (Long key : oldGrams) {
+                if (!newGrams.contains(key)) removePosting(grams, key, id);
+            }
+            for (Long key : newGrams) {
+                if (!oldGrams.contains(key)) grams.computeIfAbsent(key, k -> new PostingList()).add(id);
+            }
+
+            Set<String> oldTokens = tokens(old);
+            Set<String> newTokens = tokens(value);
+            for (String token : oldTokens) {
+                if (!newTokens.contains(token)) removePosting(tokens, token, id);
+            }
+            for (String token : newTokens) {
+                if (!oldTokens.contains(token)) tokens.computeIfAbsent(token, k -> new PostingList()).add(id);
+            }
+        }
+
+        private static <K> void removePosting(Map<K, PostingList> map, K key, int id) {
+            PostingList postings = map.get(key);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                map.remove(key);
+            }
+        }
+
+        private static Set<Long> grams(String value) {
+            Set<Long> keys = new HashSet<>();
+            for (int i = 0; i < value.length(); i++) {
+                for (int length = 1; length <= MAX_GRAM && i + length <= value.length(); length++) {
+                    keys.add(gram(value, i, length));
+                }
+            }
+            return keys;
+        }
+
+        private static Set<String> tokens(String value) {
+            Set<String> tokens = new HashSet<>();
+            int start = -1;
+            for (int i = 0; i <= value.length(); i++) {
+                boolean wordChar = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    tokens.add(value.substring(start, i));
+                    start = -1;
+                }
+            }
+            return tokens;
+        }
+    }
+}
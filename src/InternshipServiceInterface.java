@@ -1,6 +1,8 @@
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for internship management services.
@@ -45,7 +47,7 @@ public interface InternshipServiceInterface {
     void reject(CareerCenterStaff staff, InternshipOpportunity app);
     
     /**
-     * Toggles the visibility of an internship opportunity.
+     * Toggles the visibility of an internship opportunity and saves it.
      * 
      * @param opp the internship to toggle
      * @throws IllegalStateException if internship is not approved
@@ -53,10 +55,22 @@ public interface InternshipServiceInterface {
     void toggleVisibility(InternshipOpportunity opp);
     
     /**
-     * Saves all internships to persistent storage.
+     * Saves all internships to persistent storage as a full snapshot.
      */
     void saveInternships();
     
+    /**
+     * Saves the current state of one internship to persistent storage.
+     * 
+     * <p>Only the given internship is written, so the cost does not
+     * depend on the total number of internships. The write may be grouped
+     * with other changes; failures are also logged.</p>
+     * 
+     * @param opp the internship that changed
+     * @return future completed once the change is on disk
+     */
+    CompletableFuture<Void> saveInternship(InternshipOpportunity opp);
+    
     /**
      * Displays details of an internship opportunity.
      * 
@@ -71,6 +85,20 @@ public interface InternshipServiceInterface {
      */
     Set<InternshipOpportunity> getVisibleOpportunities();
     
+    /**
+     * Gets the internships awaiting staff approval.
+     * 
+     * @return pending internships, in no particular order
+     */
+    List<InternshipOpportunity> getPendingOpportunities();
+    
+    /**
+     * Counts the internships of each status.
+     * 
+     * @return count per status, including zero counts
+     */
+    Map<InternshipStatus, Integer> countByStatus();
+    
     /**
      * Gets and displays all internship opportunities.
      * 
@@ -100,6 +128,15 @@ public interface InternshipServiceInterface {
      */
     List<InternshipOpportunity> getOpenOpportunities(LocalDate today);
     
+    /**
+     * Gets internships of a level open for application on a given date.
+     * 
+     * @param today the date to check
+     * @param level the level, or null for any
+     * @return list of open internships
+     */
+    List<InternshipOpportunity> getOpenOpportunities(LocalDate today, InternshipLevel level);
+    
     /**
      * Filters internships by level.
      * 
@@ -127,7 +164,7 @@ public interface InternshipServiceInterface {
     List<InternshipOpportunity> filterVisible(List<InternshipOpportunity> opps);
     
     /**
-     * Deletes a pending internship opportunity.
+     * Deletes a pending internship opportunity and removes it from storage.
      * 
      * @param rep the representative deleting
      * @param opp the internship to delete
@@ -153,11 +190,70 @@ public interface InternshipServiceInterface {
      */
     List<InternshipOpportunity> getFilteredOpportunities(Student student);
     
+    /**
+     * Finds the internships matching a composite filter, answered from
+     * secondary indexes.
+     * 
+     * @param query the filter
+     * @return matching internships, in no particular order
+     */
+    List<InternshipOpportunity> query(InternshipQuery query);
+    
+    /**
+     * Reserves a slot on an internship, marking it FILLED when the last
+     * slot is taken.
+     * 
+     * @param opp the internship
+     * @return true if a slot was available and reserved
+     */
+    boolean reserveSlot(InternshipOpportunity opp);
+    
+    /**
+     * Frees a reserved slot on an internship, reopening it if it was FILLED.
+     * 
+     * @param opp the internship
+     * @return true if a slot was freed
+     */
+    boolean freeSlot(InternshipOpportunity opp);
+    
     /**
      * Gets all internship opportunities in the system.
      * 
      * @return list of all internships
      */
     List<InternshipOpportunity> getOpportunities();
+    
+    /**
+     * Searches internships by company name (case-insensitive partial match).
+     * 
+     * @param companyName the text to look for in the company name
+     * @return matching internships, in the order they were added
+     */
+    List<InternshipOpportunity> searchByCompany(String companyName);
+    
+    /**
+     * Searches internships by title (case-insensitive partial match).
+     * 
+     * @param title the text to look for in the title
+     * @return matching internships, in the order they were added
+     */
+    List<InternshipOpportunity> searchByTitle(String title);
+    
+    /**
+     * Searches internships by description (case-insensitive partial match).
+     * 
+     * @param text the text to look for in the description
+     * @return matching internships, in the order they were added
+     */
+    List<InternshipOpportunity> searchByDescription(String text);
+    
+    /**
+     * Searches title, company, description and preferred majors for the
+     * query words, tolerating small spelling mistakes.
+     * 
+     * @param query free text
+     * @param limit maximum number of results
+     * @return the best matching internships, best first
+     */
+    List<InternshipOpportunity> searchRanked(String query, int limit);
 }
-
@@ -0,0 +1,292 @@
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters behind the statistics screens and staff reports, kept current
+ * as the data changes instead of recounted on every read.
+ *
+ * <p>The metrics count</p>
+ * <ul>
+ *   <li>users of each role, and representatives awaiting approval;</li>
+ *   <li>internships of each status, overall and per company;</li>
+ *   <li>applications of each status, per internship and per company;</li>
+ *   <li>accepted applications per student major.</li>
+ * </ul>
+ *
+ * <p>Each count is moved by whatever owns the state it counts: the
+ * {@link UserDirectory} for users, {@link RegistrationController} for
+ * representative approval, the {@link InternshipQueryEngine} whenever it
+ * re-indexes an internship, and the {@link ApplicationRepository} whenever
+ * an application is added, removed or changes status. Each owner reports
+ * moves under its own lock, from the state it last recorded to the
+ * current one, so the counts follow the same sequence of changes as the
+ * data. Attaching the metrics to an owner counts what it already
+ * holds.</p>
+ *
+ * <p>Reads take no lock, or only the lock of one small map, and cost the
+ * same however many users, internships and applications there are.
+ * Counts read while a change is being made may be off by that change.</p>
+ *
+ * @version 1.0
+ */
+public class LiveMetrics {
+    private final AtomicInteger students = new AtomicInteger();
+    private final AtomicInteger representatives = new AtomicInteger();
+    private final AtomicInteger staff = new AtomicInteger();
+    private final AtomicInteger pendingRepresentatives = new AtomicInteger();
+    // Approval of each representative as last counted, by user ID
+    private final Map<String, Boolean> approvals = new ConcurrentHashMap<>();
+
+    private final Map<InternshipStatus, AtomicInteger> internships = counters(InternshipStatus.class);
+    private final Map<ApplicationStatus, AtomicInteger> applications = counters(ApplicationStatus.class);
+    private final Map<String, AtomicInteger> placementsByMajor = new ConcurrentHashMap<>();
+    private final Map<String, CompanyCounts> companies = new ConcurrentHashMap<>();
+    // Titles can be edited, so postings are counted by identity
+    private final Map<InternshipOpportunity, AtomicInteger> perPosting =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    // ---- Moves, reported by the owners of the data ----
+
+    /**
+     * Counts a user added to the directory.
+     *
+     * @param user the user
+     */
+    public void userAdded(User user) {
+        if (user instanceof Student) {
+            students.incrementAndGet();
+        } else if (user instanceof CompanyRepresentative) {
+            representatives.incrementAndGet();
+            CompanyRepresentative rep = (CompanyRepresentative) user;
+            approvals.compute(rep.getId(), (id, was) -> {
+                boolean approved = rep.getIsApproved();
+                if (!approved) pendingRepresentatives.incrementAndGet();
+                return approved;
+            });
+        } else if (user instanceof CareerCenterStaff) {
+            staff.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops counting a user removed from the directory.
+     *
+     * @param user the user
+     */
+    public void userRemoved(User user) {
+        if (user instanceof Student) {
+            students.decrementAndGet();
+        } else if (user instanceof CompanyRepresentative) {
+            representatives.decrementAndGet();
+            Boolean was = approvals.remove(user.getId());
+            if (Boolean.FALSE.equals(was)) pendingRepresentatives.decrementAndGet();
+        } else if (user instanceof CareerCenterStaff) {
+            staff.decrementAndGet();
+        }
+    }
+
+    /**
+     * Recounts a representative whose approval may have changed.
+     * Representatives not in the directory are ignored.
+     *
+     * @param rep the representative
+     */
+    public void representativeChanged(CompanyRepresentative rep) {
+        approvals.computeIfPresent(rep.getId(), (id, was) -> {
+            // Re-read, so concurrent changes settle on the latest approval
+            boolean approved = rep.getIsApproved();
+            if (was != approved) {
+                pendingRepresentatives.addAndGet(approved ? -1 : 1);
+            }
+            return approved;
+        });
+    }
+
+    /**
+     * Moves an internship between statuses and companies. A null status
+     * stands for an internship that was not indexed before, or is no
+     * longer.
+     *
+     * @param fromStatus status as last indexed, or null
+     * @param fromCompany company as last indexed
+     * @param toStatus status now, or null
+     * @param toCompany company now
+     */
+    public void internshipMoved(InternshipStatus fromStatus, String fromCompany,
+                                InternshipStatus toStatus, String toCompany) {
+        if (fromStatus != null) {
+            internships.get(fromStatus).decrementAndGet();
+            company(fromCompany).internships.get(fromStatus).decrementAndGet();
+        }
+        if (toStatus != null) {
+            internships.get(toStatus).incrementAndGet();
+            company(toCompany).internships.get(toStatus).incrementAndGet();
+        }
+    }
+
+    /**
+     * Moves an application between statuses. A null status stands for an
+     * application that was not stored before, or is no longer.
+     *
+     * @param app the application
+     * @param from status as last indexed, or null
+     * @param to status now, or null
+     */
+    public void applicationMoved(Application app, ApplicationStatus from, ApplicationStatus to) {
+        if (from == to) return;
+        if (from != null) {
+            applications.get(from).decrementAndGet();
+            if (from == ApplicationStatus.ACCEPTED) placement(app).decrementAndGet();
+        }
+        if (to != null) {
+            applications.get(to).incrementAndGet();
+            if (to == ApplicationStatus.ACCEPTED) placement(app).incrementAndGet();
+        }
+        if (from == null || to == null) {
+            int delta = to != null ? 1 : -1;
+            InternshipOpportunity opp = app.getOpportunity();
+            company(opp.getCompanyName()).applications.addAndGet(delta);
+            perPosting.computeIfAbsent(opp, k -> new AtomicInteger()).addAndGet(delta);
+        }
+    }
+
+    // ---- Reads ----
+
+    public int getStudents() {
+        return students.get();
+    }
+
+    public int getRepresentatives() {
+        return representatives.get();
+    }
+
+    public int getStaff() {
+        return staff.get();
+    }
+
+    public int getPendingRepresentatives() {
+        return pendingRepresentatives.get();
+    }
+
+    /**
+     * Number of internships with a status.
+     *
+     * @param status the status
+     * @return the count
+     */
+    public int countInternships(InternshipStatus status) {
+        return internships.get(status).get();
+    }
+
+    /**
+     * Number of applications with a status.
+     *
+     * @param status the status
+     * @return the count
+     */
+    public int countApplications(ApplicationStatus status) {
+        return applications.get(status).get();
+    }
+
+    /**
+     * Number of applications of any status.
+     *
+     * @return the count
+     */
+    public int countApplications() {
+        int total = 0;
+        for (AtomicInteger count : applications.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    /**
+     * Number of applications to one internship.
+     *
+     * @param opp the internship
+     * @return the count
+     */
+    public int countApplicationsFor(InternshipOpportunity opp) {
+        AtomicInteger count = perPosting.get(opp);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Accepted applications per student major, for majors with any.
+     *
+     * @return count per major, sorted by major
+     */
+    public Map<String, Integer> getPlacementsByMajor() {
+        Map<String, Integer> counts = new TreeMap<>();
+        placementsByMajor.forEach((major, count) -> {
+            if (count.get() > 0) counts.put(major, count.get());
+        });
+        return counts;
+    }
+
+    /**
+     * Internships of each status and applications received, per company.
+     * Companies are matched ignoring case and named as last seen.
+     *
+     * @return counts per company, sorted by name
+     */
+    public Map<String, CompanyCounts> getCompanies() {
+        Map<String, CompanyCounts> counts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        companies.forEach((key, company) -> {
+            if (company.isActive()) counts.put(company.name, company);
+        });
+        return counts;
+    }
+
+    private CompanyCounts company(String name) {
+        String shown = name == null ? "(none)" : name;
+        CompanyCounts company = companies.computeIfAbsent(shown.toLowerCase(), k -> new CompanyCounts());
+        company.name = shown;
+        return company;
+    }
+
+    private AtomicInteger placement(Application app) {
+        Student student = app.getStudent();
+        String major = student == null || student.getMajor() == null ? "(none)" : student.getMajor();
+        return placementsByMajor.computeIfAbsent(major, k -> new AtomicInteger());
+    }
+
+    private static <E extends Enum<E>> Map<E, AtomicInteger> counters(Class<E> type) {
+        Map<E, AtomicInteger> counts = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            counts.put(key, new AtomicInteger());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts for one company.
+     */
+    public static class CompanyCounts {
+        private final Map<InternshipStatus, AtomicInteger> internships = counters(InternshipStatus.class);
+        private final AtomicInteger applications = new AtomicInteger();
+        private volatile String name;
+
+        public int countInternships(InternshipStatus status) {
+            return internships.get(status).get();
+        }
+
+        public int countApplications() {
+            return applications.get();
+        }
+
+        private boolean isActive() {
+            if (applications.get() > 0) return true;
+            for (AtomicInteger count : internships.values()) {
+                if (count.get() > 0) return true;
+            }
+            return false;
+        }
+    }
+}
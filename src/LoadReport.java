@@ -0,0 +1,64 @@
+/**
+ * Summary of a single data file load.
+ *
+ * <p>Records how many rows were turned into entities, how many rows were
+ * skipped (malformed lines or references to unknown users/internships)
+ * and how long the file took to load. Comment and blank lines are not
+ * counted as rows.</p>
+ *
+ * @version 1.0
+ * @see DataAccessInterface#getLoadReports()
+ */
+public class LoadReport {
+    private final String filepath;
+    private int rowsParsed;
+    private int rowsSkipped;
+    private long elapsedNanos;
+
+    /**
+     * Constructs an empty report for the given data file.
+     *
+     * @param filepath the file being loaded
+     */
+    public LoadReport(String filepath) {
+        this.filepath = filepath;
+    }
+
+    public String getFilepath() {
+        return filepath;
+    }
+
+    public int getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public int getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    void rowParsed() {
+        rowsParsed++;
+    }
+
+    void rowSkipped() {
+        rowsSkipped++;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d parsed, %d skipped in %.1f ms",
+            filepath, rowsParsed, rowsSkipped, getElapsedMillis());
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Each slot carries a sequence number that tells producers whether it
+ * is free for the current lap and tells the consumer whether it has been
+ * published. Producers claim a position with one compare-and-set on the
+ * tail; the consumer never contends with them. {@link #offer} fails
+ * instead of waiting when the queue is full, leaving the overflow policy
+ * to the caller.</p>
+ *
+ * @param <E> element type
+ * @version 1.0
+ * @see SystemLogger
+ */
+class LogRingBuffer<E> {
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Constructs a ring buffer.
+     *
+     * @param capacity minimum capacity; rounded up to a power of two
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room. Safe to call from any thread.
+     *
+     * @param item the element
+     * @return false if the buffer is full
+     */
+    boolean offer(E item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = item;
+                    sequences.lazySet(index, position + 1); // Publish to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false; // Slot still holds the previous lap's element
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest published element. Must only be called from the consumer thread.
+     *
+     * @return the element, or null if none is available
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E item = (E) items[index];
+        items[index] = null;
+        sequences.lazySet(index, position + items.length); // Free the slot for the next lap
+        head = position + 1;
+        return item;
+    }
+
+    /**
+     * Gets the approximate number of queued elements.
+     *
+     * @return claimed but not yet consumed positions
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return items.length;
+    }
+}
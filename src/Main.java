@@ -29,11 +29,59 @@ public class Main {
      * event loop for user interactions. The application will load
      * data from text files and present the login menu.</p>
      * 
-     * @param args command line arguments (not used in this implementation)
+     * <p>Passing {@code --parallel-load} selects the {@link ParallelDataManager},
+     * which parses the data files on a fork-join pool.</p>
+     * 
+     * <p>Passing {@code --serve PORT} starts a {@link SessionServer} on
+     * localhost instead of the console menu, serving a separate session
+     * to each connection.</p>
+     * 
+     * @param args command line arguments (optional {@code --parallel-load},
+     *             {@code --serve PORT})
      */
     public static void main(String[] args) {
-        CLI cli = new CLI();
-        cli.run();
+        DataAccessInterface dataAccess = new DataManager();
+        int servePort = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--parallel-load")) {
+                dataAccess = new ParallelDataManager();
+            } else if (args[i].equals("--serve")) {
+                servePort = parsePort(i + 1 < args.length ? args[++i] : null);
+            }
+        }
+        CLI cli = new CLI(dataAccess);
+        if (servePort >= 0) {
+            try {
+                new SessionServer(cli, servePort, SessionServer.DEFAULT_MAX_SESSIONS).serve();
+            } catch (java.io.IOException e) {
+                System.err.println("Error: Cannot serve on port " + servePort + ": " + e.getMessage());
+            }
+        } else {
+            cli.run();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Parses the port given to {@code --serve}, exiting with a usage
+     * message if it is missing or not a port number.
+     */
+    private static int parsePort(String value) {
+        int port = -1;
+        if (value != null) {
+            try {
+                port = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                port = -1;
+            }
+        }
+        if (port < 0 || port > 65535) {
+            System.err.println("Error: --serve needs a port from 0 to 65535"
+                + (value == null ? "" : ", got '" + value + "'"));
+            System.err.println("Usage: java Main [--parallel-load] [--serve PORT]");
+            System.exit(2);
+        }
+        return port;
     }
 
     /**
@@ -56,16 +104,24 @@ public class Main {
      * <p>Session Management:</p>
      * The CLI maintains filter persistence across menu switches,
      * allowing users to save and reuse their filter preferences
-     * within a single session.
+     * within a single session. Each CLI is one session; the
+     * {@link SessionServer} creates one per connection with
+     * {@link #newSession(Scanner)}, sharing the controllers.
      */
     static class CLI {
+        // Results shown by the ranked search
+        private static final int RANKED_SEARCH_LIMIT = 10;
+
         private Scanner scanner;
         private AuthServiceInterface authService;
         private ApplicationServiceInterface applicationService;
         private InternshipServiceInterface internshipService;
         private RegistrationServiceInterface registrationService;
         private DataAccessInterface dataAccess;
+        private LiveMetrics metrics;
+        private ReportEngine reportEngine;
         private User currentUser;
+        private boolean exited;
 
         // Filter persistence for user session
         private InternshipLevel lastFilterLevel = null;
@@ -78,7 +134,7 @@ public class Main {
          * <ol>
          *   <li>Creates Scanner for user input</li>
          *   <li>Initializes all controllers (Auth, Application, Internship, Registration)</li>
-         *   <li>Creates DataManager for file I/O operations</li>
+         *   <li>Uses DataManager for file I/O operations</li>
          *   <li>Loads user data from users.txt</li>
          *   <li>Loads internship data from internships.txt</li>
          *   <li>Loads application data from applications.txt</li>
@@ -88,17 +144,74 @@ public class Main {
          * with empty data and display a warning message to the user.</p>
          */
         public CLI() {
+            this(new DataManager());
+        }
+
+        /**
+         * Constructs a session over the controllers of another CLI.
+         */
+        private CLI(CLI shared, Scanner scanner) {
+            this.scanner = scanner;
+            this.authService = shared.authService;
+            this.applicationService = shared.applicationService;
+            this.internshipService = shared.internshipService;
+            this.registrationService = shared.registrationService;
+            this.dataAccess = shared.dataAccess;
+            this.metrics = shared.metrics;
+            this.reportEngine = shared.reportEngine;
+        }
+
+        /**
+         * Starts another session that shares this CLI's controllers and
+         * data, with its own input, current user and filter preferences.
+         * 
+         * @param scanner the session's input
+         * @return the new session, ready to {@link #run()}
+         */
+        CLI newSession(Scanner scanner) {
+            return new CLI(this, scanner);
+        }
+
+        /**
+         * Constructs the CLI with the given data access implementation.
+         * 
+         * @param dataAccess the loader used to read the data files
+         */
+        public CLI(DataAccessInterface dataAccess) {
             this.scanner = new Scanner(System.in);
             // Dependency Injection: Inject concrete implementations
             this.authService = new AuthController();
             this.applicationService = new ApplicationController();
             this.internshipService = new InternshipController();
             this.registrationService = new RegistrationController();
-            this.dataAccess = new DataManager();
+            this.dataAccess = dataAccess;
             
             // Set up controller dependencies
             ((ApplicationController) this.applicationService).setInternshipService(this.internshipService);
             
+            // Statistics and reports read counters kept current by the controllers
+            this.metrics = new LiveMetrics();
+            ((ApplicationController) this.applicationService).setMetrics(metrics);
+            ((InternshipController) this.internshipService).setMetrics(metrics);
+            this.reportEngine = new ReportEngine();
+            
+            // Group the writes of bursts of changes (e.g. bulk approvals) into one commit
+            PersistenceScheduler persistence = new PersistenceScheduler(
+                PersistenceScheduler.DEFAULT_WINDOW_MILLIS, PersistenceScheduler.DEFAULT_MAX_PENDING);
+            ((ApplicationController) this.applicationService).setPersistenceScheduler(persistence);
+            ((InternshipController) this.internshipService).setPersistenceScheduler(persistence);
+            ((RegistrationController) this.registrationService).setPersistenceScheduler(persistence);
+            // Registrations and password changes hash on the same bounded pool as logins
+            ((RegistrationController) this.registrationService).setPasswordVerifier(
+                ((AuthController) this.authService).getPasswordVerifier());
+            // Passwords rehashed at login are saved along with the other user writes
+            ((AuthController) this.authService).setPasswordUpgradeListener(
+                ((RegistrationController) this.registrationService)::savePasswordUpgrade);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                persistence.close();
+                SystemLogger.flush();
+            }, "persistence-shutdown"));
+            
             // Load data from files at startup
             loadDataFromFiles();
         }
@@ -106,7 +219,7 @@ public class Main {
         /**
          * Starts the main application event loop.
          * 
-         * <p>This method runs indefinitely until the user explicitly exits.
+         * <p>This method runs until the user explicitly exits.
          * It displays different menus based on the current authentication state:</p>
          * <ul>
          *   <li>Login Menu: if no user is authenticated</li>
@@ -122,7 +235,7 @@ public class Main {
             System.out.println("Welcome to the Internship Placement Management System!");
             System.out.println("=============================================");
             
-            while (true) {
+            while (!exited) {
                 if (currentUser == null) {
                     showLoginMenu();
                 } else {
@@ -149,7 +262,7 @@ public class Main {
                     break;
                 case 3:
                     System.out.println("Goodbye!");
-                    System.exit(0);
+                    exited = true;
                     break;
                 default:
                     System.out.println("Invalid option. Please try again.");
@@ -413,14 +526,17 @@ public class Main {
             System.out.print("Choose filter option: ");
             
             int filterChoice = getIntInput();
-            List<InternshipOpportunity> opportunities = internshipService.getFilteredOpportunities(student);
+            // One indexed query with the profile filters and any level filter
+            InternshipQuery.Builder query = InternshipQuery.eligibleFor(student, java.time.LocalDate.now());
+            boolean levelFiltered = false;
             
             if (filterChoice == 2) {
                 System.out.print("Enter level (BASIC/INTERMEDIATE/ADVANCED): ");
                 String levelStr = scanner.nextLine().trim().toUpperCase();
                 try {
                     InternshipLevel level = InternshipLevel.valueOf(levelStr);
-                    opportunities = internshipService.filterByLevel(opportunities, level);
+                    query.level(level);
+                    levelFiltered = true;
                     // Save filter for next time
                     lastFilterLevel = level;
                     hasLevelFilter = true;
@@ -430,11 +546,16 @@ public class Main {
                     hasLevelFilter = false;
                 }
             } else if (filterChoice == 3 && hasLevelFilter && lastFilterLevel != null) {
-                opportunities = internshipService.filterByLevel(opportunities, lastFilterLevel);
+                query.level(lastFilterLevel);
+                levelFiltered = true;
                 System.out.println("Applied last filter: " + lastFilterLevel);
             } else {
                 hasLevelFilter = false;
             }
+            // Without a level filter this is the cohort's cached eligibility list
+            List<InternshipOpportunity> opportunities = levelFiltered
+                ? internshipService.query(query.build())
+                : internshipService.getFilteredOpportunities(student);
             
             // Sort alphabetically by title (default sorting per assignment)
             opportunities.sort((o1, o2) -> o1.getTitle().compareToIgnoreCase(o2.getTitle()));
@@ -720,7 +841,7 @@ public class Main {
             // Add the opportunity directly (staff approval will happen later)
             internshipService.addOpportunity(opp);
             rep.createInternship(opp);
-            internshipService.saveInternships();
+            internshipService.saveInternship(opp);
             SystemLogger.logSystem("INTERNSHIP_CREATED", "Internship '" + opp.getTitle() + "' created by " + rep.getName());
             System.out.println(ColorUtil.colored("Internship opportunity created and submitted for approval!", ColorUtil.GREEN));
         }
@@ -800,7 +921,7 @@ public class Main {
                 }
                 
                 System.out.println(ColorUtil.colored("Internship updated successfully!", ColorUtil.GREEN));
-                internshipService.saveInternships();
+                internshipService.saveInternship(selected);
             } else {
                 System.out.println("Invalid selection.");
             }
@@ -837,7 +958,6 @@ public class Main {
                 if (confirm.equals("yes")) {
                     boolean deleted = internshipService.deleteOpportunity(rep, selected);
                     if (deleted) {
-                        internshipService.saveInternships();
                         System.out.println("Internship deleted successfully!");
                     } else {
                         System.out.println("Failed to delete internship.");
@@ -862,20 +982,12 @@ public class Main {
                 return;
             }
 
-            List<Application> allApplications = applicationService.getAllApplications();
             boolean hasApplications = false;
 
             System.out.println("\n=== Applications for My Internships ===");
             
             for (InternshipOpportunity opp : myInternships) {
-                List<Application> oppApplications = new ArrayList<>();
-                
-                for (Application app : allApplications) {
-                    if (app != null && app.getOpportunity() != null && 
-                        app.getOpportunity().equals(opp)) {
-                        oppApplications.add(app);
-                    }
-                }
+                List<Application> oppApplications = applicationService.getApplicationsFor(opp);
                 
                 if (!oppApplications.isEmpty()) {
                     hasApplications = true;
@@ -905,20 +1017,13 @@ public class Main {
             }
 
             List<InternshipOpportunity> myInternships = rep.getCreatedInternships();
-            List<Application> allApplications = applicationService.getAllApplications();
             List<Application> pendingApplications = new ArrayList<>();
             
             // Find pending applications for this rep's internships
-            for (Application app : allApplications) {
-                if (app != null && app.getStatus() == ApplicationStatus.PENDING &&
-                    app.getOpportunity() != null) {
-                    
-                    // Check if this application is for one of rep's internships
-                    for (InternshipOpportunity opp : myInternships) {
-                        if (opp.equals(app.getOpportunity())) {
-                            pendingApplications.add(app);
-                            break;
-                        }
+            for (InternshipOpportunity opp : myInternships) {
+                for (Application app : applicationService.getApplicationsFor(opp)) {
+                    if (app.getStatus() == ApplicationStatus.PENDING) {
+                        pendingApplications.add(app);
                     }
                 }
             }
@@ -998,7 +1103,6 @@ public class Main {
                 
                 try {
                     internshipService.toggleVisibility(selected);
-                    internshipService.saveInternships();
                     System.out.println("Visibility toggled! Now: " + (selected.isVisible() ? "Visible" : "Hidden"));
                 } catch (IllegalStateException e) {
                     System.out.println("Error: " + e.getMessage());
@@ -1014,14 +1118,7 @@ public class Main {
                 return;
             }
 
-            List<InternshipOpportunity> allOpps = internshipService.getAllOpportunities();
-            List<InternshipOpportunity> pending = new java.util.ArrayList<>();
-            
-            for (InternshipOpportunity opp : allOpps) {
-                if (opp != null && opp.getStatus() == InternshipStatus.PENDING) {
-                    pending.add(opp);
-                }
-            }
+            List<InternshipOpportunity> pending = internshipService.getPendingOpportunities();
             
             if (pending.isEmpty()) {
                 System.out.println("No pending internship opportunities.");
@@ -1173,56 +1270,159 @@ public class Main {
             System.out.println("2. Student Placements by Major");
             System.out.println("3. Applications per Internship");
             System.out.println("4. Company Representative Approval Status");
-            System.out.print("Choose report: ");
+            System.out.println("5. Company Activity");
+            System.out.println("6. Acceptance and Fill Rates");
+            System.out.println("7. All Reports");
+            System.out.println("8. Export a Report to CSV or JSON Lines");
+            System.out.print("Choose report (several, e.g. 1,3,6, run in parallel): ");
+            
+            String input = scanner.nextLine().trim();
+            if (input.equals("8")) {
+                exportReport();
+                return;
+            }
             
-            int choice = getIntInput();
+            List<Runnable> selected = new ArrayList<>();
+            for (String part : input.split(",")) {
+                int choice;
+                try {
+                    choice = Integer.parseInt(part.trim());
+                } catch (NumberFormatException e) {
+                    choice = -1;
+                }
+                if (choice == 7) {
+                    for (int report = 1; report <= 6; report++) {
+                        selected.add(report(report));
+                    }
+                } else if (report(choice) != null) {
+                    selected.add(report(choice));
+                } else {
+                    System.out.println("Invalid option.");
+                    return;
+                }
+            }
             
+            if (selected.size() == 1) {
+                selected.get(0).run();
+            } else {
+                // Run at once, printed in the order chosen
+                for (String output : reportEngine.run(selected)) {
+                    System.out.print(output);
+                }
+            }
+        }
+
+        private Runnable report(int choice) {
             switch (choice) {
                 case 1:
-                    reportInternshipStatusCounts();
-                    break;
+                    return this::reportInternshipStatusCounts;
                 case 2:
-                    reportPlacementsByMajor();
-                    break;
+                    return this::reportPlacementsByMajor;
                 case 3:
-                    reportApplicationsPerInternship();
-                    break;
+                    return this::reportApplicationsPerInternship;
                 case 4:
-                    reportCompanyRepApprovalStatus();
+                    return this::reportCompanyRepApprovalStatus;
+                case 5:
+                    return this::reportCompanyActivity;
+                case 6:
+                    return this::reportAcceptanceAndFillRates;
+                default:
+                    return null;
+            }
+        }
+
+        private void exportReport() {
+            System.out.println("\n--- Export a Report ---");
+            System.out.println("1. Applications per Internship");
+            System.out.println("2. Company Representative Status");
+            System.out.print("Choose report: ");
+            String name;
+            String[] columns;
+            long expectedRows;
+            ReportExporter.RowSource source;
+            switch (scanner.nextLine().trim()) {
+                case "1": {
+                    List<InternshipOpportunity> opps = internshipService.getAllOpportunities();
+                    name = "applications-per-internship";
+                    columns = new String[] { "title", "company", "status", "applications", "filled_slots", "total_slots", "fill_rate" };
+                    expectedRows = opps.size();
+                    source = sink -> {
+                        for (InternshipOpportunity opp : opps) {
+                            if (opp == null) continue;
+                            double fillRate = opp.getTotalSlots() > 0
+                                ? (double) opp.getFilledSlots() / opp.getTotalSlots() * 100 : 0.0;
+                            sink.row(opp.getTitle(), opp.getCompanyName(), opp.getStatus().name(),
+                                     metrics.countApplicationsFor(opp), opp.getFilledSlots(), opp.getTotalSlots(),
+                                     Math.round(fillRate * 10) / 10.0);
+                        }
+                    };
+                    break;
+                }
+                case "2": {
+                    List<CompanyRepresentative> reps = registrationService.getRepresentatives();
+                    name = "company-representative-status";
+                    columns = new String[] { "user_id", "name", "company", "department", "position", "status" };
+                    expectedRows = reps.size();
+                    source = sink -> {
+                        for (CompanyRepresentative rep : reps) {
+                            if (rep == null) continue;
+                            sink.row(rep.getId(), rep.getName(), rep.getCompanyName(), rep.getDepartment(),
+                                     rep.getPosition(), rep.getIsApproved() ? "APPROVED" : "PENDING");
+                        }
+                    };
                     break;
+                }
                 default:
                     System.out.println("Invalid option.");
+                    return;
+            }
+            
+            System.out.print("Format (1. CSV, 2. JSON Lines): ");
+            String formatChoice = scanner.nextLine().trim();
+            ReportExporter.Format format;
+            if (formatChoice.equals("1")) {
+                format = ReportExporter.Format.CSV;
+            } else if (formatChoice.equals("2")) {
+                format = ReportExporter.Format.JSON_LINES;
+            } else {
+                System.out.println("Invalid format.");
+                return;
+            }
+            
+            String defaultPath = "exports/" + name + "-"
+                + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "." + format.getExtension();
+            System.out.print("File (Enter for " + defaultPath + "): ");
+            String path = scanner.nextLine().trim();
+            if (path.isEmpty()) {
+                path = defaultPath;
+            }
+            
+            try {
+                ReportExporter.Result result = ReportExporter.export(java.nio.file.Paths.get(path), format, columns,
+                    expectedRows, source, (rows, expected) ->
+                        System.out.println("  " + rows + (expected >= 0 ? " of " + expected : "") + " rows written"));
+                System.out.println(ColorUtil.colored(String.format("Exported %d rows (%d bytes) to %s in %.1f ms (%.0f rows/s)",
+                    result.getRows(), result.getBytes(), result.getFile(), result.getMillis(), result.rowsPerSecond()),
+                    ColorUtil.GREEN));
+                SystemLogger.log("EXPORT_REPORT", currentUser.getId(), "Exported " + name + " (" + result.getRows() + " rows) to " + path);
+            } catch (java.io.IOException | RuntimeException e) {
+                SystemLogger.logSystem("ERROR", "Report export to " + path + " failed: " + e);
+                System.out.println("Export failed: " + e.getMessage());
             }
         }
 
         private void reportInternshipStatusCounts() {
-            List<InternshipOpportunity> allOpps = internshipService.getAllOpportunities();
-            
-            int pending = 0;
-            int approved = 0;
-            int rejected = 0;
-            int filled = 0;
+            // Counted from the status index rather than by scanning every internship
+            java.util.Map<InternshipStatus, Integer> counts = internshipService.countByStatus();
             
-            for (InternshipOpportunity opp : allOpps) {
-                if (opp == null) continue;
-                switch (opp.getStatus()) {
-                    case PENDING:
-                        pending++;
-                        break;
-                    case APPROVED:
-                        approved++;
-                        break;
-                    case REJECTED:
-                        rejected++;
-                        break;
-                    case FILLED:
-                        filled++;
-                        break;
-                }
-            }
+            int pending = counts.get(InternshipStatus.PENDING);
+            int approved = counts.get(InternshipStatus.APPROVED);
+            int rejected = counts.get(InternshipStatus.REJECTED);
+            int filled = counts.get(InternshipStatus.FILLED);
             
             System.out.println("\n=== Internship Status Report ===");
-            System.out.println("Total Internships: " + allOpps.size());
+            System.out.println("Total Internships: " + (pending + approved + rejected + filled));
             System.out.println("  PENDING:  " + pending);
             System.out.println("  APPROVED: " + approved);
             System.out.println("  REJECTED: " + rejected);
@@ -1231,18 +1431,8 @@ public class Main {
         }
 
         private void reportPlacementsByMajor() {
-            List<Application> allApps = applicationService.getAllApplications();
-            java.util.Map<String, Integer> placementsByMajor = new java.util.HashMap<>();
-            
-            for (Application app : allApps) {
-                if (app != null && app.getStatus() == ApplicationStatus.ACCEPTED) {
-                    Student student = app.getStudent();
-                    if (student != null) {
-                        String major = student.getMajor();
-                        placementsByMajor.put(major, placementsByMajor.getOrDefault(major, 0) + 1);
-                    }
-                }
-            }
+            // Kept current as applications are accepted and withdrawn
+            java.util.Map<String, Integer> placementsByMajor = metrics.getPlacementsByMajor();
             
             System.out.println("\n=== Student Placements by Major ===");
             if (placementsByMajor.isEmpty()) {
@@ -1257,20 +1447,13 @@ public class Main {
 
         private void reportApplicationsPerInternship() {
             List<InternshipOpportunity> allOpps = internshipService.getAllOpportunities();
-            List<Application> allApps = applicationService.getAllApplications();
             
             System.out.println("\n=== Applications per Internship ===");
             
             for (InternshipOpportunity opp : allOpps) {
                 if (opp == null) continue;
                 
-                int appCount = 0;
-                for (Application app : allApps) {
-                    if (app != null && app.getOpportunity() != null && 
-                        app.getOpportunity().equals(opp)) {
-                        appCount++;
-                    }
-                }
+                int appCount = metrics.countApplicationsFor(opp);
                 
                 double fillRate = 0.0;
                 if (opp.getTotalSlots() > 0) {
@@ -1317,6 +1500,51 @@ public class Main {
             System.out.println("====================================");
         }
 
+        private void reportCompanyActivity() {
+            java.util.Map<String, LiveMetrics.CompanyCounts> companies = metrics.getCompanies();
+            
+            System.out.println("\n=== Company Activity ===");
+            if (companies.isEmpty()) {
+                System.out.println("No internships or applications yet.");
+            }
+            for (java.util.Map.Entry<String, LiveMetrics.CompanyCounts> entry : companies.entrySet()) {
+                LiveMetrics.CompanyCounts counts = entry.getValue();
+                System.out.println("\n" + entry.getKey());
+                System.out.println("  Internships: " + counts.countInternships(InternshipStatus.APPROVED) + " approved, "
+                    + counts.countInternships(InternshipStatus.PENDING) + " pending, "
+                    + counts.countInternships(InternshipStatus.FILLED) + " filled, "
+                    + counts.countInternships(InternshipStatus.REJECTED) + " rejected");
+                System.out.println("  Applications Received: " + counts.countApplications());
+            }
+            System.out.println("========================");
+        }
+
+        private void reportAcceptanceAndFillRates() {
+            // Grouped over a columnar copy of the data rather than by walking every application
+            AnalyticsSnapshot snapshot = AnalyticsSnapshot.of(
+                internshipService.getAllOpportunities(), applicationService.getAllApplications()).using(reportEngine);
+            
+            System.out.println("\n=== Acceptance and Fill Rates ===");
+            System.out.println("Acceptance rate by major:");
+            printRates(snapshot.acceptanceRateByMajor(), "accepted");
+            System.out.println("\nAcceptance rate by company:");
+            printRates(snapshot.acceptanceRateByCompany(), "accepted");
+            System.out.println("\nFill rate by company:");
+            printRates(snapshot.fillRateByCompany(), "slots filled");
+            System.out.println("=================================");
+        }
+
+        private void printRates(java.util.Map<String, AnalyticsSnapshot.Rate> rates, String what) {
+            if (rates.isEmpty()) {
+                System.out.println("  No data yet.");
+            }
+            for (java.util.Map.Entry<String, AnalyticsSnapshot.Rate> entry : rates.entrySet()) {
+                AnalyticsSnapshot.Rate rate = entry.getValue();
+                System.out.println("  " + entry.getKey() + ": " + String.format("%.1f", rate.percent()) + "% "
+                    + "(" + rate.getPart() + "/" + rate.getWhole() + " " + what + ")");
+            }
+        }
+
         private void viewAllInternships() {
             Set<InternshipOpportunity> all = internshipService.showAllInternshipOpportunities();
             System.out.println("\n--- All Internship Opportunities ---");
@@ -1383,10 +1611,11 @@ public class Main {
             System.out.println("1. Search by Company Name");
             System.out.println("2. Search by Internship Title");
             System.out.println("3. Filter by Level");
+            System.out.println("4. Search by Description");
+            System.out.println("5. Ranked Search (all fields, tolerates typos)");
             System.out.print("Choose search type: ");
             
             String choice = scanner.nextLine().trim();
-            List<InternshipOpportunity> allInternships = internshipService.getOpportunities();
             List<InternshipOpportunity> results = new ArrayList<>();
             String searchDesc = "";
             
@@ -1395,7 +1624,7 @@ public class Main {
                     System.out.print("Enter company name: ");
                     String company = scanner.nextLine().trim();
                     if (!company.isEmpty()) {
-                        results = SearchUtil.searchByCompany(allInternships, company);
+                        results = internshipService.searchByCompany(company);
                         searchDesc = "company '" + company + "'";
                     }
                     break;
@@ -1403,7 +1632,7 @@ public class Main {
                     System.out.print("Enter internship title: ");
                     String title = scanner.nextLine().trim();
                     if (!title.isEmpty()) {
-                        results = SearchUtil.searchByTitle(allInternships, title);
+                        results = internshipService.searchByTitle(title);
                         searchDesc = "title '" + title + "'";
                     }
                     break;
@@ -1421,10 +1650,26 @@ public class Main {
                         case "3": level = InternshipLevel.ADVANCED; break;
                     }
                     if (level != null) {
-                        results = SearchUtil.searchByLevel(allInternships, level);
+                        results = internshipService.query(InternshipQuery.builder().level(level).build());
                         searchDesc = "level " + level;
                     }
                     break;
+                case "4":
+                    System.out.print("Enter keyword: ");
+                    String keyword = scanner.nextLine().trim();
+                    if (!keyword.isEmpty()) {
+                        results = internshipService.searchByDescription(keyword);
+                        searchDesc = "description '" + keyword + "'";
+                    }
+                    break;
+                case "5":
+                    System.out.print("Enter search words: ");
+                    String words = scanner.nextLine().trim();
+                    if (!words.isEmpty()) {
+                        results = internshipService.searchRanked(words, RANKED_SEARCH_LIMIT);
+                        searchDesc = "'" + words + "' (best first)";
+                    }
+                    break;
                 default:
                     ColorUtil.printError("Invalid search type.");
                     return;
@@ -1448,9 +1693,7 @@ public class Main {
          * View statistics for company representative's internships.
          */
         private void viewCompanyRepStatistics(CompanyRepresentative rep) {
-            List<Application> allApplications = applicationService.getAllApplications();
-            List<InternshipOpportunity> allInternships = internshipService.getOpportunities();
-            StatisticsUtil.printCompanyRepStatistics(rep, allInternships, allApplications);
+            StatisticsUtil.printCompanyRepStatistics(rep, metrics);
             SystemLogger.log("VIEW_STATS", rep.getId(), "Viewed company statistics");
         }
         
@@ -1458,10 +1701,7 @@ public class Main {
          * View system-wide statistics for staff.
          */
         private void viewSystemStatistics() {
-            List<User> allUsers = authService.getUsers();
-            List<InternshipOpportunity> allInternships = internshipService.getOpportunities();
-            List<Application> allApplications = applicationService.getAllApplications();
-            StatisticsUtil.printSystemStatistics(allUsers, allInternships, allApplications);
+            StatisticsUtil.printSystemStatistics(metrics);
             SystemLogger.log("VIEW_STATS", currentUser.getId(), "Viewed system statistics");
         }
         
@@ -1556,8 +1796,11 @@ public class Main {
             try {
                 // Load users first
                 List<User> users = dataAccess.loadUsers("data/users.txt");
-                authService.setUsers(users);
-                registrationService.setUsers(users);
+                // Login and registration share one directory so new representatives can log in
+                UserDirectory directory = new UserDirectory(users);
+                ((AuthController) authService).setUserDirectory(directory);
+                ((RegistrationController) registrationService).setUserDirectory(directory);
+                directory.setMetrics(metrics);
                 
                 // Load internships
                 List<InternshipOpportunity> internships = dataAccess.loadInternships("data/internships.txt", users);
@@ -1575,6 +1818,10 @@ public class Main {
                 System.out.println("- Loaded " + users.size() + " users");
                 System.out.println("- Loaded " + internships.size() + " internships");
                 System.out.println("- Loaded " + applications.size() + " applications");
+                for (LoadReport report : dataAccess.getLoadReports()) {
+                    System.out.println("  " + report);
+                    SystemLogger.logSystem("DATA_LOADED", report.toString());
+                }
                 System.out.println("\nSample Login Credentials:");
                 System.out.println("- Student: U2345123F (Alice, password: password)");
                 System.out.println("- Company Rep: john@techcorp.com (John Smith, password: password)");
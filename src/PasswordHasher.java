@@ -0,0 +1,140 @@
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted, slow password hashing with PBKDF2-HMAC-SHA256.
+ *
+ * <p>Passwords are stored as {@code pbkdf2$<iterations>$<salt>$<hash>},
+ * with the salt and hash in Base64, so that data/users.txt holds no
+ * plaintext and the '|' field separator never occurs in a stored
+ * password. The iteration count is the work factor: it is read from the
+ * {@code password.iterations} system property (100,000 by default) and
+ * applies to newly hashed passwords; existing hashes keep the count they
+ * were made with until they are upgraded.</p>
+ *
+ * <p>Stored values without the prefix are plaintext passwords from data
+ * files written before hashing, and still verify. {@link #needsRehash}
+ * reports those and hashes made with fewer iterations than configured, so
+ * that {@link AuthController} can upgrade them after a successful
+ * login.</p>
+ *
+ * @version 1.0
+ */
+public final class PasswordHasher {
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static volatile int iterations = initialIterations();
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * Sets the work factor for passwords hashed from now on.
+     *
+     * @param count PBKDF2 iterations, at least {@link #MIN_ITERATIONS}
+     */
+    public static void setIterations(int count) {
+        if (count < MIN_ITERATIONS) {
+            throw new IllegalArgumentException("At least " + MIN_ITERATIONS + " iterations are required");
+        }
+        iterations = count;
+    }
+
+    public static int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Hashes a password with a new random salt and the current work factor.
+     *
+     * @param password the plaintext password
+     * @return the stored form of the password
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        int count = iterations;
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + count + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(derive(password, salt, count));
+    }
+
+    /**
+     * Checks a password against its stored form, taking the same time
+     * wherever the first differing byte is.
+     *
+     * @param password the password entered
+     * @param stored the stored form, hashed or legacy plaintext
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int count = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return count > 0 && MessageDigest.isEqual(derive(password, salt, count), expected);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tells whether a stored password should be hashed again: it is
+     * plaintext, or was hashed with fewer iterations than configured.
+     *
+     * @param stored the stored form of a password
+     * @return true if it should be replaced after the next successful login
+     */
+    public static boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int count) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, count, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static int initialIterations() {
+        int configured = Integer.getInteger("password.iterations", DEFAULT_ITERATIONS);
+        if (configured < MIN_ITERATIONS) {
+            System.err.println("Warning: password.iterations below " + MIN_ITERATIONS + ", using " + DEFAULT_ITERATIONS);
+            return DEFAULT_ITERATIONS;
+        }
+        return configured;
+    }
+}
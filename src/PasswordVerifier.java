@@ -0,0 +1,88 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of threads that hash and check passwords.
+ *
+ * <p>Each {@link PasswordHasher} run costs tens of milliseconds of CPU.
+ * Logins, registrations and password changes all hand that work to this
+ * pool, one thread per processor by default, so it never runs on a
+ * session's own thread and cannot take every thread of the caller. When
+ * too many checks are queued, further ones fail at once with an
+ * {@link AuthenticationException} instead of waiting.</p>
+ *
+ * @version 1.0
+ * @see AuthController
+ * @see RegistrationController
+ */
+public class PasswordVerifier {
+    /** Checks waiting for a thread, per thread, before new ones are refused. */
+    public static final int QUEUED_CHECKS_PER_THREAD = 64;
+
+    private final ExecutorService pool;
+
+    public PasswordVerifier() {
+        this(Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors() * QUEUED_CHECKS_PER_THREAD);
+    }
+
+    /**
+     * Creates a verifier with a pool of the given size.
+     *
+     * @param threads threads hashing and checking passwords
+     * @param maxQueued checks that may wait for a thread
+     */
+    public PasswordVerifier(int threads, int maxQueued) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueued), r -> {
+                Thread t = new Thread(r, "password-verifier");
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    /**
+     * Runs password work on the pool.
+     *
+     * @param task the work, e.g. a {@link PasswordHasher} call
+     * @param <T> the result type
+     * @return its result, or a future failed with an
+     *         {@link AuthenticationException} if too many checks are queued
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                new AuthenticationException("Too many password checks in progress, please try again"));
+        }
+    }
+
+    /**
+     * Hashes a password for storage.
+     *
+     * @param password the plaintext password
+     * @return the stored form
+     */
+    public CompletableFuture<String> hash(String password) {
+        return submit(() -> PasswordHasher.hash(password));
+    }
+
+    /**
+     * Checks a password against its stored form and, if it matches, hashes
+     * a new one, in a single task.
+     *
+     * @param stored the stored form of the current password
+     * @param oldPassword the current password as entered
+     * @param newPassword the new password
+     * @return the stored form of the new password, or null if the current one does not match
+     */
+    public CompletableFuture<String> verifyAndHash(String stored, String oldPassword, String newPassword) {
+        return submit(() -> PasswordHasher.verify(oldPassword, stored) ? PasswordHasher.hash(newPassword) : null);
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces record changes and writes them to their journals in group commits.
+ *
+ * <p>Controllers hand every changed record to {@link #put} or
+ * {@link #remove} instead of writing it themselves. Changes are collected
+ * in a pending batch, keyed by journal and record key, so a record that
+ * changes several times within one batch is written once with its latest
+ * state. The batch is committed when either</p>
+ * <ul>
+ *   <li>the commit window (e.g. 50 ms) since its first change has passed, or</li>
+ *   <li>it holds the configured maximum number of changed records.</li>
+ * </ul>
+ *
+ * <p>Each journal in a batch is written with one append and one sync.
+ * Every change returns a future for the batch it joined, which completes
+ * once the batch is on disk or fails with the write error. Callers that
+ * must know the outcome before they return can {@code join()} it; others
+ * may ignore it. Batches are written on the commit thread without holding
+ * the lock that {@link #put} and {@link #remove} take, so marking a change
+ * never waits for a write in progress, and batches still reach disk in
+ * the order they were taken.</p>
+ *
+ * <p>A scheduler with a window of 0 commits every change immediately on
+ * the calling thread, which is how controllers persist when no shared
+ * scheduler has been set.</p>
+ *
+ * @version 1.0
+ * @see RecordJournal
+ */
+public class PersistenceScheduler {
+    /** Default commit window used by the CLI. */
+    public static final long DEFAULT_WINDOW_MILLIS = 50;
+    /** Default number of changed records that commits a batch early. */
+    public static final int DEFAULT_MAX_PENDING = 256;
+
+    private final long windowMillis;
+    private final int maxPending;
+    private final ScheduledExecutorService executor;
+
+    private Batch pending = new Batch();
+    private ScheduledFuture<?> scheduledCommit;
+    private boolean closed;
+    // Batches taken but not yet written, in the order taken; guarded by this monitor
+    private final Queue<Batch> taken = new ArrayDeque<>();
+    // Held while batches are written; never taken while holding this monitor
+    private final Object commitLock = new Object();
+
+    /**
+     * Constructs a scheduler that commits every change immediately.
+     */
+    public PersistenceScheduler() {
+        this(0, 1);
+    }
+
+    /**
+     * Constructs a scheduler with the given commit window and batch limit.
+     *
+     * @param windowMillis longest time a change waits before it is committed; 0 commits immediately
+     * @param maxPending number of changed records that commits a batch before its window ends
+     */
+    public PersistenceScheduler(long windowMillis, int maxPending) {
+        this.windowMillis = Math.max(0, windowMillis);
+        this.maxPending = Math.max(1, maxPending);
+        if (this.windowMillis > 0) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "persistence-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Marks a record as changed.
+     *
+     * @param journal the journal of the record's data file
+     * @param record the full record line in its current state
+     * @return future completed when the change is on disk
+     */
+    public CompletableFuture<Void> put(RecordJournal journal, String record) {
+        return schedule(journal, journal.keyOf(record), record);
+    }
+
+    /**
+     * Marks a record as deleted.
+     *
+     * @param journal the journal of the record's data file
+     * @param key the record key
+     * @return future completed when the deletion is on disk
+     */
+    public CompletableFuture<Void> remove(RecordJournal journal, String key) {
+        return schedule(journal, key, null);
+    }
+
+    /**
+     * Commits all pending changes and waits for them to reach disk.
+     *
+     * <p>Called before a full snapshot is written, so that no older change
+     * is appended after it, and at shutdown.</p>
+     *
+     * @throws IOException if the pending batch could not be written
+     */
+    public void flush() throws IOException {
+        Batch batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        commitTaken();
+        try {
+            batch.done.join();
+        } catch (CompletionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Commits all pending changes and stops the commit thread.
+     * Later changes are committed immediately on the calling thread.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            SystemLogger.logSystem("ERROR", "Failed to save pending changes at shutdown: " + e.getMessage());
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<Void> schedule(RecordJournal journal, String key, String record) {
+        Batch batch;
+        boolean commitHere = false;
+        synchronized (this) {
+            batch = pending;
+            batch.change(journal, key, record);
+            if (executor == null || closed) {
+                takePending();
+                commitHere = true;
+            } else if (batch.size >= maxPending) {
+                // Written on the commit thread; only callers that join() wait for the disk
+                takePending();
+                executor.execute(this::commitTaken);
+            } else if (scheduledCommit == null) {
+                scheduledCommit = executor.schedule(this::commitPending, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (commitHere) {
+            commitTaken();
+        }
+        return batch.done;
+    }
+
+    private void commitPending() {
+        synchronized (this) {
+            takePending();
+        }
+        commitTaken();
+    }
+
+    /**
+     * Writes every taken batch, oldest first. Batches are queued in the
+     * order they were taken and written one at a time under the commit
+     * lock, so they reach disk in that order whichever thread writes them.
+     */
+    private void commitTaken() {
+        synchronized (commitLock) {
+            while (true) {
+                Batch batch;
+                synchronized (this) {
+                    batch = taken.poll();
+                }
+                if (batch == null) {
+                    return;
+                }
+                commit(batch);
+            }
+        }
+    }
+
+    /** Detaches the pending batch and queues it to be written. Caller must hold this monitor. */
+    private Batch takePending() {
+        Batch batch = pending;
+        pending = new Batch();
+        taken.add(batch);
+        if (scheduledCommit != null) {
+            scheduledCommit.cancel(false);
+            scheduledCommit = null;
+        }
+        return batch;
+    }
+
+    /**
+     * Writes one batch, journal by journal. Caller must hold the commit
+     * lock but not this monitor, so changes made during a commit join the
+     * next batch without waiting for the disk.
+     */
+    private void commit(Batch batch) {
+        if (batch.size == 0) {
+            batch.done.complete(null);
+            return;
+        }
+        long start = System.nanoTime();
+        long bytes = 0;
+        IOException failure = null;
+        for (Map.Entry<RecordJournal, Map<String, String>> entry : batch.changes.entrySet()) {
+            try {
+                bytes += entry.getKey().commit(entry.getValue());
+            } catch (IOException e) {
+                SystemLogger.logSystem("ERROR", "Group commit failed: " + e.getMessage());
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) {
+            batch.done.completeExceptionally(failure);
+            return;
+        }
+        if (executor != null) {
+            SystemLogger.logSystem("GROUP_COMMIT", String.format("%d records, %d bytes in %d journal(s) in %.1f ms",
+                batch.size, bytes, batch.changes.size(), (System.nanoTime() - start) / 1_000_000.0));
+        }
+        batch.done.complete(null);
+    }
+
+    /**
+     * Changed records not yet written, by journal and record key.
+     * A null record marks a deletion.
+     */
+    private static class Batch {
+        final Map<RecordJournal, Map<String, String>> changes = new LinkedHashMap<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        int size;
+
+        void change(RecordJournal journal, String key, String record) {
+            Map<String, String> records = changes.computeIfAbsent(journal, j -> new LinkedHashMap<>());
+            boolean added = !records.containsKey(key);
+            records.put(key, record);
+            if (added) size++;
+        }
+    }
+}
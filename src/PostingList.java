@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+/**
+ * Sorted set of document IDs backed by a growable int array.
+ *
+ * <p>Used for the postings of the internship indexes. IDs are mostly
+ * added in increasing order, which appends; other inserts and removals
+ * shift the tail. Lookups are binary searches.</p>
+ *
+ * @version 1.0
+ * @see InternshipSearchIndex
+ */
+class PostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Adds an ID if absent.
+     *
+     * @param id the document ID
+     * @return true if it was added
+     */
+    boolean add(int id) {
+        if (size > 0 && ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return true;
+        }
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        ensureCapacity();
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an ID if present.
+     *
+     * @param id the document ID
+     * @return true if it was removed
+     */
+    boolean remove(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
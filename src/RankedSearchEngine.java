@@ -0,0 +1,433 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Ranked, typo-tolerant full-text search over internship opportunities.
+ *
+ * <p>Title, company, description and preferred majors are tokenised into
+ * lower-case words. A query is scored with BM25F: each field's term
+ * frequency is normalised by that field's length and weighted (title
+ * highest, description lowest) before the usual BM25 saturation and
+ * inverse document frequency are applied.</p>
+ *
+ * <p>Query words that are misspelt still match: a word of four or more
+ * characters also matches indexed words within one edit (insertion,
+ * deletion, substitution or transposition of adjacent characters), and a
+ * word of eight or more within two. Such matches score less than exact
+ * ones. Only indexed words of a compatible length are compared.</p>
+ *
+ * <p>The best {@code limit} results are selected with a bounded min-heap,
+ * so a query costs O(m log k) for m matching opportunities rather than a
+ * full sort. Ties keep the order in which opportunities were added.</p>
+ *
+ * <p>Like {@link InternshipSearchIndex}, the engine is maintained
+ * incrementally by {@link InternshipController}.</p>
+ *
+ * @version 1.0
+ */
+public class RankedSearchEngine {
+    /**
+     * Indexed fields and their weights.
+     */
+    public enum Field {
+        TITLE(3.0f), COMPANY(2.0f), DESCRIPTION(1.0f), MAJORS(1.5f);
+
+        final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final Field[] FIELDS = Field.values();
+
+    private final Map<InternshipOpportunity, Integer> ids = new IdentityHashMap<>();
+    private final List<InternshipOpportunity> docs = new ArrayList<>();
+    // Per document: token count of each field, and its distinct terms
+    private final List<int[]> lengths = new ArrayList<>();
+    private final List<String[]> docTerms = new ArrayList<>();
+    private final long[] totalLength = new long[FIELDS.length];
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    // Vocabulary by word length with character masks, for typo expansion
+    private final List<Map<String, Long>> vocabulary = new ArrayList<>();
+
+    /**
+     * A scored search result.
+     */
+    public static class Hit {
+        private final InternshipOpportunity opportunity;
+        private final float score;
+
+        Hit(InternshipOpportunity opportunity, float score) {
+            this.opportunity = opportunity;
+            this.score = score;
+        }
+
+        public InternshipOpportunity getOpportunity() {
+            return opportunity;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Indexes an opportunity, or re-indexes it if already present.
+     *
+     * @param opp the opportunity
+     */
+    public synchronized void add(InternshipOpportunity opp) {
+        if (opp == null) return;
+        Integer id = ids.get(opp);
+        if (id == null) {
+            id = docs.size();
+            ids.put(opp, id);
+            docs.add(opp);
+            lengths.add(new int[FIELDS.length]);
+            docTerms.add(new String[0]);
+        } else {
+            unindex(id);
+        }
+        index(id, opp);
+    }
+
+    /**
+     * Re-indexes an opportunity after its text may have changed.
+     * Opportunities that were never added are ignored.
+     *
+     * @param opp the opportunity
+     */
+    public synchronized void update(InternshipOpportunity opp) {
+        Integer id = opp == null ? null : ids.get(opp);
+        if (id != null) {
+            unindex(id);
+            index(id, opp);
+        }
+    }
+
+    /**
+     * Removes an opportunity from the index.
+     *
+     * @param opp the opportunity
+     */
+    public synchronized void remove(InternshipOpportunity opp) {
+        Integer id = opp == null ? null : ids.remove(opp);
+        if (id != null) {
+            unindex(id);
+            docs.set(id, null);
+        }
+    }
+
+    /**
+     * Finds the opportunities that best match the query words.
+     *
+     * @param query free text; words may be misspelt
+     * @param limit maximum number of results
+     * @return matching opportunities, best first
+     */
+    public List<InternshipOpportunity> search(String query, int limit) {
+        List<InternshipOpportunity> results = new ArrayList<>();
+        for (Hit hit : searchScored(query, limit)) {
+            results.add(hit.getOpportunity());
+        }
+        return results;
+    }
+
+    /**
+     * Finds the opportunities that best match the query words, with their scores.
+     *
+     * @param query free text; words may be misspelt
+     * @param limit maximum number of results
+     * @return scored results, best first
+     */
+    public synchronized List<Hit> searchScored(String query, int limit) {
+        List<Hit> results = new ArrayList<>();
+        if (query == null || limit <= 0 || ids.isEmpty()) {
+            return results;
+        }
+
+        int count = ids.size();
+        float[] average = new float[FIELDS.length];
+        for (int f = 0; f < FIELDS.length; f++) {
+            average[f] = Math.max(1f, (float) totalLength[f] / count);
+        }
+
+        float[] scores = new float[docs.size()];
+        float[] best = new float[docs.size()];
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        boolean[] seen = new boolean[docs.size()];
+
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            // Score each query word by its best expansion in each document
+            int[] wordDocs = new int[16];
+            int wordCount = 0;
+            for (Map.Entry<String, Integer> expansion : expand(word).entrySet()) {
+                Postings postings = terms.get(expansion.getKey());
+                float idf = (float) Math.log(1 + (count - postings.size + 0.5) / (postings.size + 0.5));
+                float penalty = 1f / (1 + expansion.getValue());
+                for (int i = 0; i < postings.size; i++) {
+                    int id = postings.docs[i];
+                    float score = penalty * idf * saturate(postings.freqs[i], lengths.get(id), average);
+                    if (best[id] == 0f) {
+                        if (wordCount == wordDocs.length) wordDocs = Arrays.copyOf(wordDocs, wordCount * 2);
+                        wordDocs[wordCount++] = id;
+                    }
+                    best[id] = Math.max(best[id], score);
+                }
+            }
+            for (int i = 0; i < wordCount; i++) {
+                int id = wordDocs[i];
+                scores[id] += best[id];
+                best[id] = 0f;
+                if (!seen[id]) {
+                    seen[id] = true;
+                    if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+
+        // Keep the best 'limit' documents; the heap's head is the weakest kept
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, Math.max(1, touchedCount)) + 1,
+            (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            if (heap.size() < limit) {
+                heap.add(id);
+            } else if (heap.comparator().compare(id, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(id);
+            }
+        }
+        Hit[] ordered = new Hit[heap.size()];
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            int id = heap.poll();
+            ordered[i] = new Hit(docs.get(id), scores[id]);
+        }
+        results.addAll(Arrays.asList(ordered));
+        return results;
+    }
+
+    /**
+     * Gets the number of indexed opportunities.
+     *
+     * @return indexed opportunity count
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * Gets the number of distinct indexed words.
+     *
+     * @return vocabulary size
+     */
+    public synchronized int vocabularySize() {
+        return terms.size();
+    }
+
+    /** BM25F term weight of one posting: length-normalised, weighted frequencies, saturated. */
+    private static float saturate(int packedFreqs, int[] docLengths, float[] average) {
+        float tf = 0f;
+        for (int f = 0; f < FIELDS.length; f++) {
+            int freq = (packedFreqs >>> (8 * f)) & 0xFF;
+            if (freq > 0) {
+                tf += FIELDS[f].weight * freq / (1 - B + B * docLengths[f] / average[f]);
+            }
+        }
+        return tf * (K1 + 1) / (K1 + tf);
+    }
+
+    /**
+     * Maps a query word to the indexed words it matches and their edit distance.
+     */
+    private Map<String, Integer> expand(String word) {
+        Map<String, Integer> matches = new HashMap<>();
+        if (terms.containsKey(word)) {
+            matches.put(word, 0);
+        }
+        int maxEdits = word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+        long mask = charMask(word);
+        for (int length = Math.max(1, word.length() - maxEdits); maxEdits > 0 && length <= word.length() + maxEdits; length++) {
+            if (length >= vocabulary.size()) break;
+            for (Map.Entry<String, Long> entry : vocabulary.get(length).entrySet()) {
+                // Each edit adds at most one character to either side's difference
+                long other = entry.getValue();
+                if (Long.bitCount(mask & ~other) > maxEdits || Long.bitCount(other & ~mask) > maxEdits) {
+                    continue;
+                }
+                String term = entry.getKey();
+                if (!term.equals(word)) {
+                    int distance = editDistance(word, term, maxEdits);
+                    if (distance <= maxEdits) {
+                        matches.put(term, distance);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /** Set of the characters of a word, hashed into 64 bits. */
+    private static long charMask(String word) {
+        long mask = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            int bit = c >= 'a' && c <= 'z' ? c - 'a' : c >= '0' && c <= '9' ? 26 + (c - '0') : 36 + c % 28;
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Optimal string alignment distance, abandoned once it must exceed the bound.
+     *
+     * @return the distance, or {@code max + 1} if it is greater than {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) previous[j] = j;
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) return max + 1;
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    private void index(int id, InternshipOpportunity opp) {
+        Map<Field, String> text = new EnumMap<>(Field.class);
+        text.put(Field.TITLE, opp.getTitle());
+        text.put(Field.COMPANY, opp.getCompanyName());
+        text.put(Field.DESCRIPTION, opp.getDescription());
+        List<String> majors = opp.getPreferredMajor();
+        text.put(Field.MAJORS, majors == null ? null : String.join(" ", majors));
+
+        // Term frequencies of all fields, packed one byte per field
+        Map<String, Integer> freqs = new HashMap<>();
+        int[] docLengths = lengths.get(id);
+        for (Field field : FIELDS) {
+            List<String> words = tokenize(text.get(field));
+            docLengths[field.ordinal()] = words.size();
+            totalLength[field.ordinal()] += words.size();
+            int shift = 8 * field.ordinal();
+            for (String word : words) {
+                freqs.merge(word, 1 << shift, (old, one) ->
+                    ((old >>> shift) & 0xFF) == 0xFF ? old : old + one);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+            String word = entry.getKey();
+            Postings postings = terms.get(word);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(word, postings);
+                while (vocabulary.size() <= word.length()) vocabulary.add(new HashMap<>());
+                vocabulary.get(word.length()).put(word, charMask(word));
+            }
+            postings.put(id, entry.getValue());
+        }
+        docTerms.set(id, freqs.keySet().toArray(new String[0]));
+    }
+
+    private void unindex(int id) {
+        for (String word : docTerms.get(id)) {
+            Postings postings = terms.get(word);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(word);
+                vocabulary.get(word.length()).remove(word);
+            }
+        }
+        docTerms.set(id, new String[0]);
+        int[] docLengths = lengths.get(id);
+        for (int f = 0; f < FIELDS.length; f++) {
+            totalLength[f] -= docLengths[f];
+            docLengths[f] = 0;
+        }
+    }
+
+    /** Splits text into lower-case words of letters and digits. */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Documents containing a word, sorted by ID, with packed per-field frequencies.
+     */
+    private static class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void put(int id, int packed) {
+            int at = size > 0 && docs[size - 1] < id ? -size - 1 : Arrays.binarySearch(docs, 0, size, id);
+            if (at >= 0) {
+                freqs[at] = packed;
+                return;
+            }
+            at = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(freqs, at, freqs, at + 1, size - at);
+            docs[at] = id;
+            freqs[at] = packed;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(docs, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            System.arraycopy(freqs, at + 1, freqs, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal in front of a pipe-delimited snapshot file.
+ *
+ * <p>Instead of rewriting {@code data/*.txt} on every change, controllers
+ * append only the changed record to {@code <snapshot>.journal}:</p>
+ * <ul>
+ *   <li>{@code +<record>} inserts or replaces the record with the same key</li>
+ *   <li>{@code -<key>} deletes the record with that key</li>
+ * </ul>
+ *
+ * <p>The key of a record is made of one or more of its fields (e.g. the user
+ * ID, or student ID and internship title for applications). Once enough
+ * entries accumulate, the journal is rotated to
+ * {@code <snapshot>.journal.compacting} and merged into the snapshot on a
+ * background thread. At startup {@link #recover()} folds any leftover
+ * journals into the snapshot before it is loaded, so snapshot plus journal
+ * always replay to the latest state.</p>
+ *
+ * <p>Every append is synced to disk before it returns; use
+ * {@link PersistenceScheduler} to share one sync between many changes.</p>
+ *
+ * <p>Snapshots are never written in place: they go to {@code <snapshot>.tmp},
+ * are forced to disk and then atomically renamed over the live file. Each
+ * snapshot ends with a {@link SnapshotChecksum} trailer that the loaders
+ * verify.</p>
+ *
+ * @version 1.0
+ */
+public class RecordJournal {
+    /** Journal entries after which a background compaction is started. */
+    static final int COMPACT_THRESHOLD = 1000;
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Path compacting;
+    private final String[] header;
+    private final int[] keyFields;
+    // Held while the snapshot file is rewritten; always taken before this journal's monitor
+    private final Object snapshotLock = new Object();
+
+    private FileOutputStream journalOut;
+    private PrintWriter writer;
+    private int entries;
+    // Journal file length after the last flush, to measure what each flush appends
+    private long flushedLength;
+
+    /**
+     * Constructs a journal for a snapshot file.
+     *
+     * @param snapshotPath path of the snapshot file (e.g. data/users.txt)
+     * @param header comment lines written at the top of every snapshot
+     * @param keyFields indexes of the fields that identify a record
+     */
+    public RecordJournal(String snapshotPath, String[] header, int... keyFields) {
+        this.snapshot = Paths.get(snapshotPath);
+        this.journal = Paths.get(snapshotPath + ".journal");
+        this.compacting = Paths.get(snapshotPath + ".journal.compacting");
+        this.header = header.clone();
+        this.keyFields = keyFields.clone();
+    }
+
+    /**
+     * Journal for data/users.txt records, keyed by user ID.
+     *
+     * @param snapshotPath path of the users file
+     * @return the journal
+     */
+    public static RecordJournal forUsers(String snapshotPath) {
+        return new RecordJournal(snapshotPath, new String[] {
+            "# User Data File",
+            "# Format: TYPE|ID|NAME|PASSWORD|ROLE_SPECIFIC_FIELDS",
+            "# STUDENT: TYPE|ID|NAME|PASSWORD|MAJOR|YEAR",
+            "# COMPANY_REP: TYPE|ID|NAME|PASSWORD|COMPANY_NAME|DEPARTMENT|POSITION|IS_APPROVED",
+            "# STAFF: TYPE|ID|NAME|PASSWORD|DEPARTMENT"
+        }, 1);
+    }
+
+    /**
+     * Journal for data/internships.txt records, keyed by title and company.
+     * Titles are only unique within a company, so the title alone would let
+     * one company's posting replace another's on recovery.
+     *
+     * @param snapshotPath path of the internships file
+     * @return the journal
+     */
+    public static RecordJournal forInternships(String snapshotPath) {
+        return new RecordJournal(snapshotPath, new String[] {
+            "# Internship Data File",
+            "# Format: ID|TITLE|COMPANY|REP_ID|DESCRIPTION|LEVEL|PREFERRED_MAJOR|TOTAL_SLOTS|FILLED_SLOTS|STATUS|VISIBLE|OPEN_DATE|CLOSE_DATE"
+        }, 1, 2);
+    }
+
+    /**
+     * Journal for data/applications.txt records, keyed by student ID and internship title.
+     *
+     * @param snapshotPath path of the applications file
+     * @return the journal
+     */
+    public static RecordJournal forApplications(String snapshotPath) {
+        return new RecordJournal(snapshotPath, new String[] {
+            "# Application Data File",
+            "# Format: STUDENT_ID|INTERNSHIP_TITLE|STATUS|CREATED_DATE|UPDATED_DATE"
+        }, 0, 1);
+    }
+
+    /**
+     * Appends an insert-or-replace entry for a record.
+     *
+     * @param record the full record line
+     * @throws IOException if the entry cannot be written
+     */
+    public synchronized void put(String record) throws IOException {
+        append("+" + record);
+    }
+
+    /**
+     * Appends a delete entry for the record with the given key.
+     *
+     * @param key the record key, as returned by {@link #keyOf(String)}
+     * @throws IOException if the entry cannot be written
+     */
+    public synchronized void remove(String key) throws IOException {
+        append("-" + key);
+    }
+
+    /**
+     * Appends a batch of changes with a single flush.
+     *
+     * @param changes record key to full record line, or to null for a deletion, in commit order
+     * @return bytes appended to the journal
+     * @throws IOException if the entries cannot be written
+     * @see PersistenceScheduler
+     */
+    public synchronized long commit(Map<String, String> changes) throws IOException {
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (change.getValue() != null) {
+                write("+" + change.getValue());
+            } else {
+                write("-" + change.getKey());
+            }
+        }
+        return flushWriter(changes.size());
+    }
+
+    /**
+     * Gets the key of a record line.
+     *
+     * @param record the record line
+     * @return the key fields joined with '|'
+     */
+    public String keyOf(String record) {
+        RecordTokenizer fields = RecordTokenizer.forCurrentThread().reset(record);
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < keyFields.length; i++) {
+            if (i > 0) key.append('|');
+            if (keyFields[i] < fields.fieldCount()) key.append(fields.text(keyFields[i]));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Replaces the snapshot with the given records and clears the journal.
+     *
+     * <p>Used when the caller holds the complete, current state.</p>
+     *
+     * @param records all record lines, in order
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeSnapshot(List<String> records) throws IOException {
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                writeSnapshotFile(records);
+                closeWriter();
+                Files.deleteIfExists(journal);
+                Files.deleteIfExists(compacting);
+                entries = 0;
+            }
+        }
+    }
+
+    /**
+     * Folds any journal entries left on disk into the snapshot.
+     *
+     * <p>Called before the snapshot is loaded so that it reflects every
+     * change made before the last shutdown or crash.</p>
+     *
+     * @throws IOException if the files cannot be read or written
+     */
+    public void recover() throws IOException {
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                closeWriter();
+                if (!Files.exists(journal) && !Files.exists(compacting)) {
+                    return;
+                }
+                merge(compacting, journal);
+                Files.deleteIfExists(journal);
+                Files.deleteIfExists(compacting);
+                entries = 0;
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the open journal file.
+     */
+    public synchronized void close() {
+        closeWriter();
+    }
+
+    private void append(String entry) throws IOException {
+        write(entry);
+        flushWriter(1);
+    }
+
+    private void write(String entry) throws IOException {
+        if (writer == null) {
+            journalOut = new FileOutputStream(journal.toFile(), true);
+            flushedLength = journalOut.getChannel().size();
+            writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(journalOut, Charset.defaultCharset())));
+        }
+        writer.print(entry);
+        writer.print('\n');
+    }
+
+    /** Flushes and syncs the journal; returns the bytes appended since the last flush. */
+    private long flushWriter(int written) throws IOException {
+        if (writer == null) {
+            return 0;
+        }
+        writer.flush();
+        if (writer.checkError()) {
+            closeWriter();
+            throw new IOException("Failed to append to " + journal);
+        }
+        long appended;
+        try {
+            journalOut.getFD().sync();
+            long length = journalOut.getChannel().position();
+            appended = length - flushedLength;
+            flushedLength = length;
+        } catch (IOException e) {
+            closeWriter();
+            throw e;
+        }
+        entries += written;
+        if (entries >= COMPACT_THRESHOLD) {
+            try {
+                startCompaction();
+            } catch (IOException e) {
+                // The entries are already durable, so the commit still succeeds; the journal
+                // stays in place and compaction is retried at the next threshold
+                entries = 0;
+                SystemLogger.logSystem("ERROR", "Could not start journal compaction for " + snapshot + ": " + e.getMessage());
+            }
+        }
+        return appended;
+    }
+
+    /**
+     * Moves the current journal aside and merges it into the snapshot in the background.
+     * New entries go to a fresh journal in the meantime.
+     */
+    private void startCompaction() throws IOException {
+        if (Files.exists(compacting)) {
+            return; // Previous compaction still running
+        }
+        closeWriter();
+        Files.move(journal, compacting);
+        entries = 0;
+        COMPACTOR.execute(() -> {
+            synchronized (snapshotLock) {
+                try {
+                    if (Files.exists(compacting)) { // A full snapshot may have superseded it
+                        merge(compacting);
+                        Files.delete(compacting);
+                    }
+                } catch (IOException e) {
+                    // Left in place; merged on the next compaction or at startup
+                    SystemLogger.logSystem("ERROR", "Journal compaction failed for " + snapshot + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies the given journals, in order, to the snapshot and rewrites it.
+     * Caller must hold {@code snapshotLock}.
+     */
+    private void merge(Path... journals) throws IOException {
+        Map<String, String> records = new LinkedHashMap<>();
+        if (Files.exists(snapshot)) {
+            // Never fold journals into a damaged snapshot and stamp it with a fresh checksum
+            SnapshotChecksum.verify(snapshot);
+            for (String line : Files.readAllLines(snapshot, Charset.defaultCharset())) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    records.put(keyOf(line), line);
+                }
+            }
+        }
+        for (Path path : journals) {
+            if (!Files.exists(path)) continue;
+            String content = new String(Files.readAllBytes(path), Charset.defaultCharset());
+            // A final line without '\n' was torn by a crash mid-append and is ignored
+            int end = content.lastIndexOf('\n');
+            for (String entry : content.substring(0, end + 1).split("\n")) {
+                if (entry.startsWith("+")) {
+                    String record = entry.substring(1).trim();
+                    records.put(keyOf(record), record);
+                } else if (entry.startsWith("-")) {
+                    records.remove(entry.substring(1));
+                }
+            }
+        }
+        writeSnapshotFile(new ArrayList<>(records.values()));
+    }
+
+    /**
+     * Writes the snapshot to a temporary file, forces it to disk and then
+     * renames it over the live file, so readers only ever see the old or
+     * the new snapshot. Caller must hold {@code snapshotLock}.
+     */
+    private void writeSnapshotFile(List<String> records) throws IOException {
+        long start = System.nanoTime();
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        Charset charset = Charset.defaultCharset();
+        CRC32 crc = new CRC32();
+        long bytes = 0;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            StringBuilder line = new StringBuilder();
+            for (String comment : header) {
+                bytes += writeLine(out, crc, line.append(comment), charset);
+            }
+            bytes += writeLine(out, crc, line, charset);
+            for (String record : records) {
+                bytes += writeLine(out, crc, line.append(record), charset);
+            }
+            byte[] trailer = SnapshotChecksum.trailer(crc.getValue(), bytes).getBytes(charset);
+            out.write(trailer);
+            out.flush();
+            channel.force(true);
+            bytes += trailer.length;
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+
+        SystemLogger.logSystem("SNAPSHOT_WRITTEN", String.format("%s: %d records, %d bytes in %.1f ms",
+            snapshot, records.size(), bytes, (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    private static int writeLine(OutputStream out, CRC32 crc, StringBuilder line, Charset charset) throws IOException {
+        byte[] encoded = line.append('\n').toString().getBytes(charset);
+        line.setLength(0);
+        out.write(encoded);
+        crc.update(encoded);
+        return encoded.length;
+    }
+
+    /**
+     * Makes the rename itself durable. Not every platform can open a
+     * directory for syncing, in which case this is skipped.
+     */
+    private void syncDirectory() {
+        Path directory = snapshot.toAbsolutePath().getParent();
+        if (directory == null) return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported here (e.g. Windows); the rename is still atomic
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            journalOut = null;
+        }
+    }
+}
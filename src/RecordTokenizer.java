@@ -0,0 +1,206 @@
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits one pipe-delimited data line into fields without copying it.
+ *
+ * <p>The tokenizer only records the trimmed start and end of every field,
+ * so numbers, booleans, enum constants and ISO dates are parsed straight
+ * from the line. A String is created only for fields that are stored as
+ * text. Field boundaries follow {@code line.trim().split("\\|")} followed
+ * by {@code trim()} on each field, including the removal of trailing empty
+ * fields, and malformed values raise the same exceptions as
+ * {@code Integer.parseInt}, {@code Enum.valueOf} and {@code LocalDate.parse}.</p>
+ *
+ * <p>Instances are reused through {@link #forCurrentThread()} and are not
+ * thread-safe.</p>
+ *
+ * @version 1.0
+ * @see DataManager
+ */
+class RecordTokenizer {
+    private static final ThreadLocal<RecordTokenizer> CURRENT = ThreadLocal.withInitial(RecordTokenizer::new);
+
+    private String line;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] rawEmpty = new boolean[16];
+    private int count;
+
+    /**
+     * Gets the tokenizer reserved for the calling thread.
+     *
+     * @return a reusable tokenizer
+     */
+    static RecordTokenizer forCurrentThread() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Tokenizes a new line, discarding the previous one.
+     *
+     * @param line the data line
+     * @return this tokenizer
+     */
+    RecordTokenizer reset(String line) {
+        this.line = line;
+        this.count = 0;
+
+        int from = 0;
+        int to = line.length();
+        while (from < to && line.charAt(from) <= ' ') from++;
+        while (to > from && line.charAt(to - 1) <= ' ') to--;
+
+        boolean separatorSeen = false;
+        int fieldStart = from;
+        int separator;
+        while ((separator = line.indexOf('|', fieldStart)) >= 0 && separator < to) {
+            addField(fieldStart, separator);
+            fieldStart = separator + 1;
+            separatorSeen = true;
+        }
+        addField(fieldStart, to);
+
+        // Like split(), drop trailing fields that were empty before trimming
+        if (separatorSeen) {
+            while (count > 0 && rawEmpty[count - 1]) {
+                count--;
+            }
+        }
+        return this;
+    }
+
+    int fieldCount() {
+        return count;
+    }
+
+    String text(int field) {
+        return line.substring(starts[field], ends[field]);
+    }
+
+    boolean isEmpty(int field) {
+        return starts[field] == ends[field];
+    }
+
+    boolean textEquals(int field, String expected) {
+        int length = ends[field] - starts[field];
+        return length == expected.length() && line.regionMatches(starts[field], expected, 0, length);
+    }
+
+    boolean textEqualsIgnoreCase(int field, String expected) {
+        int length = ends[field] - starts[field];
+        return length == expected.length() && line.regionMatches(true, starts[field], expected, 0, length);
+    }
+
+    int parseInt(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        // Up to 9 plain digits cannot overflow; anything else takes the JDK path
+        if (end > start && end - start <= 9) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = line.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return Integer.parseInt(text(field));
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+        return Integer.parseInt(text(field));
+    }
+
+    boolean parseBoolean(int field) {
+        return textEqualsIgnoreCase(field, "true");
+    }
+
+    <E extends Enum<E>> E parseEnum(int field, Class<E> type, E[] constants) {
+        for (E constant : constants) {
+            if (textEquals(field, constant.name())) {
+                return constant;
+            }
+        }
+        return Enum.valueOf(type, text(field));
+    }
+
+    LocalDate parseDate(int field) {
+        int s = starts[field];
+        if (ends[field] - s == 10 && line.charAt(s + 4) == '-' && line.charAt(s + 7) == '-') {
+            int year = digits(s, 4);
+            int month = digits(s + 5, 2);
+            int day = digits(s + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    // Fall through so the error matches LocalDate.parse
+                }
+            }
+        }
+        return LocalDate.parse(text(field));
+    }
+
+    /**
+     * Splits one field on a separator, trimming each part, with the same
+     * trailing-empty handling as {@code String.split}.
+     *
+     * @param field the field index
+     * @param separator the separator character
+     * @return trimmed parts
+     */
+    List<String> splitField(int field, char separator) {
+        List<String> parts = new ArrayList<>();
+        int start = starts[field];
+        int end = ends[field];
+        int partStart = start;
+        int keep = 0;
+        boolean separatorSeen = false;
+        for (int i = start; i <= end; i++) {
+            if (i == end || line.charAt(i) == separator) {
+                int from = partStart;
+                int to = i;
+                separatorSeen |= i < end;
+                if (to > from) keep = parts.size() + 1;
+                while (from < to && line.charAt(from) <= ' ') from++;
+                while (to > from && line.charAt(to - 1) <= ' ') to--;
+                parts.add(line.substring(from, to));
+                partStart = i + 1;
+            }
+        }
+        if (separatorSeen) {
+            while (parts.size() > keep) {
+                parts.remove(parts.size() - 1);
+            }
+        }
+        return parts;
+    }
+
+    private int digits(int from, int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void addField(int from, int to) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            rawEmpty = Arrays.copyOf(rawEmpty, count * 2);
+        }
+        rawEmpty[count] = from == to;
+        int s = from;
+        int e = to;
+        while (s < e && line.charAt(s) <= ' ') s++;
+        while (e > s && line.charAt(e - 1) <= ' ') e--;
+        starts[count] = s;
+        ends[count] = e;
+        count++;
+    }
+}
@@ -1,5 +1,7 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Implementation of registration services.
@@ -7,15 +9,52 @@ import java.util.List;
  * <p>This class implements the RegistrationServiceInterface, providing
  * user registration and approval logic with loose coupling.</p>
  * 
+ * <p>Only the changed user is appended to the {@link RecordJournal} of
+ * data/users.txt; the file itself is not rewritten. Writes go through a
+ * {@link PersistenceScheduler}, and each method waits for its write so
+ * that it can revert and return false if the write fails.</p>
+ * 
+ * <p>Users are looked up and registered through a {@link UserDirectory},
+ * shared with the {@link AuthController}. The directory claims a new ID
+ * atomically, and the list of representatives is copy-on-write, so
+ * concurrent registrations need no further locking.</p>
+ * 
+ * <p>New passwords are hashed, and current ones checked, on a
+ * {@link PasswordVerifier} pool rather than the caller's thread; the CLI
+ * shares the {@link AuthController}'s pool. If the pool is too busy the
+ * registration or change fails instead of waiting.</p>
+ * 
  * @version 1.0
  */
 public class RegistrationController implements RegistrationServiceInterface {
-    private List<CompanyRepresentative> representatives;
-    private List<User> users;
+    private static final String DATA_FILE = "data/users.txt";
+
+    private final CopyOnWriteArrayList<CompanyRepresentative> representatives;
+    private UserDirectory directory;
+    private final RecordJournal journal = RecordJournal.forUsers(DATA_FILE);
+    private PersistenceScheduler scheduler = new PersistenceScheduler();
+    private PasswordVerifier passwords = new PasswordVerifier();
 
     public RegistrationController() {
-        this.representatives = new ArrayList<>();
-        this.users = new ArrayList<>();
+        this.representatives = new CopyOnWriteArrayList<>();
+        this.directory = new UserDirectory();
+    }
+
+    public void setPersistenceScheduler(PersistenceScheduler scheduler) {
+        if (scheduler != null) {
+            this.scheduler = scheduler;
+        }
+    }
+
+    /**
+     * Hashes and checks passwords on the given pool, e.g. the one logins use.
+     *
+     * @param passwords the password verifier
+     */
+    public void setPasswordVerifier(PasswordVerifier passwords) {
+        if (passwords != null) {
+            this.passwords = passwords;
+        }
     }
 
     public boolean registerCompanyRepresentative(String name, String email, String companyName, String department, String position, String password) {
@@ -28,28 +67,33 @@ public class RegistrationController implements RegistrationServiceInterface {
         }
 
         // Check if email already exists
-        for (User user : users) {
-            if (user != null && user.getId() != null && user.getId().equals(email)) {
-                return false;
-            }
+        if (directory.find(email) != null) {
+            return false;
         }
 
         // Use email as User ID (per assignment requirements)
         CompanyRepresentative newRep = new CompanyRepresentative(email, name, companyName);
         newRep.setDepartment(department != null && !department.trim().isEmpty() ? department : "N/A");
         newRep.setPosition(position != null && !position.trim().isEmpty() ? position : "N/A");
-        newRep.setPassword(password);
+        try {
+            newRep.setPasswordForPersistence(passwords.hash(password).join());
+        } catch (CompletionException e) {
+            return false; // Too many password checks in progress
+        }
 
+        // Another registration may have taken the email since the check
+        if (!directory.addIfAbsent(newRep)) {
+            return false;
+        }
         representatives.add(newRep);
-        users.add(newRep);
 
         // Persist users to file
         try {
-            writeUsersToFile("data/users.txt");
+            persist(newRep);
         } catch (Exception e) {
             // If persistence fails, remove newly added user to avoid inconsistent runtime state
             representatives.remove(newRep);
-            users.remove(newRep);
+            directory.remove(newRep);
             return false;
         }
 
@@ -61,14 +105,16 @@ public class RegistrationController implements RegistrationServiceInterface {
             return false;
         }
         rep.setApproved(true);
+        directory.approvalChanged(rep);
         
         // Persist changes to file
         try {
-            writeUsersToFile("data/users.txt");
-            SystemLogger.log("APPROVE_REP", staff.getId(), "Approved: " + rep.getId());
+            persist(rep);
+            SystemLogger.log("APPROVE_REP", staff.getId(), rep.getId(), "Approved: " + rep.getId());
         } catch (Exception e) {
             // If persistence fails, revert the change
             rep.setApproved(false);
+            directory.approvalChanged(rep);
             SystemLogger.logSystem("APPROVE_REP_FAILED", "Failed for " + rep.getId() + ": " + e.getMessage());
             return false;
         }
@@ -81,13 +127,15 @@ public class RegistrationController implements RegistrationServiceInterface {
             return false;
         }
         rep.setApproved(false);
+        directory.approvalChanged(rep);
         
         // Persist changes to file
         try {
-            writeUsersToFile("data/users.txt");
+            persist(rep);
         } catch (Exception e) {
             // If persistence fails, revert the change
             rep.setApproved(true);
+            directory.approvalChanged(rep);
             return false;
         }
         
@@ -100,34 +148,68 @@ public class RegistrationController implements RegistrationServiceInterface {
         }
 
         // Lookup by user ID (email for company reps, student/staff IDs)
-        for (User user : users) {
-            if (user.getId() != null && user.getId().equals(userId)) {
-                boolean changed = user.changePassword(oldPassword, newPassword);
-                if (changed) {
-                    try {
-                        writeUsersToFile("data/users.txt");
-                    } catch (Exception e) {
-                        // rollback password change on failure to persist
-                        user.changePassword(newPassword, oldPassword);
-                        return false;
-                    }
-                }
-                return changed;
-            }
+        User user = directory.find(userId);
+        if (user == null) {
+            return false;
+        }
+        String previous = user.getPasswordForPersistence();
+        String updated;
+        try {
+            updated = passwords.verifyAndHash(previous, oldPassword, newPassword).join();
+        } catch (CompletionException e) {
+            return false; // Too many password checks in progress
+        }
+        if (updated == null) {
+            return false; // Current password does not match
+        }
+        user.setPasswordForPersistence(updated);
+        try {
+            persist(user);
+        } catch (Exception e) {
+            // rollback password change on failure to persist
+            user.setPasswordForPersistence(previous);
+            return false;
         }
+        return true;
+    }
 
-        return false;
+    /**
+     * Saves a user whose stored password was upgraded at login, without
+     * waiting for the write. A failed write only leaves the old hash in
+     * data/users.txt, which still verifies.
+     *
+     * @param user the user to save
+     */
+    public void savePasswordUpgrade(User user) {
+        String record = user == null ? null : formatRecord(user);
+        if (record == null) {
+            return;
+        }
+        scheduler.put(journal, record).whenComplete((ignored, e) -> {
+            if (e != null) {
+                SystemLogger.logSystem("ERROR", "Failed to save upgraded password of " + user.getId() + ": " + e.getMessage());
+            }
+        });
     }
 
     public void setUsers(List<User> users) {
         if (users != null) {
-            this.users = users; // Share the same list reference
-            for (User user : users) {
+            setUserDirectory(new UserDirectory(users));
+        }
+    }
+
+    /**
+     * Registers users in a directory shared with other controllers.
+     *
+     * @param directory the user directory
+     */
+    public void setUserDirectory(UserDirectory directory) {
+        if (directory != null) {
+            this.directory = directory;
+            for (User user : directory.getUsers()) {
                 if (user instanceof CompanyRepresentative) {
                     CompanyRepresentative rep = (CompanyRepresentative) user;
-                    if (!representatives.contains(rep)) {
-                        representatives.add(rep);
-                    }
+                    representatives.addIfAbsent(rep);
                 }
             }
         }
@@ -137,31 +219,27 @@ public class RegistrationController implements RegistrationServiceInterface {
         return new ArrayList<>(representatives);
     }
 
-        private void writeUsersToFile(String filepath) throws java.io.IOException {
-        if (filepath == null) throw new java.io.IOException("Invalid filepath");
-
-        try (java.io.PrintWriter pw = new java.io.PrintWriter(new java.io.FileWriter(filepath))) {
-            // Write header/comments similar to sample file
-            pw.println("# User Data File");
-            pw.println("# Format: TYPE|ID|NAME|PASSWORD|ROLE_SPECIFIC_FIELDS");
-            pw.println("# STUDENT: TYPE|ID|NAME|PASSWORD|MAJOR|YEAR");
-            pw.println("# COMPANY_REP: TYPE|ID|NAME|PASSWORD|COMPANY_NAME|DEPARTMENT|POSITION|IS_APPROVED");
-            pw.println("# STAFF: TYPE|ID|NAME|PASSWORD|DEPARTMENT");
-            pw.println();
-
-            for (User user : users) {
-                if (user instanceof Student) {
-                    Student s = (Student) user;
-                    pw.printf("STUDENT|%s|%s|%s|%s|%d\n", s.getId(), s.getName(), s.getPasswordForPersistence(), s.getMajor(), s.getYear());
-                } else if (user instanceof CompanyRepresentative) {
-                    CompanyRepresentative r = (CompanyRepresentative) user;
-                    pw.printf("COMPANY_REP|%s|%s|%s|%s|%s|%s|%b\n", r.getId(), r.getName(), r.getPasswordForPersistence(), r.getCompanyName(), r.getDepartment(), r.getPosition(), r.getIsApproved());
-                } else if (user instanceof CareerCenterStaff) {
-                    CareerCenterStaff st = (CareerCenterStaff) user;
-                    pw.printf("STAFF|%s|%s|%s|%s\n", st.getId(), st.getName(), st.getPasswordForPersistence(), st.getDepartment());
-                }
-            }
+    private void persist(User user) throws java.io.IOException {
+        String record = formatRecord(user);
+        if (record == null) throw new java.io.IOException("Unsupported user type: " + user.getClass().getSimpleName());
+        try {
+            scheduler.put(journal, record).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            throw new java.io.IOException(e.getCause().getMessage(), e.getCause());
         }
     }
-}
 
+    private static String formatRecord(User user) {
+        if (user instanceof Student) {
+            Student s = (Student) user;
+            return String.format("STUDENT|%s|%s|%s|%s|%d", s.getId(), s.getName(), s.getPasswordForPersistence(), s.getMajor(), s.getYear());
+        } else if (user instanceof CompanyRepresentative) {
+            CompanyRepresentative r = (CompanyRepresentative) user;
+            return String.format("COMPANY_REP|%s|%s|%s|%s|%s|%s|%b", r.getId(), r.getName(), r.getPasswordForPersistence(), r.getCompanyName(), r.getDepartment(), r.getPosition(), r.getIsApproved());
+        } else if (user instanceof CareerCenterStaff) {
+            CareerCenterStaff st = (CareerCenterStaff) user;
+            return String.format("STAFF|%s|%s|%s|%s", st.getId(), st.getName(), st.getPasswordForPersistence(), st.getDepartment());
+        }
+        return null;
+    }
+}
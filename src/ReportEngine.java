@@ -0,0 +1,192 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Runs staff reports and their aggregations in parallel.
+ *
+ * <p>Aggregations split a range of rows (for example the columns of an
+ * {@link AnalyticsSnapshot}) in halves on a fork-join pool until a range
+ * is small enough to fold directly into a fresh accumulator. Partial
+ * accumulators are merged pairwise as the halves join, so any accumulator
+ * with an identity and an associative merge works, such as per-group
+ * count arrays merged by adding them.</p>
+ *
+ * <p>Several reports can also be run at once with {@link #run}. Each runs
+ * on a thread of its own, with what it prints captured through the
+ * {@link SessionConsole}, and the outputs are returned in the order the
+ * reports were given, so they read exactly as if run one after the
+ * other.</p>
+ *
+ * <p>Parallelism defaults to the number of processors and can be set with
+ * the {@code report.parallelism} system property.</p>
+ *
+ * @version 1.0
+ * @see AnalyticsSnapshot
+ */
+public class ReportEngine {
+    /** Ranges smaller than this are folded directly instead of being split further. */
+    private static final int MIN_CHUNK_ROWS = 32 * 1024;
+
+    private final int parallelism;
+    private final ForkJoinPool pool;
+    private final ExecutorService runners;
+
+    /**
+     * Folds rows [from, to) into an accumulator.
+     *
+     * @param <A> the accumulator type
+     */
+    @FunctionalInterface
+    public interface RangeFolder<A> {
+        void fold(A into, int from, int to);
+    }
+
+    /**
+     * Constructs an engine with the configured parallelism.
+     */
+    public ReportEngine() {
+        this(configuredParallelism());
+    }
+
+    /**
+     * Constructs an engine with the given parallelism.
+     *
+     * @param parallelism fork-join workers, and reports run at once
+     */
+    public ReportEngine(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.runners = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "report-runner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Aggregates rows [0, rows) in parallel.
+     *
+     * @param rows number of rows
+     * @param identity creates an empty accumulator
+     * @param folder folds a range of rows into an accumulator
+     * @param merge merges two accumulators; must be associative
+     * @param <A> the accumulator type
+     * @return the accumulator of all rows
+     */
+    public <A> A aggregate(int rows, Supplier<A> identity, RangeFolder<A> folder, BinaryOperator<A> merge) {
+        return pool.invoke(new RangeTask<>(0, rows, identity, folder, merge));
+    }
+
+    /**
+     * Merges per-group counts by adding the second into the first.
+     *
+     * @param into counts, changed
+     * @param other counts of the same groups
+     * @return {@code into}
+     */
+    public static int[] addInto(int[] into, int[] other) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += other[i];
+        }
+        return into;
+    }
+
+    /**
+     * Runs reports concurrently, capturing what each prints.
+     *
+     * @param reports the reports
+     * @return the output of each report, in the same order
+     */
+    public List<String> run(List<Runnable> reports) {
+        SessionConsole.install();
+        List<Future<String>> outputs = new ArrayList<>();
+        for (Runnable report : reports) {
+            outputs.add(runners.submit(() -> capture(report)));
+        }
+        List<String> results = new ArrayList<>();
+        for (Future<String> output : outputs) {
+            try {
+                results.add(output.get());
+            } catch (ExecutionException e) {
+                SystemLogger.logSystem("ERROR", "Report failed: " + e.getCause());
+                results.add("Report failed: " + e.getCause().getMessage() + System.lineSeparator());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return results;
+    }
+
+    private static String capture(Runnable report) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        SessionConsole.attach(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        try {
+            report.run();
+        } finally {
+            SessionConsole.detach();
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int configuredParallelism() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int configured = Integer.getInteger("report.parallelism", processors);
+        if (configured < 1) {
+            System.err.println("Warning: report.parallelism below 1, using " + processors);
+            return processors;
+        }
+        return configured;
+    }
+
+    /**
+     * Aggregates rows [from, to), splitting in halves while the range is large.
+     */
+    private static class RangeTask<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final Supplier<A> identity;
+        private final RangeFolder<A> folder;
+        private final BinaryOperator<A> merge;
+
+        RangeTask(int from, int to, Supplier<A> identity, RangeFolder<A> folder, BinaryOperator<A> merge) {
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.folder = folder;
+            this.merge = merge;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from > MIN_CHUNK_ROWS) {
+                int split = (from + to) >>> 1;
+                RangeTask<A> left = new RangeTask<>(from, split, identity, folder, merge);
+                RangeTask<A> right = new RangeTask<>(split, to, identity, folder, merge);
+                right.fork();
+                A head = left.compute();
+                return merge.apply(head, right.join());
+            }
+            A partial = identity.get();
+            folder.fold(partial, from, to);
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams report rows to CSV or JSON Lines files.
+ *
+ * <p>A report names its columns and then produces its rows one at a time
+ * through a {@link RowSink}. Each row is formatted into one reused line
+ * buffer and written through a 64 KiB buffer over the file's channel, so
+ * memory stays the same however many rows are exported. The file is
+ * written under a temporary name and renamed into place when complete,
+ * so a failed export never leaves a partial file behind.</p>
+ *
+ * <p>Formats:</p>
+ * <ul>
+ *   <li>{@link Format#CSV}: a header line of column names, then one line
+ *       per row, quoted as RFC 4180 requires;</li>
+ *   <li>{@link Format#JSON_LINES}: one JSON object per row, keyed by
+ *       column name, with numbers and booleans unquoted.</li>
+ * </ul>
+ *
+ * <p>Progress is reported every {@link #PROGRESS_INTERVAL_ROWS} rows, and
+ * the {@link Result} of an export gives its throughput in rows per
+ * second.</p>
+ *
+ * @version 1.0
+ */
+public class ReportExporter {
+    public static final int PROGRESS_INTERVAL_ROWS = 10_000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Output formats.
+     */
+    public enum Format {
+        CSV("csv"), JSON_LINES("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Receives the rows of a report, in order.
+     */
+    public interface RowSink {
+        /**
+         * Writes one row.
+         *
+         * @param values one value per column: text, a number, a boolean or null
+         */
+        void row(Object... values);
+    }
+
+    /**
+     * A report that produces its rows on demand.
+     */
+    public interface RowSource {
+        void writeTo(RowSink sink);
+    }
+
+    /**
+     * Told how an export is going.
+     */
+    public interface ProgressListener {
+        /**
+         * @param rows rows written so far
+         * @param expectedRows rows the report expects to produce, or -1 if unknown
+         */
+        void progress(long rows, long expectedRows);
+    }
+
+    /**
+     * Outcome of an export.
+     */
+    public static final class Result {
+        private final Path file;
+        private final long rows;
+        private final long bytes;
+        private final long nanos;
+
+        Result(Path file, long rows, long bytes, long nanos) {
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+
+        public double rowsPerSecond() {
+            return nanos == 0 ? 0.0 : rows * 1e9 / nanos;
+        }
+    }
+
+    private ReportExporter() {
+    }
+
+    /**
+     * Exports a report to a file, replacing any file of that name.
+     *
+     * @param file the file to write
+     * @param format the output format
+     * @param columns the column names
+     * @param expectedRows rows the report will produce, for progress, or -1 if unknown
+     * @param source produces the rows
+     * @param listener told of progress, or null
+     * @return rows and bytes written and the time taken
+     * @throws IOException if the file cannot be written
+     */
+    public static Result export(Path file, Format format, String[] columns, long expectedRows,
+                                RowSource source, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        RowWriter writer;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES);
+            writer = new RowWriter(out, format, columns, expectedRows, listener);
+            writer.header();
+            try {
+                source.writeTo(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (listener != null && writer.rows % PROGRESS_INTERVAL_ROWS != 0) {
+            listener.progress(writer.rows, expectedRows);
+        }
+        return new Result(file, writer.rows, writer.bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Formats rows into one reused line and writes it out.
+     */
+    private static class RowWriter implements RowSink {
+        private final OutputStream out;
+        private final Format format;
+        private final String[] columns;
+        private final long expectedRows;
+        private final ProgressListener listener;
+        private final StringBuilder line = new StringBuilder(256);
+        long rows;
+        long bytes;
+
+        RowWriter(OutputStream out, Format format, String[] columns, long expectedRows, ProgressListener listener) {
+            this.out = out;
+            this.format = format;
+            this.columns = columns.clone();
+            this.expectedRows = expectedRows;
+            this.listener = listener;
+        }
+
+        void header() throws IOException {
+            if (format == Format.CSV) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) line.append(',');
+                    appendCsv(columns[i]);
+                }
+                writeLine();
+            }
+        }
+
+        @Override
+        public void row(Object... values) {
+            if (values.length != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " values, got " + values.length);
+            }
+            if (format == Format.CSV) {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) line.append(',');
+                    if (values[i] != null) appendCsv(values[i].toString());
+                }
+            } else {
+                line.append('{');
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) line.append(',');
+                    appendJsonString(columns[i]);
+                    line.append(':');
+                    appendJsonValue(values[i]);
+                }
+                line.append('}');
+            }
+            try {
+                writeLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+            if (listener != null && rows % PROGRESS_INTERVAL_ROWS == 0) {
+                listener.progress(rows, expectedRows);
+            }
+        }
+
+        private void writeLine() throws IOException {
+            byte[] encoded = line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+            line.setLength(0);
+            out.write(encoded);
+            bytes += encoded.length;
+        }
+
+        private void appendCsv(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') line.append('"');
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        private void appendJsonValue(Object value) {
+            if (value == null) {
+                line.append("null");
+            } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long) {
+                line.append(value);
+            } else if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                // JSON has no NaN or infinity
+                if (Double.isFinite(number)) line.append(value);
+                else line.append("null");
+            } else {
+                appendJsonString(value.toString());
+            }
+        }
+
+        private void appendJsonString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        line.append("\\\"");
+                        break;
+                    case '\\':
+                        line.append("\\\\");
+                        break;
+                    case '\n':
+                        line.append("\\n");
+                        break;
+                    case '\r':
+                        line.append("\\r");
+                        break;
+                    case '\t':
+                        line.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                }
+            }
+            line.append('"');
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log file that rolls over by size and by day.
+ *
+ * <p>Lines are appended to the active segment (e.g. {@code logs/system.log})
+ * through a writer that stays open between calls. When the segment would
+ * exceed its size limit, or the first line of a new day arrives, the
+ * segment is closed and renamed to {@code system-<date>.<n>.log}, where
+ * the date is the day the segment covers, and a new active segment is
+ * opened. Renamed segments are gzip-compressed on a background thread,
+ * which also deletes the oldest archives beyond the retention limit.</p>
+ *
+ * <p>Not thread-safe; used only by the {@link SystemLogger} writer thread.</p>
+ *
+ * @version 1.0
+ */
+class RollingLogFile {
+    private static final ExecutorService ARCHIVER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path directory;
+    private final Path active;
+    private final String baseName;
+    private final long maxBytes;
+    private final int maxArchives;
+
+    private Writer writer;
+    private boolean swept;
+    // Size of the active segment, counting buffered characters as one byte each
+    private long size;
+    private LocalDate segmentDay;
+
+    /**
+     * Constructs a rolling log file.
+     *
+     * @param directory directory holding the active segment and archives
+     * @param fileName name of the active segment, e.g. system.log
+     * @param maxBytes size after which the segment is rolled over
+     * @param maxArchives number of compressed archives kept
+     */
+    RollingLogFile(Path directory, String fileName, long maxBytes, int maxArchives) {
+        this.directory = directory;
+        this.active = directory.resolve(fileName);
+        int dot = fileName.lastIndexOf('.');
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.maxBytes = Math.max(1024, maxBytes);
+        this.maxArchives = Math.max(0, maxArchives);
+    }
+
+    /**
+     * Appends one line, rolling over first if needed.
+     *
+     * @param line the line, without line separator
+     * @param day the day the line belongs to
+     * @throws IOException if the segment cannot be written or rolled over
+     */
+    void append(CharSequence line, LocalDate day) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        int length = line.length() + System.lineSeparator().length();
+        if (size > 0 && (!day.equals(segmentDay) || size + length > maxBytes)) {
+            rollOver();
+        }
+        if (size == 0) {
+            segmentDay = day;
+        }
+        writer.append(line).append(System.lineSeparator());
+        size += length;
+    }
+
+    /**
+     * Flushes buffered lines to the active segment.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Closes the active segment; the next append reopens it.
+     */
+    void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Nothing more can be done with this segment
+            }
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        if (!swept) {
+            swept = true;
+            sweepUncompressed();
+        }
+        size = Files.exists(active) ? Files.size(active) : 0;
+        if (size > 0) {
+            // Continue the existing segment; it covers the day it was last written
+            segmentDay = LocalDate.ofInstant(Files.getLastModifiedTime(active).toInstant(), ZoneId.systemDefault());
+        }
+        OutputStream out = Files.newOutputStream(active, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), 64 * 1024);
+    }
+
+    private void rollOver() throws IOException {
+        writer.close();
+        writer = null;
+        Path archive = nextArchiveName(segmentDay);
+        Files.move(active, archive);
+        open();
+        ARCHIVER.execute(() -> compressAndPrune(archive));
+    }
+
+    private Path nextArchiveName(LocalDate day) {
+        for (int n = 1; ; n++) {
+            String name = baseName + "-" + day + "." + n + ".log";
+            Path candidate = directory.resolve(name);
+            if (!Files.exists(candidate) && !Files.exists(directory.resolve(name + ".gz"))) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Queues archives left uncompressed by an earlier run, e.g. one that
+     * exited while the archiver was still working.
+     */
+    private void sweepUncompressed() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, baseName + "-*.log")) {
+            for (Path archive : stream) {
+                ARCHIVER.execute(() -> compressAndPrune(archive));
+            }
+        }
+    }
+
+    private void compressAndPrune(Path archive) {
+        Path compressed = archive.resolveSibling(archive.getFileName() + ".gz");
+        Path partial = archive.resolveSibling(archive.getFileName() + ".gz.tmp");
+        try {
+            // Compressed under a temporary name so an interrupted run never leaves a truncated archive
+            try (InputStream in = Files.newInputStream(archive);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                in.transferTo(out);
+            }
+            Files.move(partial, compressed, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(archive);
+        } catch (IOException e) {
+            // Leave the uncompressed segment; it is still a valid archive
+            System.err.println("Warning: Could not compress " + archive + ": " + e.getMessage());
+            try {
+                // Not matched by the sweep, so it would never be cleaned up otherwise
+                Files.deleteIfExists(partial);
+            } catch (IOException cleanup) {
+                System.err.println("Warning: Could not delete " + partial + ": " + cleanup.getMessage());
+            }
+        }
+        prune();
+    }
+
+    /** Deletes the oldest compressed archives beyond the retention limit. */
+    private void prune() {
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, baseName + "-*.log.gz")) {
+            for (Path path : stream) {
+                archives.add(path);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        if (archives.size() <= maxArchives) {
+            return;
+        }
+        // Oldest first by the date and sequence number in the name; compression order does not matter
+        archives.sort(Comparator.comparing((Path path) -> archiveDate(path)).thenComparingInt(RollingLogFile::archiveSequence));
+        for (Path path : archives.subList(0, archives.size() - maxArchives)) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Retried after the next rollover
+            }
+        }
+    }
+
+    private String archiveDate(Path archive) {
+        String name = archive.getFileName().toString();
+        int start = baseName.length() + 1;
+        int dot = name.indexOf('.', start);
+        return dot > start ? name.substring(start, dot) : name;
+    }
+
+    private static int archiveSequence(Path archive) {
+        String name = archive.getFileName().toString();
+        int end = name.lastIndexOf(".log");
+        int start = name.lastIndexOf('.', end - 1) + 1;
+        try {
+            return Integer.parseInt(name.substring(start, end));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Standard output that each session thread can point at its own client.
+ *
+ * <p>The CLI and its helpers ({@link ColorUtil}, {@link StatisticsUtil})
+ * print to {@code System.out}. When the {@link SessionServer} runs, it
+ * installs this stream as {@code System.out} and attaches each session's
+ * socket stream to the session's thread, so everything a session prints
+ * goes to its own client, and anything printed from other threads goes to
+ * the real standard output.</p>
+ *
+ * <p>Every method passes straight to the current thread's stream without
+ * taking the lock of this shared stream, so sessions do not wait on each
+ * other's output.</p>
+ *
+ * @version 1.0
+ */
+public final class SessionConsole extends PrintStream {
+    private static final ThreadLocal<PrintStream> SESSION_OUT = new ThreadLocal<>();
+
+    private final PrintStream fallback;
+
+    private SessionConsole(PrintStream fallback) {
+        super(fallback, true);
+        this.fallback = fallback;
+    }
+
+    /**
+     * Installs the console as {@code System.out}, if it is not already.
+     */
+    public static synchronized void install() {
+        if (!(System.out instanceof SessionConsole)) {
+            System.setOut(new SessionConsole(System.out));
+        }
+    }
+
+    /**
+     * Sends what the current thread prints to a session's stream.
+     *
+     * @param out the session's output
+     */
+    public static void attach(PrintStream out) {
+        SESSION_OUT.set(out);
+    }
+
+    /**
+     * Sends what the current thread prints to standard output again.
+     */
+    public static void detach() {
+        SESSION_OUT.remove();
+    }
+
+    private PrintStream target() {
+        PrintStream out = SESSION_OUT.get();
+        return out != null ? out : fallback;
+    }
+
+    @Override
+    public void flush() {
+        target().flush();
+    }
+
+    @Override
+    public void close() {
+        target().close();
+    }
+
+    @Override
+    public boolean checkError() {
+        return target().checkError();
+    }
+
+    @Override
+    public void write(int b) {
+        target().write(b);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        target().write(buf, off, len);
+    }
+
+    @Override
+    public void print(boolean b) {
+        target().print(b);
+    }
+
+    @Override
+    public void print(char c) {
+        target().print(c);
+    }
+
+    @Override
+    public void print(int i) {
+        target().print(i);
+    }
+
+    @Override
+    public void print(long l) {
+        target().print(l);
+    }
+
+    @Override
+    public void print(float f) {
+        target().print(f);
+    }
+
+    @Override
+    public void print(double d) {
+        target().print(d);
+    }
+
+    @Override
+    public void print(char[] s) {
+        target().print(s);
+    }
+
+    @Override
+    public void print(String s) {
+        target().print(s);
+    }
+
+    @Override
+    public void print(Object obj) {
+        target().print(obj);
+    }
+
+    @Override
+    public void println() {
+        target().println();
+    }
+
+    @Override
+    public void println(boolean x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(char x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(int x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(long x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(float x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(double x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(char[] x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(String x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(Object x) {
+        target().println(x);
+    }
+
+    @Override
+    public PrintStream printf(String format, Object... args) {
+        target().printf(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream printf(Locale l, String format, Object... args) {
+        target().printf(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(String format, Object... args) {
+        target().format(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(Locale l, String format, Object... args) {
+        target().format(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq) {
+        target().append(csq);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq, int start, int end) {
+        target().append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(char c) {
+        target().append(c);
+        return this;
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the CLI to many users at once over TCP on localhost.
+ *
+ * <p>Each connection gets its own session: a {@link Main.CLI} sharing the
+ * controllers of the CLI that loaded the data, with its own current user
+ * and filter preferences, reading lines from the connection and printing
+ * back to it through the {@link SessionConsole}. The protocol is the CLI
+ * itself, so any line-based client works, for example
+ * {@code nc localhost 7070}.</p>
+ *
+ * <p>Each session runs on its own thread: a virtual thread when the JVM
+ * has them (Java 21 and later), otherwise a daemon platform thread. At
+ * most {@link #DEFAULT_MAX_SESSIONS} sessions are open at once; further
+ * connections are told to try later and closed. A session ends when its
+ * user chooses Exit, closes the connection or is idle for
+ * {@link #IDLE_TIMEOUT_MINUTES} minutes.</p>
+ *
+ * @version 1.0
+ */
+public class SessionServer {
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    public static final int IDLE_TIMEOUT_MINUTES = 30;
+
+    private final Main.CLI shared;
+    private final int port;
+    private final Semaphore sessions;
+    private final ExecutorService executor = newSessionExecutor();
+    private final AtomicInteger open = new AtomicInteger();
+
+    /**
+     * Creates a server whose sessions share the controllers of a CLI.
+     *
+     * @param shared the CLI that loaded the data
+     * @param port the port to listen on
+     * @param maxSessions sessions allowed at once
+     */
+    public SessionServer(Main.CLI shared, int port, int maxSessions) {
+        this.shared = shared;
+        this.port = port;
+        this.sessions = new Semaphore(maxSessions);
+    }
+
+    /**
+     * Accepts connections until the server socket fails.
+     *
+     * @throws IOException if the port cannot be opened
+     */
+    public void serve() throws IOException {
+        SessionConsole.install();
+        try (ServerSocket server = new ServerSocket(port, 512, InetAddress.getLoopbackAddress())) {
+            System.out.println("Serving sessions on " + server.getLocalSocketAddress());
+            SystemLogger.logSystem("SERVER_START", "Listening on port " + server.getLocalPort());
+            while (true) {
+                Socket socket = server.accept();
+                if (!sessions.tryAcquire()) {
+                    reject(socket);
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        runSession(socket);
+                    } finally {
+                        sessions.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sessions open now.
+     *
+     * @return the number of connected sessions
+     */
+    public int openSessions() {
+        return open.get();
+    }
+
+    private void runSession(Socket socket) {
+        open.incrementAndGet();
+        try (socket) {
+            socket.setSoTimeout((int) TimeUnit.MINUTES.toMillis(IDLE_TIMEOUT_MINUTES));
+            InputStream in = socket.getInputStream();
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            SessionConsole.attach(out);
+            shared.newSession(new Scanner(in, StandardCharsets.UTF_8)).run();
+        } catch (NoSuchElementException e) {
+            // The client closed the connection or went idle
+        } catch (IOException | RuntimeException e) {
+            SystemLogger.logSystem("ERROR", "Session from " + socket.getRemoteSocketAddress() + " failed: " + e);
+        } finally {
+            SessionConsole.detach();
+            open.decrementAndGet();
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            socket.getOutputStream().write("Too many sessions, please try again later.\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The client is gone already
+        }
+    }
+
+    /**
+     * Virtual thread per session where available, so that thousands of
+     * idle sessions cost little; daemon platform threads otherwise.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "session-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
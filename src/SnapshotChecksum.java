@@ -0,0 +1,142 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Checksum trailer of the data/*.txt snapshot files.
+ *
+ * <p>A snapshot written by {@link RecordJournal} ends with the comment line</p>
+ * <pre>
+ * # CHECKSUM crc32=1a2b3c4d bytes=1234
+ * </pre>
+ * <p>where the CRC-32 and the byte count cover everything before that line.
+ * Since the trailer is a comment, older readers simply skip it. Files
+ * without a trailer (hand-edited or written before checksums existed) are
+ * accepted as they are.</p>
+ *
+ * @version 1.0
+ * @see RecordJournal
+ */
+class SnapshotChecksum {
+    static final String PREFIX = "# CHECKSUM ";
+
+    /** The trailer is the last line and is never longer than this. */
+    private static final int MAX_TRAILER_BYTES = 128;
+
+    /**
+     * Formats the trailer line, including its line feed.
+     *
+     * @param crc checksum of the preceding bytes
+     * @param bytes number of preceding bytes
+     * @return the trailer line
+     */
+    static String trailer(long crc, long bytes) {
+        return String.format("%scrc32=%08x bytes=%d\n", PREFIX, crc, bytes);
+    }
+
+    /**
+     * Verifies the trailer of a snapshot file, if it has one.
+     *
+     * @param path the snapshot file
+     * @throws IOException if the file cannot be read or does not match its trailer
+     */
+    static void verify(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int tailLength = (int) Math.min(size, MAX_TRAILER_BYTES);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength);
+            while (tail.hasRemaining() && channel.read(tail, size - tailLength + tail.position()) >= 0) {
+                // Positional reads until the tail is full
+            }
+            long[] trailer = parseTrailer(tail.array(), 0, tailLength, size - tailLength);
+            if (trailer == null) {
+                return;
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long position = 0;
+            while (position < trailer[2]) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), trailer[2] - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) break;
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+            check(path.toString(), trailer, crc.getValue());
+        }
+    }
+
+    /**
+     * Verifies the trailer of a snapshot already read into memory, if it has one.
+     *
+     * @param name file name used in the error message
+     * @param data the whole file
+     * @throws IOException if the data does not match its trailer
+     */
+    static void verify(String name, byte[] data) throws IOException {
+        int tailLength = Math.min(data.length, MAX_TRAILER_BYTES);
+        long[] trailer = parseTrailer(data, data.length - tailLength, data.length, 0);
+        if (trailer == null) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, (int) trailer[2]);
+        check(name, trailer, crc.getValue());
+    }
+
+    private static void check(String name, long[] trailer, long actualCrc) throws IOException {
+        if (trailer[1] != trailer[2]) {
+            throw new IOException("Checksum mismatch in " + name + ": expected " + trailer[1]
+                + " bytes before trailer, found " + trailer[2]);
+        }
+        if (trailer[0] != actualCrc) {
+            throw new IOException(String.format("Checksum mismatch in %s: expected crc32=%08x, found %08x",
+                name, trailer[0], actualCrc));
+        }
+    }
+
+    /**
+     * Finds the trailer in the last line of {@code data[from, to)}.
+     *
+     * @param offset file offset of {@code data[0]}
+     * @return {crc, recorded byte count, offset of the trailer line}, or null if there is no trailer
+     */
+    private static long[] parseTrailer(byte[] data, int from, int to, long offset) throws IOException {
+        int end = to;
+        while (end > from && (data[end - 1] == '\n' || data[end - 1] == '\r')) end--;
+        int start = end;
+        while (start > from && data[start - 1] != '\n') start--;
+        if (start == from && offset + from > 0) {
+            return null; // Last line is longer than any trailer
+        }
+
+        String line = new String(data, start, end - start, StandardCharsets.US_ASCII);
+        if (!line.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            long crc = -1;
+            long bytes = -1;
+            for (String part : line.substring(PREFIX.length()).trim().split(" ")) {
+                if (part.startsWith("crc32=")) {
+                    crc = Long.parseLong(part.substring(6), 16);
+                } else if (part.startsWith("bytes=")) {
+                    bytes = Long.parseLong(part.substring(6));
+                }
+            }
+            if (crc < 0 || bytes < 0) {
+                throw new NumberFormatException(line);
+            }
+            return new long[] { crc, bytes, offset + start };
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed checksum trailer: " + line);
+        }
+    }
+}
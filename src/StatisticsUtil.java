@@ -60,13 +60,13 @@ public class StatisticsUtil {
     /**
      * Generates statistics for a company representative's internships.
      * 
+     * <p>Application counts come from the live metrics, so the cost
+     * depends on the representative's internships only.</p>
+     * 
      * @param rep the company representative
-     * @param internships list of all internships
-     * @param applications list of all applications
+     * @param metrics live counts of applications per internship
      */
-    public static void printCompanyRepStatistics(CompanyRepresentative rep, 
-                                                  List<InternshipOpportunity> internships,
-                                                  List<Application> applications) {
+    public static void printCompanyRepStatistics(CompanyRepresentative rep, LiveMetrics metrics) {
         List<InternshipOpportunity> myInternships = rep.getCreatedInternships();
         
         int total = myInternships.size();
@@ -89,11 +89,7 @@ public class StatisticsUtil {
             }
             
             // Count applications for this internship
-            for (Application app : applications) {
-                if (app.getOpportunity().equals(opp)) {
-                    totalApplications++;
-                }
-            }
+            totalApplications += metrics.countApplicationsFor(opp);
         }
         
         ColorUtil.printHeader("\n========== MY INTERNSHIP STATISTICS ==========");
@@ -113,56 +109,24 @@ public class StatisticsUtil {
     /**
      * Generates system-wide statistics for staff.
      * 
-     * @param users list of all users
-     * @param internships list of all internships
-     * @param applications list of all applications
+     * <p>Reads the live metrics, which are kept current as users,
+     * internships and applications change, instead of counting them.</p>
+     * 
+     * @param metrics the live metrics
      */
-    public static void printSystemStatistics(List<User> users, 
-                                             List<InternshipOpportunity> internships,
-                                             List<Application> applications) {
-        int students = 0;
-        int reps = 0;
-        int staff = 0;
-        int pendingReps = 0;
-        
-        for (User user : users) {
-            if (user instanceof Student) {
-                students++;
-            } else if (user instanceof CompanyRepresentative) {
-                reps++;
-                if (!((CompanyRepresentative) user).getIsApproved()) {
-                    pendingReps++;
-                }
-            } else if (user instanceof CareerCenterStaff) {
-                staff++;
-            }
-        }
-        
-        int activeInternships = 0;
-        int pendingInternships = 0;
-        int filledInternships = 0;
-        
-        for (InternshipOpportunity opp : internships) {
-            if (opp.getStatus() == InternshipStatus.APPROVED) {
-                activeInternships++;
-            } else if (opp.getStatus() == InternshipStatus.PENDING) {
-                pendingInternships++;
-            } else if (opp.getStatus() == InternshipStatus.FILLED) {
-                filledInternships++;
-            }
-        }
-        
-        int totalApplications = applications.size();
-        int pendingApplications = 0;
-        int acceptedApplications = 0;
-        
-        for (Application app : applications) {
-            if (app.getStatus() == ApplicationStatus.PENDING) {
-                pendingApplications++;
-            } else if (app.getStatus() == ApplicationStatus.ACCEPTED) {
-                acceptedApplications++;
-            }
-        }
+    public static void printSystemStatistics(LiveMetrics metrics) {
+        int students = metrics.getStudents();
+        int reps = metrics.getRepresentatives();
+        int staff = metrics.getStaff();
+        int pendingReps = metrics.getPendingRepresentatives();
+        
+        int activeInternships = metrics.countInternships(InternshipStatus.APPROVED);
+        int pendingInternships = metrics.countInternships(InternshipStatus.PENDING);
+        int filledInternships = metrics.countInternships(InternshipStatus.FILLED);
+        
+        int totalApplications = metrics.countApplications();
+        int pendingApplications = metrics.countApplications(ApplicationStatus.PENDING);
+        int acceptedApplications = metrics.countApplications(ApplicationStatus.ACCEPTED);
         
         ColorUtil.printHeader("\n========== SYSTEM OVERVIEW ==========");
         System.out.println("USERS:");
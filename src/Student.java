@@ -1,6 +1,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents a Student user in the Internship Placement Management System.
@@ -27,6 +28,10 @@ import java.util.List;
  * <p>This class maintains a list of applications and enforces all
  * student-specific validation rules through the addApplication method.</p>
  * 
+ * <p>Applications are held in a copy-on-write list, and changes that
+ * depend on its contents, such as adding an application or accepting a
+ * placement, hold the student's lock.</p>
+ * 
  * @version 1.0
  * @see User
  * @see Application
@@ -35,7 +40,7 @@ public class Student extends User {
     private int year;
     private String major;
 
-    private final List<Application> applications = new ArrayList<>();
+    private final List<Application> applications = new CopyOnWriteArrayList<>();
 
     private static final int MAX_ACTIVE_APPLICATIONS = 3;
 
@@ -56,7 +61,7 @@ public class Student extends User {
         return Collections.unmodifiableList(applications);
     }
 
-    public void addApplication(Application app) throws ApplicationException {
+    public synchronized void addApplication(Application app) throws ApplicationException {
         if (app == null) return;
 
         // Check for duplicate application (by internship equality, not object reference)
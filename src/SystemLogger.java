@@ -1,66 +1,353 @@
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * System logger for recording user actions and system events.
- * 
+ *
  * <p>Logs are written to logs/system.log with timestamps and user context.
  * This provides audit trail and debugging capabilities.</p>
- * 
+ *
+ * <p>Logging is asynchronous: {@link #log} and {@link #logSystem} only
+ * capture the event and place it in a bounded lock-free
+ * {@link LogRingBuffer}. A single background writer thread formats the
+ * events, appends them in batches to a log file that stays open, and
+ * flushes at least every {@value #FLUSH_INTERVAL_MILLIS} ms. What happens
+ * when the buffer is full is decided by the {@link OverflowPolicy}, which
+ * can be set with {@link #setOverflowPolicy} or the
+ * {@code systemlogger.overflow} system property.</p>
+ *
+ * <p>The log is a {@link RollingLogFile}: it rolls over daily and when it
+ * reaches {@code systemlogger.maxBytes} (10 MB by default), and at most
+ * {@code systemlogger.maxArchives} (30 by default) compressed archives
+ * are kept.</p>
+ *
+ * <p>Every event is also written to the structured {@link AuditLog} in
+ * logs/audit, which can be searched with {@link AuditQuery}.</p>
+ *
  * @version 1.0
  */
 public class SystemLogger {
-    private static final String LOG_FILE = "logs/system.log";
-    private static final DateTimeFormatter FORMATTER = 
+    /**
+     * What a logging call does when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait for the writer to make room; no event is lost. */
+        BLOCK,
+        /** Discard the event. */
+        DROP,
+        /**
+         * Once the buffer is more than three quarters full, keep only one
+         * event in {@value SystemLogger#SAMPLE_RATE}; discard when full.
+         */
+        SAMPLE
+    }
+
+    private static final String LOG_DIR = "logs";
+    private static final String LOG_FILE_NAME = "system.log";
+    private static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+    private static final int DEFAULT_MAX_ARCHIVES = 30;
+    private static final long DEFAULT_AUDIT_SEGMENT_BYTES = 4L * 1024 * 1024;
+    private static final DateTimeFormatter FORMATTER =
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
+
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    static final long FLUSH_INTERVAL_MILLIS = 200;
+    static final int SAMPLE_RATE = 10;
+
+    private static final LogRingBuffer<Object> BUFFER = new LogRingBuffer<>(BUFFER_CAPACITY);
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static final AtomicLong SAMPLE_COUNTER = new AtomicLong();
+    private static volatile OverflowPolicy overflowPolicy = initialPolicy();
+    private static final Thread WRITER = startWriter();
+
     /**
      * Logs a user action.
-     * 
+     *
      * @param action the action type (LOGIN, LOGOUT, APPLICATION, etc.)
      * @param userId the user ID performing the action
      * @param details additional details about the action
      */
     public static void log(String action, String userId, String details) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        String logEntry = String.format("[%s] %s: User %s - %s", 
-            timestamp, action, userId, details);
-        writeToFile(logEntry);
+        enqueue(new LogEvent(System.currentTimeMillis(), action, userId, null, details, true));
+    }
+
+    /**
+     * Logs a user action on a specific entity.
+     *
+     * <p>The entity (e.g. the ID of the representative or the title of the
+     * internship acted on) is recorded as its own field in the audit log.</p>
+     *
+     * @param action the action type
+     * @param userId the user ID performing the action
+     * @param entity the entity acted on
+     * @param details additional details about the action
+     */
+    public static void log(String action, String userId, String entity, String details) {
+        enqueue(new LogEvent(System.currentTimeMillis(), action, userId, entity, details, true));
     }
-    
+
     /**
      * Logs a system event without user context.
-     * 
+     *
      * @param action the action type
      * @param details event details
      */
     public static void logSystem(String action, String details) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        String logEntry = String.format("[%s] %s: %s", 
-            timestamp, action, details);
-        writeToFile(logEntry);
+        enqueue(new LogEvent(System.currentTimeMillis(), action, null, null, details, false));
     }
-    
+
     /**
-     * Writes log entry to file.
-     * 
-     * @param logEntry the formatted log entry
+     * Sets the policy applied when the log buffer is full.
+     *
+     * @param policy the overflow policy
      */
-    private static void writeToFile(String logEntry) {
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        if (policy != null) {
+            overflowPolicy = policy;
+        }
+    }
+
+    public static OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Gets the number of events discarded because the buffer was full
+     * and not yet reported in the log.
+     *
+     * @return pending dropped-event count
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Waits until every event logged before this call is written and flushed.
+     *
+     * @return false if the writer did not finish within a few seconds
+     */
+    public static boolean flush() {
+        FlushMarker marker = new FlushMarker();
+        while (!BUFFER.offer(marker)) {
+            LockSupport.unpark(WRITER);
+            LockSupport.parkNanos(50_000);
+        }
+        LockSupport.unpark(WRITER);
         try {
-            // Create logs directory if it doesn't exist
-            new java.io.File("logs").mkdirs();
-            
-            // Append to log file
-            try (PrintWriter writer = new PrintWriter(new FileWriter(LOG_FILE, true))) {
-                writer.println(logEntry);
+            return marker.done.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void enqueue(LogEvent event) {
+        switch (overflowPolicy) {
+            case SAMPLE:
+                if (BUFFER.size() > BUFFER.capacity() / 4 * 3
+                        && SAMPLE_COUNTER.incrementAndGet() % SAMPLE_RATE != 0) {
+                    DROPPED.incrementAndGet();
+                    return;
+                }
+                // A kept sample is still dropped if there is no room at all
+                offerOrDrop(event);
+                return;
+            case DROP:
+                offerOrDrop(event);
+                return;
+            default:
+                while (!BUFFER.offer(event)) {
+                    LockSupport.unpark(WRITER);
+                    LockSupport.parkNanos(50_000);
+                }
+        }
+    }
+
+    private static void offerOrDrop(LogEvent event) {
+        if (!BUFFER.offer(event)) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    private static OverflowPolicy initialPolicy() {
+        String configured = System.getProperty("systemlogger.overflow");
+        if (configured != null) {
+            try {
+                return OverflowPolicy.valueOf(configured.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Warning: Unknown log overflow policy '" + configured + "', using BLOCK");
+            }
+        }
+        return OverflowPolicy.BLOCK;
+    }
+
+    private static Thread startWriter() {
+        Thread writer = new Thread(new LogWriter(), "system-logger");
+        writer.setDaemon(true);
+        writer.start();
+        // Write out whatever is still buffered when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(SystemLogger::flush, "system-logger-shutdown"));
+        return writer;
+    }
+
+    /**
+     * A log call captured as-is; formatting happens on the writer thread.
+     */
+    private static class LogEvent {
+        final long timeMillis;
+        final String action;
+        final String userId;
+        final String entity;
+        final String details;
+        final boolean userAction;
+
+        LogEvent(long timeMillis, String action, String userId, String entity, String details, boolean userAction) {
+            this.timeMillis = timeMillis;
+            this.action = action;
+            this.userId = userId;
+            this.entity = entity;
+            this.details = details;
+            this.userAction = userAction;
+        }
+    }
+
+    /**
+     * Queued by {@link #flush()}; released once everything before it is written.
+     */
+    private static class FlushMarker {
+        final CountDownLatch done = new CountDownLatch(1);
+    }
+
+    /**
+     * Body of the single writer thread.
+     */
+    private static class LogWriter implements Runnable {
+        private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+        private final StringBuilder line = new StringBuilder(256);
+        private final RollingLogFile out = new RollingLogFile(Paths.get(LOG_DIR), LOG_FILE_NAME,
+            Long.getLong("systemlogger.maxBytes", DEFAULT_MAX_BYTES),
+            Integer.getInteger("systemlogger.maxArchives", DEFAULT_MAX_ARCHIVES));
+        private final AuditLog audit = new AuditLog(Paths.get(LOG_DIR, "audit"),
+            Long.getLong("systemlogger.auditSegmentBytes", DEFAULT_AUDIT_SEGMENT_BYTES));
+        private boolean unflushed;
+        private long lastFlush = System.nanoTime();
+        // Events within one second share their formatted timestamp
+        private long cachedSecond = Long.MIN_VALUE;
+        private LocalDate cachedDay;
+        private String cachedTimestamp;
+        private boolean failing;
+
+        @Override
+        public void run() {
+            while (true) {
+                int written = 0;
+                Object item;
+                while (written < BATCH_SIZE && (item = BUFFER.poll()) != null) {
+                    if (item instanceof FlushMarker) {
+                        reportDropped();
+                        flushFile();
+                        ((FlushMarker) item).done.countDown();
+                    } else {
+                        write((LogEvent) item);
+                        written++;
+                    }
+                }
+
+                if (unflushed && (written == 0
+                        || System.nanoTime() - lastFlush >= TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS))) {
+                    reportDropped();
+                    flushFile();
+                }
+                if (written == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
             }
-        } catch (IOException e) {
+        }
+
+        private void write(LogEvent event) {
+            line.setLength(0);
+            line.append('[').append(timestamp(event.timeMillis)).append("] ").append(event.action).append(": ");
+            if (event.userAction) {
+                line.append("User ").append(event.userId).append(" - ");
+            }
+            line.append(event.details);
+            writeLine(cachedDay);
+            try {
+                audit.append(new AuditRecord(event.timeMillis, event.action,
+                    event.userAction ? event.userId : null, event.entity, event.details));
+            } catch (IOException e) {
+                audit.close();
+                fail();
+            }
+        }
+
+        private void reportDropped() {
+            long dropped = DROPPED.getAndSet(0);
+            if (dropped > 0) {
+                line.setLength(0);
+                line.append('[').append(timestamp(System.currentTimeMillis())).append("] LOG_DROPPED: ")
+                    .append(dropped).append(" events dropped (").append(overflowPolicy).append(" policy)");
+                writeLine(cachedDay);
+            }
+        }
+
+        private String timestamp(long timeMillis) {
+            long second = Math.floorDiv(timeMillis, 1000);
+            if (second != cachedSecond) {
+                cachedSecond = second;
+                LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+                cachedDay = time.toLocalDate();
+                cachedTimestamp = time.format(FORMATTER);
+            }
+            return cachedTimestamp;
+        }
+
+        private void writeLine(LocalDate day) {
+            try {
+                // Rolls over to a new segment when the day changes or the size limit is reached
+                out.append(line, day);
+                unflushed = true;
+                failing = false;
+            } catch (IOException e) {
+                fail();
+            }
+        }
+
+        private void flushFile() {
+            lastFlush = System.nanoTime();
+            if (!unflushed) {
+                return;
+            }
+            try {
+                out.flush();
+                audit.flush();
+                unflushed = false;
+            } catch (IOException e) {
+                fail();
+            }
+        }
+
+        private void fail() {
             // Silently fail - don't disrupt user experience
-            System.err.println("Warning: Could not write to log file");
+            if (!failing) {
+                System.err.println("Warning: Could not write to log file");
+                failing = true;
+            }
+            // Reopened on the next event
+            out.close();
+            audit.close();
+            unflushed = false;
         }
     }
 }
@@ -12,7 +12,7 @@
  * <ul>
  *   <li>Unique ID (student ID, email, or staff email)</li>
  *   <li>Name</li>
- *   <li>Password (encrypted, default: "password")</li>
+ *   <li>Password, stored salted and hashed by {@link PasswordHasher} (default: "password")</li>
  * </ul>
  * 
  * @version 1.0
@@ -20,7 +20,7 @@
 public abstract class User {
     private String id;
     private String name;
-    private String password = "password";
+    private volatile String password = "password";
     public String getId(){
         return id;
     }
@@ -37,8 +37,8 @@ public abstract class User {
         if (oldPassword == null || newPassword == null) {
             return false;
         }
-        if (oldPassword.equals(password)) {
-            password = newPassword;
+        if (PasswordHasher.verify(oldPassword, password)) {
+            password = PasswordHasher.hash(newPassword);
             return true;
         }
         return false;
@@ -48,11 +48,11 @@ public abstract class User {
         if (inputPassword == null) {
             return false;
         }
-        return password.equals(inputPassword);
+        return PasswordHasher.verify(inputPassword, password);
     }
 
     public void setPassword(String newPassword) {
-        this.password = newPassword;
+        this.password = PasswordHasher.hash(newPassword);
     }
     /**
      * Package-private method for persistence only.
@@ -62,6 +62,14 @@ public abstract class User {
         return this.password;
     }
 
+    /**
+     * Package-private method for persistence only: restores a password as
+     * stored, hashed or legacy plaintext, without hashing it again.
+     */
+    void setPasswordForPersistence(String storedPassword) {
+        this.password = storedPassword;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users of the system, looked up by ID.
+ *
+ * <p>Wraps the list of users loaded from data/users.txt with a concurrent
+ * index from user ID to user, so that logins and registrations find a user
+ * in constant time instead of scanning the list. The list keeps the load
+ * order for {@link AuthServiceInterface#getUsers()}; it is only changed
+ * through the directory, which keeps both in step.</p>
+ *
+ * <p>{@link AuthController} and {@link RegistrationController} share one
+ * directory, so a representative registered through one can log in
+ * through the other. Lookups do not lock; additions and removals lock the
+ * list, and are counted in the {@link LiveMetrics}, if set.</p>
+ *
+ * @version 1.0
+ */
+public class UserDirectory {
+    private final List<User> users;
+    private final Map<String, User> byId = new ConcurrentHashMap<>();
+    private volatile LiveMetrics metrics;
+
+    public UserDirectory() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Creates a directory over a list of users. Where several users have
+     * the same ID, the first is found, as a scan of the list would.
+     *
+     * @param users the users, kept and changed by the directory
+     */
+    public UserDirectory(List<User> users) {
+        this.users = users;
+        for (User user : users) {
+            if (user != null && user.getId() != null) {
+                byId.putIfAbsent(user.getId(), user);
+            }
+        }
+    }
+
+    /**
+     * Counts additions and removals from now on in live metrics, after
+     * counting the users already found by ID.
+     *
+     * @param metrics the metrics to keep current
+     */
+    public void setMetrics(LiveMetrics metrics) {
+        synchronized (users) {
+            this.metrics = metrics;
+            if (metrics != null) {
+                byId.values().forEach(metrics::userAdded);
+            }
+        }
+    }
+
+    /**
+     * Finds a user by ID.
+     *
+     * @param id the user ID
+     * @return the user, or null if there is none
+     */
+    public User find(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /**
+     * Adds a user unless another user has the same ID. The check and the
+     * addition are one step, so two registrations with the same ID cannot
+     * both succeed.
+     *
+     * @param user the user to add
+     * @return true if added, false if the ID is taken or missing
+     */
+    public boolean addIfAbsent(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        synchronized (users) {
+            if (byId.putIfAbsent(user.getId(), user) != null) {
+                return false;
+            }
+            users.add(user);
+            if (metrics != null) {
+                metrics.userAdded(user);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a user, for example when a registration could not be saved.
+     *
+     * @param user the user to remove
+     */
+    public void remove(User user) {
+        if (user == null) {
+            return;
+        }
+        synchronized (users) {
+            users.remove(user);
+            if (user.getId() != null && byId.remove(user.getId(), user) && metrics != null) {
+                metrics.userRemoved(user);
+            }
+        }
+    }
+
+    /**
+     * Recounts a representative after its approval was changed.
+     *
+     * @param rep the representative
+     */
+    public void approvalChanged(CompanyRepresentative rep) {
+        LiveMetrics current = metrics;
+        if (current != null && rep != null) {
+            current.representativeChanged(rep);
+        }
+    }
+
+    /**
+     * Copies the users in the order they were loaded or added.
+     *
+     * @return a new list of all users
+     */
+    public List<User> getUsers() {
+        synchronized (users) {
+            return new ArrayList<>(users);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
@@ -22,7 +22,7 @@ import java.time.LocalDate;
  * @see CareerCenterStaff
  */
 public class WithdrawalRequest {
-    private WithdrawalStatus status;
+    private volatile WithdrawalStatus status;
     private String withdrawalReason;
     private LocalDate requestDate;
     private Student applicant;
@@ -69,9 +69,25 @@ public class WithdrawalRequest {
         return decidedBy;
     }
 
-    public void decide(CareerCenterStaff decider, WithdrawalStatus decision) {
+    public synchronized void decide(CareerCenterStaff decider, WithdrawalStatus decision) {
         this.decidedBy = decider;
         this.status = decision;
     }
+
+    /**
+     * Decides the request unless it was decided already, so that when two
+     * staff members decide at once only the first decision counts.
+     *
+     * @param decider the staff member deciding
+     * @param decision the decision
+     * @return true if this decision was recorded
+     */
+    public synchronized boolean decideIfPending(CareerCenterStaff decider, WithdrawalStatus decision) {
+        if (status != WithdrawalStatus.PENDING) {
+            return false;
+        }
+        decide(decider, decision);
+        return true;
+    }
 }
 